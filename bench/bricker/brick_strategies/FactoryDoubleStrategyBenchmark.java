@@ -0,0 +1,51 @@
+package bricker.brick_strategies;
+
+import bricker.main.HeadlessRunner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building random double-strategy trees with {@link FactoryDoubleStrategy}.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactoryDoubleStrategyBenchmark {
+
+	private FactoryDoubleStrategy factory;
+
+	/**
+	 * Builds the factory against a small headless game.
+	 */
+	@Setup
+	public void setUp() {
+		HeadlessRunner runner = new HeadlessRunner(new String[]{"1", "1"}, false);
+		runner.start();
+		factory = new FactoryDoubleStrategy(runner.getGame().getContext());
+	}
+
+	/**
+	 * Builds a random double-strategy tree.
+	 *
+	 * @return The tree, so the work is not optimized away.
+	 */
+	@Benchmark
+	public CollisionStrategy buildDoubleStrategy() {
+		return factory.buildDoubleStrategy();
+	}
+}
@@ -0,0 +1,146 @@
+package bricker.brick_strategies;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.BrickGrid;
+import bricker.gameobjects.FallingHeart;
+import bricker.gameobjects.PuckBall;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessRunner;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dispatching a brick hit through each {@link CollisionStrategy} implementation,
+ * on a headless game.
+ * <p>
+ * The engine's {@code Collision} cannot be constructed outside of it, so dispatch is measured
+ * through {@link Brick#hit}, which is exactly what {@code Brick.onCollisionEnter} calls. A
+ * batch of bricks is placed in a field of its own before the trial, and each invocation hits
+ * every brick once; a hit only queues its side effects. Before each invocation the queued side
+ * effects are applied, the pucks and hearts they spawned go back to their pools and the bricks
+ * are revived, so the game does not grow from one invocation to the next.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+
+	private static final Vector2 BRICK_SIZE = new Vector2(80, 15);
+	private static final int BATCH_SIZE = 100;
+	private static final int SPAWN_POOL_CAPACITY = 8 * BATCH_SIZE;
+
+	@Param({"BASIC", "EXTRA_BALLS", "EXTRA_PADDLE", "TURBO", "RETURN_STREAK", "DOUBLE"})
+	private String strategy;
+
+	private BrickerGameManager game;
+	private Ball ball;
+	private FactoryDoubleStrategy factory;
+	private BrickField field;
+	private final CollisionStrategy[] strategies = new CollisionStrategy[BATCH_SIZE];
+	private final Brick[] bricks = new Brick[BATCH_SIZE];
+	private final List<GameObject> spawned = new ArrayList<>();
+
+	/**
+	 * Starts a small headless game and places the batch of bricks with the benchmarked strategy.
+	 */
+	@Setup(Level.Trial)
+	public void setUpGame() {
+		HeadlessRunner runner = new HeadlessRunner(new String[]{"1", "1"}, false);
+		runner.getGame().setSpawnPoolCapacity(SPAWN_POOL_CAPACITY);
+		runner.start();
+		game = runner.getGame();
+		ball = game.getContext().ball();
+		factory = new FactoryDoubleStrategy(game.getContext());
+		field = new BrickField(Vector2.ZERO, new Vector2(BATCH_SIZE * BRICK_SIZE.x(), BRICK_SIZE.y()), null,
+				new BrickGrid(Vector2.ZERO, BRICK_SIZE, 1, BATCH_SIZE), BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			strategies[i] = createStrategy();
+			int id = field.add(i * BRICK_SIZE.x(), 0, BRICK_SIZE.x(), BRICK_SIZE.y(), strategies[i]);
+			bricks[i] = field.view(id);
+		}
+	}
+
+	/**
+	 * Applies the side effects the last batch of hits queued, returns the pucks and hearts it
+	 * spawned to their pools and revives the bricks it removed.
+	 */
+	@Setup(Level.Invocation)
+	public void resetBricks() {
+		game.getCommands().flush();
+		for (GameObject object : game.gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			if (object instanceof PuckBall || object instanceof FallingHeart) {
+				spawned.add(object);
+			}
+		}
+		for (GameObject object : spawned) {
+			game.gameObjects().removeGameObject(object);
+			if (object instanceof PuckBall) {
+				game.getPuckPool().release((PuckBall) object);
+			} else {
+				game.getHeartPool().release((FallingHeart) object);
+			}
+		}
+		spawned.clear();
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			if (!field.isAlive(i)) {
+				field.revive(i, strategies[i]);
+			}
+		}
+	}
+
+	/**
+	 * Dispatches a ball hit through each brick of the batch.
+	 *
+	 * @return The last brick, so the work is not optimized away.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public Brick onCollisionEnter() {
+		for (Brick brick : bricks) {
+			brick.hit(ball);
+		}
+		return bricks[BATCH_SIZE - 1];
+	}
+	private CollisionStrategy createStrategy() {
+		switch (strategy) {
+			case "EXTRA_BALLS":
+				return factory.getExtraBallsStrategy();
+			case "EXTRA_PADDLE":
+				return factory.getExtraPaddleStrategy();
+			case "TURBO":
+				return factory.getTurboModeStrategy();
+			case "RETURN_STREAK":
+				return factory.getReturnStreakStrategy();
+			case "DOUBLE":
+				return factory.buildDoubleStrategy();
+			default:
+				return factory.getBasicStrategy();
+		}
+	}
+}
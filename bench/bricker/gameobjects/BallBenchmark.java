@@ -0,0 +1,61 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the ball's velocity reflection on collision.
+ * <p>
+ * Measured through {@link Ball#bounce}, the body of {@code Ball.onCollisionEnter}, since the
+ * engine's {@code Collision} cannot be constructed outside of it.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BallBenchmark {
+
+	private static final Vector2 BALL_SIZE = new Vector2(20, 20);
+	private static final float SPEED = 150;
+
+	private Ball ball;
+	private GameObject wall;
+
+	/**
+	 * Creates a silent ball and an obstacle to bounce off.
+	 */
+	@Setup
+	public void setUp() {
+		ball = new Ball(Vector2.ZERO, BALL_SIZE, null, null);
+		ball.setVelocity(new Vector2(SPEED, SPEED));
+		wall = new GameObject(Vector2.ZERO, BALL_SIZE, null);
+	}
+
+	/**
+	 * Reflects the ball's velocity off a horizontal surface.
+	 *
+	 * @return The ball's new velocity, so the work is not optimized away.
+	 */
+	@Benchmark
+	public Vector2 onCollisionEnter() {
+		ball.bounce(wall, Vector2.UP);
+		return ball.getVelocity();
+	}
+}
@@ -0,0 +1,32 @@
+package bricker.main;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all the Bricker benchmarks with the GC profiler, so every result reports the
+ * allocation rate ({@code gc.alloc.rate.norm}) next to the time per operation.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class BenchmarkMain {
+
+	private static final String BENCHMARKS = "bricker\\..*Benchmark";
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args An optional regular expression selecting the benchmarks to run.
+	 * @throws RunnerException If JMH fails to run.
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : BENCHMARKS)
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,121 @@
+package bricker.main;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building a level and restarting a game, on a headless game manager.
+ * <p>
+ * {@code createBricks} is private, so it is measured through a fresh
+ * {@code initializeGame}, which it dominates for all but the smallest grids. Every call needs
+ * a runner that was never started, so it runs in single-shot batches of runners created before
+ * each iteration. {@code restartGame} resets the same started game over and over.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+@Fork(1)
+public class GameBenchmark {
+
+	private static final int BATCH_SIZE = 50;
+
+	/**
+	 * A batch of runners that were never started, one per call of {@link #createBricks}.
+	 */
+	@State(Scope.Thread)
+	public static class FreshGames {
+
+		@Param({"8", "32", "128"})
+		private int gridSize;
+
+		private final HeadlessRunner[] runners = new HeadlessRunner[BATCH_SIZE];
+		private int next;
+
+		/**
+		 * Creates the iteration's runners.
+		 */
+		@Setup(Level.Iteration)
+		public void setUp() {
+			String[] args = {Integer.toString(gridSize), Integer.toString(gridSize)};
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				runners[i] = new HeadlessRunner(args, false);
+			}
+			next = 0;
+		}
+
+		/**
+		 * @return The next unstarted runner, released so its game can be collected once built.
+		 */
+		HeadlessRunner take() {
+			HeadlessRunner runner = runners[next];
+			runners[next++] = null;
+			return runner;
+		}
+	}
+
+	/**
+	 * A started game, shared by every call of {@link #restartGame}.
+	 */
+	@State(Scope.Thread)
+	public static class StartedGame {
+
+		@Param({"8", "32", "128"})
+		private int gridSize;
+
+		private HeadlessRunner runner;
+
+		/**
+		 * Creates and starts the runner.
+		 */
+		@Setup(Level.Trial)
+		public void setUp() {
+			runner = new HeadlessRunner(new String[]{Integer.toString(gridSize), Integer.toString(gridSize)}, false);
+			runner.start();
+		}
+	}
+
+	/**
+	 * Builds a gridSize x gridSize level from scratch.
+	 *
+	 * @param games The iteration's unstarted runners.
+	 * @return The game, so the work is not optimized away.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 10, batchSize = BATCH_SIZE)
+	@Measurement(iterations = 20, batchSize = BATCH_SIZE)
+	public Object createBricks(FreshGames games) {
+		HeadlessRunner runner = games.take();
+		runner.start();
+		return runner.getGame();
+	}
+
+	/**
+	 * Runs the full restart cycle on a gridSize x gridSize level.
+	 *
+	 * @param game The started game.
+	 * @return The game, so the work is not optimized away.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 3, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	public Object restartGame(StartedGame game) {
+		game.runner.getGame().restartGame();
+		return game.runner.getGame();
+	}
+}
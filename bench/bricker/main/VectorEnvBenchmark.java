@@ -0,0 +1,83 @@
+package bricker.main;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks stepping a batch of environments in lockstep with random actions. Run with
+ * {@code -prof gc} to check that stepping allocates nothing beyond the games themselves.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorEnvBenchmark {
+
+	private static final String[] ARGS = {"7", "8"};
+	private static final long SEED = 42;
+	private static final long MAX_EPISODE_TICKS = 10_000;
+	private static final int ACTION_SETS = 64;
+	private static final int ACTIONS = 3;
+
+	@Param({"1000"})
+	private int envs;
+
+	@Param({"1", "8"})
+	private int workers;
+
+	private VectorEnv env;
+	private int[][] actionSets;
+	private int step = 0;
+
+	/**
+	 * Creates the environments and a few sets of random actions.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		env = new VectorEnv(envs, ARGS, SEED, VectorEnv.DEFAULT_MAX_PUCKS, workers, MAX_EPISODE_TICKS);
+		Random random = new Random(SEED);
+		actionSets = new int[ACTION_SETS][envs];
+		for (int[] actions : actionSets) {
+			for (int i = 0; i < envs; i++) {
+				actions[i] = random.nextInt(ACTIONS);
+			}
+		}
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		env.close();
+	}
+
+	/**
+	 * Steps every environment once.
+	 *
+	 * @return The rewards, so the work is not optimized away.
+	 */
+	@Benchmark
+	public float[] step() {
+		env.step(actionSets[step++ % ACTION_SETS]);
+		return env.rewards();
+	}
+}
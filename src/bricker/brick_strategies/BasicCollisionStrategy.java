@@ -1,6 +1,6 @@
 package bricker.brick_strategies;
 
-import bricker.main.BrickerGameManager;
+import bricker.main.GameContext;
 import danogl.GameObject;
 
 
@@ -8,27 +8,30 @@ import danogl.GameObject;
  * BasicCollisionStrategy implements a simple collision behavior for bricks.
  * When a collision occurs, the brick (object1) is removed from the game,
  * and the brick counter in the BrickerGameManager is decremented.
+ * <p>
+ * The strategy is stateless, so a single instance is shared by all the bricks of a game.
+ * </p>
  *
  * @author Eyal Hartman, Dana Weitzhandler
  */
 public class BasicCollisionStrategy implements CollisionStrategy {
 
-	private BrickerGameManager brickerGameManager;
+	private final GameContext context;
 
 	/**
-	 * Constructs a BasicCollisionStrategy with a reference to the BrickerGameManager.
+	 * Constructs a BasicCollisionStrategy.
 	 *
-	 * @param brickerGameManager The game manager responsible for managing global game state,
-	 *                           such as removing game objects and tracking the brick counter.
+	 * @param context The game context, whose game manager is responsible for removing game objects
+	 *                and tracking the brick counter.
 	 */
-	public BasicCollisionStrategy(BrickerGameManager brickerGameManager) {
-		this.brickerGameManager = brickerGameManager;
+	public BasicCollisionStrategy(GameContext context) {
+		this.context = context;
 	}
 
 	/**
-	 * Handles the collision between two game objects. This strategy simply removes
-	 * the first object (typically the brick) from the game and notifies the game manager
-	 * to decrement the remaining bricks counter.
+	 * Handles the collision between two game objects. This strategy simply queues the removal
+	 * of the first object (typically the brick); when the game manager applies it at the end of
+	 * the frame, the remaining bricks counter is decremented.
 	 *
 	 * @param object1 The first object involved in the collision (usually the brick).
 	 * @param object2 The second object involved in the collision (e.g., the ball).
@@ -36,8 +39,6 @@ public class BasicCollisionStrategy implements CollisionStrategy {
 	@Override
 	public void onCollision(GameObject object1, GameObject object2) {
 
-		if(brickerGameManager.removeGameObject(object1)){ // Remove the brick from the game
-		brickerGameManager.decrementCounter();
-		}
+		context.gameManager().getCommands().removeBrick(object1); // Remove the brick from the game
 	}
 }
@@ -39,4 +39,18 @@ public class DoubleStrategy implements CollisionStrategy {
 		this.firstStrg.onCollision(object1, object2);
 		this.secondStrg.onCollision(object1, object2);
 	}
+
+	/**
+	 * @return The strategy executed first on collision.
+	 */
+	public CollisionStrategy getFirst() {
+		return firstStrg;
+	}
+
+	/**
+	 * @return The strategy executed second on collision.
+	 */
+	public CollisionStrategy getSecond() {
+		return secondStrg;
+	}
 }
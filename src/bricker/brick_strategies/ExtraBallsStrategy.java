@@ -2,14 +2,9 @@ package bricker.brick_strategies;
 
 import bricker.gameobjects.PuckBall;
 
-import bricker.main.BrickerGameManager;
+import bricker.main.GameContext;
 import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
-import danogl.gui.ImageReader;
-import danogl.gui.Sound;
-import danogl.gui.SoundReader;
-import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
 
@@ -20,7 +15,11 @@ import java.util.Random;
  * <p>
  * This class decorates a base collision strategy by first executing its logic
  * (e.g., removing the brick), and then adding two extra puck balls at the brick's center.
- * The puck balls are given randomized directions and added to the game world.
+ * The puck balls are taken from the game manager's puck pool, given randomized
+ * directions and added to the game world.
+ * </p>
+ * <p>
+ * The strategy holds no per-brick state, so a single instance is shared by all the bricks of a game.
  * </p>
  *
  * @author Eyal Hartman, Dana Weitzhandler
@@ -28,44 +27,23 @@ import java.util.Random;
 public class ExtraBallsStrategy implements CollisionStrategy{
 
 	private static final int NUM_PUCKS = 2;
-	private static final String PUCK_IMAGE = "assets/assets/mockBall.png";
-	private static final String PUCK_SOUND = "assets/assets/blop.wav";
 
-	private final ImageReader imageReader;
-	private final SoundReader soundReader;
-	private final GameObjectCollection gameObjects;
-	private final Vector2 puckSize;
-	private final int ballSpeed;
+	private final GameContext context;
 	private final CollisionStrategy basicCollisionStrategy;
-	private final Vector2 windowDimensions;
-	private final BrickerGameManager brickerGameManager;
-
+	private final Random random;
 
 
 	/**
 	 * Constructs a new ExtraBallsStrategy.
 	 *
-	 * @param imageReader             Utility to read images for puck rendering.
-	 * @param soundReader             Utility to read sound files for collisions.
-	 * @param gameObjects             The collection to which new game objects are added.
-	 * @param puckSize                Size of the spawned puck balls.
-	 * @param speed                   Speed of the spawned puck balls.
+	 * @param context                 The game context: game objects, game manager, ball speed
+	 *                                and the random source for the puck angles.
 	 * @param basicCollisionStrategy  The base collision strategy to wrap/decorate.
-	 * @param windowDimensions        The dimensions of the game window.
-	 * @param brickerGameManager      Reference to the main game manager.
 	 */
-	public ExtraBallsStrategy(ImageReader imageReader, SoundReader soundReader,
-							  GameObjectCollection gameObjects, Vector2 puckSize, int speed,
-							  CollisionStrategy basicCollisionStrategy, Vector2 windowDimensions,
-							  BrickerGameManager brickerGameManager){
-		this.imageReader = imageReader;
-		this.soundReader = soundReader;
-		this.gameObjects = gameObjects;
-		this.puckSize = puckSize;
-		this.ballSpeed = speed;
+	public ExtraBallsStrategy(GameContext context, CollisionStrategy basicCollisionStrategy){
+		this.context = context;
 		this.basicCollisionStrategy = basicCollisionStrategy;
-		this.windowDimensions = windowDimensions;
-		this.brickerGameManager = brickerGameManager;
+		this.random = context.random();
 	}
 
 	/**
@@ -90,23 +68,15 @@ public class ExtraBallsStrategy implements CollisionStrategy{
 	 * @param spawnCenter The center position where the pucks should appear.
 	 */
 	private void createPucks(Vector2 spawnCenter) {
-		Renderable ballImage = this.imageReader.readImage(PUCK_IMAGE, true);
-		Sound collisionSound = soundReader.readSound(PUCK_SOUND);
-
+		int ballSpeed = context.ballSpeed();
 		for (int i = 0; i<NUM_PUCKS;i++){
-
-			PuckBall ball =  new PuckBall(spawnCenter,
-					puckSize,
-					ballImage,
-					collisionSound, gameObjects,
-					windowDimensions, brickerGameManager);
-			Random random = new Random();
+			PuckBall ball = context.gameManager().getPuckPool().acquire();
 			double angle = random.nextDouble()*Math.PI;
 			float velocityX = (float)Math.cos(angle)* ballSpeed;
 			float velocityY = (float)Math.sin(angle)* ballSpeed;
-			ball.setVelocity(new Vector2(velocityX, velocityY));
+			ball.reset(spawnCenter, new Vector2(velocityX, velocityY));
 
-			gameObjects.addGameObject(ball, Layer.DEFAULT);
+			context.gameManager().getCommands().spawn(ball, Layer.DEFAULT);
 
 		}
 	}
@@ -2,11 +2,9 @@ package bricker.brick_strategies;
 
 import bricker.gameobjects.ExtraPaddle;
 import bricker.main.BrickerGameManager;
+import bricker.main.GameContext;
 import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
-import danogl.gui.ImageReader;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -16,6 +14,7 @@ import danogl.util.Vector2;
  * This strategy wraps another basic collision strategy, performing its logic first.
  * If the player currently has no extra paddle, it spawns a new one at the center
  * of the game window, allowing the player to control an additional paddle temporarily.
+ * The strategy is stateless, so a single instance is shared by all the bricks of a game.
  * </p>
  *
  * @author Eyal Hartman, Dana Weitzhandler
@@ -23,42 +22,20 @@ import danogl.util.Vector2;
 public class ExtraPaddleStrategy implements CollisionStrategy{
 
 	private static final float PADDLE_SPAWN_X_Y_FACTOR = 2f;
-	private static final String EXTRA_PADDLE_IMAGE_PATH = "assets/assets/paddle.png";
-	private static final boolean USE_TRANSPARENCY = true;
 	private static final int NO_EXTRA_PADDLES = 0;
 
-	private final BrickerGameManager brickerGameManager;
+	private final GameContext context;
 	private final CollisionStrategy basicCollisionStrategy;
-	private final GameObjectCollection gameObjects;
-	private final ImageReader imageReader;
-	private final UserInputListener inputListener;
-	private final Vector2 windowDimensions;
-	private final Vector2 paddleDimensions;
 
 	/**
 	 * Constructor for ExtraPaddleStrategy.
 	 *
-	 * @param brickerGameManager The game manager for managing game state.
+	 * @param context The game context: game manager, game objects, assets, input and dimensions.
 	 * @param basicCollisionStrategy The basic collision strategy to delegate to.
-	 * @param gameObjects The collection of game objects in the game.
-	 * @param imageReader The image reader for loading images.
-	 * @param inputListener The input listener for user input.
-	 * @param windowDimensions The dimensions of the window.
-	 * @param paddleDimensions The dimensions of the paddle.
 	 */
-	public ExtraPaddleStrategy(BrickerGameManager brickerGameManager,
-							   CollisionStrategy basicCollisionStrategy,
-							   GameObjectCollection gameObjects,
-							   ImageReader imageReader,
-							   UserInputListener inputListener,
-							   Vector2 windowDimensions, Vector2 paddleDimensions) {
-		this.brickerGameManager = brickerGameManager;
+	public ExtraPaddleStrategy(GameContext context, CollisionStrategy basicCollisionStrategy) {
+		this.context = context;
 		this.basicCollisionStrategy = basicCollisionStrategy;
-		this.gameObjects = gameObjects;
-		this.imageReader = imageReader;
-		this.inputListener = inputListener;
-		this.windowDimensions = windowDimensions;
-		this.paddleDimensions = paddleDimensions;
 	}
 
 
@@ -76,23 +53,24 @@ public class ExtraPaddleStrategy implements CollisionStrategy{
 		}
 		basicCollisionStrategy.onCollision(object1, object2);
 
+		BrickerGameManager brickerGameManager = context.gameManager();
 		if (brickerGameManager.getExtraPaddlesCount() == NO_EXTRA_PADDLES) {
+			Vector2 windowDimensions = context.windowDimensions();
 			Vector2 center = new Vector2(
 					windowDimensions.x() / PADDLE_SPAWN_X_Y_FACTOR,
 					windowDimensions.y() / PADDLE_SPAWN_X_Y_FACTOR
 			);
 
-			Renderable paddleImage = imageReader.readImage(EXTRA_PADDLE_IMAGE_PATH, USE_TRANSPARENCY);
+			Renderable paddleImage = context.assets().paddleImage();
 			ExtraPaddle newPaddle = new ExtraPaddle(center,
-						paddleDimensions,
+						context.paddleDimensions(),
 						paddleImage,
-						inputListener,
+						context.inputListener(),
 						windowDimensions,
-						gameObjects,
 						brickerGameManager
 			);
-			gameObjects.addGameObject(newPaddle, Layer.DEFAULT);
-			brickerGameManager.incrementExtraPaddles();
+			brickerGameManager.getCommands().spawn(newPaddle, Layer.DEFAULT);
+			brickerGameManager.incrementExtraPaddles(); // counted now, so a second hit this frame adds no paddle
 			}
 		}
 	}
@@ -1,107 +1,100 @@
 package bricker.brick_strategies;
 
-import bricker.gameobjects.Ball;
-import bricker.gameobjects.Paddle;
-import bricker.main.BrickerGameManager;
-import danogl.collisions.GameObjectCollection;
-import danogl.gui.ImageReader;
-import danogl.gui.SoundReader;
-import danogl.gui.UserInputListener;
-import danogl.gui.rendering.Renderable;
-import danogl.util.Vector2;
+import bricker.main.GameContext;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Random;
 
 /**
- * Factory class responsible for creating random {@link CollisionStrategy} instances,
+ * Factory class responsible for handing out {@link CollisionStrategy} instances,
  * including both single and double (composite) strategies.
  * <p>
+ * Every single strategy is created once per game and shared by all the bricks of its type.
  * The double strategies are constructed recursively and avoid excessive nesting
- * by limiting depth to a maximum of 2 levels.
+ * by limiting depth to a maximum of 2 levels. Since their parts are shared and stateless,
+ * a double strategy is built only once for each combination of parts and reused afterwards.
  * </p>
  * @author Eyal Hartman, Dana Weitzhandler
  */
 public class FactoryDoubleStrategy {
 
-	private static final int STRATEGY_EXTRA_BALLS = 1;
-	private static final int STRATEGY_EXTRA_PADDLE = 2;
-	private static final int STRATEGY_TURBO_MODE = 3;
-	private static final int STRATEGY_RETURN_STREAK = 4;
-	private static final int STRATEGY_DOUBLE = 5;
+	/** Strategy code of the basic strategy, which only removes the brick. */
+	public static final int STRATEGY_BASIC = 0;
+	/** Strategy code of the extra balls strategy. */
+	public static final int STRATEGY_EXTRA_BALLS = 1;
+	/** Strategy code of the extra paddle strategy. */
+	public static final int STRATEGY_EXTRA_PADDLE = 2;
+	/** Strategy code of the turbo mode strategy. */
+	public static final int STRATEGY_TURBO_MODE = 3;
+	/** Strategy code of the return streak (extra life) strategy. */
+	public static final int STRATEGY_RETURN_STREAK = 4;
+	/** Strategy code of a double strategy; in level files it is followed by the codes of its two parts. */
+	public static final int STRATEGY_DOUBLE = 5;
 	private static final int STRATEGY_UPPER_BOUND = 6; // exclusive bound for nextInt
 	private static final int INITIAL_RECURSION_DEPTH = 0;
 	private static final int MAX_RECURSION_DEPTH = 2;
 	private static final int INCREMENT = 1;
 
-	private final ImageReader imageReader;
-	private final SoundReader soundReader;
-	private final GameObjectCollection gameObjectCollection;
-	private final Vector2 puckSize;
-	private final int speed;
 	private final BasicCollisionStrategy basicCollisionStrategy;
-	private final Vector2 windowDimensions;
-	private final BrickerGameManager brickerGameManager;
-	private final Ball ball;
-	private final Renderable turboModeRenderable;
-	private final Vector2 paddleDimensions;
-	private final UserInputListener inputListener;
-	private final Paddle originalPaddle;
-	private final Renderable heartImage;
-	private final Vector2 heartDimensions;
-
-	private final Random random = new Random();
+	private final ExtraBallsStrategy extraBallsStrategy;
+	private final ExtraPaddleStrategy extraPaddleStrategy;
+	private final TurboModeStrategy turboModeStrategy;
+	private final ReturnStreakStrategy returnStreakStrategy;
+	private final Map<CollisionStrategy, Map<CollisionStrategy, DoubleStrategy>> doubleStrategies =
+			new IdentityHashMap<>();
+
+	private final Random random;
 
 	/**
-	 * Constructs the strategy factory with all dependencies required to generate any type
-	 * of {@link CollisionStrategy} used in the game.
+	 * Constructs the strategy factory and the shared single strategies of a game.
 	 *
-	 * @param imageReader           Reader for loading images.
-	 * @param soundReader           Reader for loading sounds.
-	 * @param gameObjectCollection  Collection to manage game objects.
-	 * @param puckSize              Size of the pucks to spawn.
-	 * @param speed                 Speed of the spawned pucks.
-	 * @param basicCollisionStrategy Base collision behavior strategy.
-	 * @param windowDimensions      Dimensions of the game window.
-	 * @param brickerGameManager     Reference to the game manager.
-	 * @param ball                  The main ball object.
-	 * @param turboModeRenderable   Visual representation for turbo mode.
-	 * @param paddleDimensions      Dimensions of the paddle.
-	 * @param inputListener         Handles user input (for paddle control).
-	 * @param originalPaddle        The player's original paddle.
-	 * @param heartImage            Image used for life display.
-	 * @param heartDimensions       Size of heart icons for UI.
+	 * @param context The game context holding every dependency of the strategies.
+	 */
+	public FactoryDoubleStrategy(GameContext context) {
+		this.random = context.random();
+		this.basicCollisionStrategy = new BasicCollisionStrategy(context);
+		this.extraBallsStrategy = new ExtraBallsStrategy(context, basicCollisionStrategy);
+		this.extraPaddleStrategy = new ExtraPaddleStrategy(context, basicCollisionStrategy);
+		this.turboModeStrategy = new TurboModeStrategy(context, basicCollisionStrategy);
+		this.returnStreakStrategy = new ReturnStreakStrategy(basicCollisionStrategy, context);
+	}
+
+	/**
+	 * @return The shared strategy that simply removes the brick.
+	 */
+	public BasicCollisionStrategy getBasicStrategy() {
+		return basicCollisionStrategy;
+	}
+
+	/**
+	 * @return The shared strategy that spawns extra puck balls.
 	 */
-	public FactoryDoubleStrategy(ImageReader imageReader,
-								 SoundReader soundReader,
-								 GameObjectCollection gameObjectCollection,
-								 Vector2 puckSize,
-								 int speed,
-								 BasicCollisionStrategy basicCollisionStrategy,
-								 Vector2 windowDimensions,
-								 BrickerGameManager brickerGameManager,
-								 Ball ball,
-								 Renderable turboModeRenderable,
-								 Vector2 paddleDimensions,
-								 UserInputListener inputListener,
-								 Paddle originalPaddle,
-								 Renderable heartImage,
-								 Vector2 heartDimensions) {
-
-		this.imageReader = imageReader;
-		this.soundReader = soundReader;
-		this.gameObjectCollection = gameObjectCollection;
-		this.puckSize = puckSize;
-		this.speed = speed;
-		this.basicCollisionStrategy = basicCollisionStrategy;
-		this.windowDimensions = windowDimensions;
-		this.brickerGameManager = brickerGameManager;
-		this.ball = ball;
-		this.turboModeRenderable = turboModeRenderable;
-		this.paddleDimensions = paddleDimensions;
-		this.inputListener = inputListener;
-		this.originalPaddle = originalPaddle;
-		this.heartImage = heartImage;
-		this.heartDimensions = heartDimensions;
+	public ExtraBallsStrategy getExtraBallsStrategy() {
+		return extraBallsStrategy;
+	}
+
+	/**
+	 * @return The shared strategy that adds an extra paddle.
+	 */
+	public ExtraPaddleStrategy getExtraPaddleStrategy() {
+		return extraPaddleStrategy;
+	}
+
+	/**
+	 * @return The shared turbo mode strategy, which also tracks the ball's turbo state.
+	 */
+	public TurboModeStrategy getTurboModeStrategy() {
+		return turboModeStrategy;
+	}
+
+	/**
+	 * @return The shared strategy that drops a heart.
+	 */
+	public ReturnStreakStrategy getReturnStreakStrategy() {
+		return returnStreakStrategy;
 	}
 
 	/**
@@ -114,7 +107,7 @@ public class FactoryDoubleStrategy {
 	}
 
 	/**
-	 * Internal factory method to construct specific strategies based on the given type number.
+	 * Internal factory method to hand out specific strategies based on the given type number.
 	 *
 	 * @param numStrategy  The strategy type number (1–5).
 	 * @param currentDepth The current recursion level (used to limit DoubleStrategy depth).
@@ -122,31 +115,16 @@ public class FactoryDoubleStrategy {
 	 */
 	public CollisionStrategy strategiesFactory(int numStrategy, int currentDepth) {
 		if (numStrategy == STRATEGY_EXTRA_BALLS) {
-			return new ExtraBallsStrategy(
-					imageReader, soundReader,
-					gameObjectCollection, puckSize,
-					speed, basicCollisionStrategy,
-					windowDimensions, brickerGameManager
-			);
+			return extraBallsStrategy;
 		}
 		if (numStrategy == STRATEGY_EXTRA_PADDLE) {
-			return new ExtraPaddleStrategy(
-					brickerGameManager, basicCollisionStrategy,
-					gameObjectCollection, imageReader,
-					inputListener, windowDimensions, paddleDimensions
-			);
+			return extraPaddleStrategy;
 		}
 		if (numStrategy == STRATEGY_TURBO_MODE) {
-			return new TurboModeStrategy(
-					ball, basicCollisionStrategy, turboModeRenderable
-			);
+			return turboModeStrategy;
 		}
 		if (numStrategy == STRATEGY_RETURN_STREAK) {
-			return new ReturnStreakStrategy(
-					basicCollisionStrategy, gameObjectCollection,
-					windowDimensions, originalPaddle,
-					heartImage, heartDimensions, brickerGameManager
-			);
+			return returnStreakStrategy;
 		}
 		if (numStrategy == STRATEGY_DOUBLE) {
 			return getDoubleStrategy(currentDepth);
@@ -155,12 +133,94 @@ public class FactoryDoubleStrategy {
 		return null; // should never occur
 	}
 
+	/**
+	 * Returns the shared DoubleStrategy combining the two given strategies, creating it on first use.
+	 *
+	 * @param first  The first strategy to execute on collision.
+	 * @param second The second strategy to execute on collision.
+	 * @return The shared composite strategy.
+	 */
+	public DoubleStrategy combine(CollisionStrategy first, CollisionStrategy second) {
+		return doubleStrategies
+				.computeIfAbsent(first, key -> new IdentityHashMap<>())
+				.computeIfAbsent(second, key -> new DoubleStrategy(first, second));
+	}
+
+	/**
+	 * Decodes a prefix-coded strategy tree, as stored in level files: one byte per node, where
+	 * {@value #STRATEGY_BASIC} is the basic strategy, 1–4 are the single special strategies and
+	 * {@value #STRATEGY_DOUBLE} is a double strategy followed by the codes of its two parts.
+	 * The buffer's position is advanced past the tree.
+	 *
+	 * @param code The encoded tree.
+	 * @return The shared strategy the tree describes.
+	 * @throws IllegalArgumentException If the code is unknown or the tree nests double strategies
+	 *                                  deeper than the game allows.
+	 */
+	public CollisionStrategy decode(ByteBuffer code) {
+		return decode(code, INITIAL_RECURSION_DEPTH);
+	}
+
+	/**
+	 * Encodes a strategy handed out by this factory as a prefix-coded tree, the inverse of
+	 * {@link #decode(ByteBuffer)}.
+	 *
+	 * @param strategy The strategy.
+	 * @return The encoded tree.
+	 * @throws IllegalArgumentException If the strategy was not handed out by this factory.
+	 */
+	public byte[] encode(CollisionStrategy strategy) {
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		encode(strategy, code);
+		return code.toByteArray();
+	}
+
+	private void encode(CollisionStrategy strategy, ByteArrayOutputStream code) {
+		if (strategy == basicCollisionStrategy) {
+			code.write(STRATEGY_BASIC);
+		} else if (strategy == extraBallsStrategy) {
+			code.write(STRATEGY_EXTRA_BALLS);
+		} else if (strategy == extraPaddleStrategy) {
+			code.write(STRATEGY_EXTRA_PADDLE);
+		} else if (strategy == turboModeStrategy) {
+			code.write(STRATEGY_TURBO_MODE);
+		} else if (strategy == returnStreakStrategy) {
+			code.write(STRATEGY_RETURN_STREAK);
+		} else if (strategy instanceof DoubleStrategy) {
+			DoubleStrategy doubleStrategy = (DoubleStrategy) strategy;
+			code.write(STRATEGY_DOUBLE);
+			encode(doubleStrategy.getFirst(), code);
+			encode(doubleStrategy.getSecond(), code);
+		} else {
+			throw new IllegalArgumentException("Not a strategy of this game: " + strategy);
+		}
+	}
+
+	private CollisionStrategy decode(ByteBuffer code, int currentDepth) {
+		int numStrategy = code.get();
+		if (numStrategy == STRATEGY_BASIC) {
+			return basicCollisionStrategy;
+		}
+		if (numStrategy == STRATEGY_DOUBLE) {
+			if (currentDepth >= MAX_RECURSION_DEPTH) {
+				throw new IllegalArgumentException("Double strategies are nested too deeply");
+			}
+			CollisionStrategy first = decode(code, currentDepth + INCREMENT);
+			CollisionStrategy second = decode(code, currentDepth + INCREMENT);
+			return combine(first, second);
+		}
+		if (numStrategy < STRATEGY_EXTRA_BALLS || numStrategy > STRATEGY_RETURN_STREAK) {
+			throw new IllegalArgumentException("Unknown strategy code " + numStrategy);
+		}
+		return strategiesFactory(numStrategy, currentDepth);
+	}
+
 	/**
 	 * Generates a DoubleStrategy composed of two random sub-strategies.
 	 * Limits recursion depth to avoid nested DoubleStrategies beyond MAX_RECURSION_DEPTH.
 	 *
 	 * @param currentDepth The current recursion level in the strategy tree.
-	 * @return A new DoubleStrategy or fallback strategy based on recursion depth.
+	 * @return A DoubleStrategy or fallback strategy based on recursion depth.
 	 */
 	private CollisionStrategy getDoubleStrategy(int currentDepth) {
 		if (currentDepth >= MAX_RECURSION_DEPTH) {
@@ -176,6 +236,6 @@ public class FactoryDoubleStrategy {
 
 		CollisionStrategy strat1 = strategiesFactory(s1, currentDepth + INCREMENT);
 		CollisionStrategy strat2 = strategiesFactory(s2, currentDepth + INCREMENT);
-		return new DoubleStrategy(strat1, strat2);
+		return combine(strat1, strat2);
 	}
 }
@@ -1,64 +1,44 @@
 package bricker.brick_strategies;
 
 import bricker.gameobjects.FallingHeart;
-import bricker.gameobjects.Paddle;
-import bricker.main.BrickerGameManager;
+import bricker.main.GameContext;
 import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
-import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
 /**
  * A strategy for handling the collision between a brick and a ball.
- * When a brick is hit by a ball, it creates a FallingHeart object that falls from the brick's position.
+ * When a brick is hit by a ball, it drops a FallingHeart (taken from the game manager's heart pool)
+ * from the brick's position.
  * The heart will increase the player's lives when it collides with the paddle.
+ * The strategy is stateless, so a single instance is shared by all the bricks of a game.
  *
  * @author Eyal Hartman, Dana Weitzhandler
  */
 public class ReturnStreakStrategy implements CollisionStrategy{
 	private final CollisionStrategy basicCollisionStrategy;
-	private final GameObjectCollection gameObjects;
-	private final Vector2 windowDimensions;
-	private final Paddle originalPaddle;
-	private final Renderable heartImage;
-	private final Vector2 heartDimensions;
-	private final BrickerGameManager gameManager;
+	private final GameContext context;
 
 	private static final float CENTER_OFFSET_FACTOR = 0.5f;
 	private static final int FALLING_HEART_SPEED_Y = 100;
 	private static final int FALLING_HEART_SPEED_X = 0;
+	private static final Vector2 FALLING_HEART_VELOCITY =
+			new Vector2(FALLING_HEART_SPEED_X, FALLING_HEART_SPEED_Y);
 
 
 	/**
 	 * Constructs a new ReturnStreakStrategy instance.
 	 *
-	 * @param delegate         The delegate collision strategy to handle the collision.
-	 * @param gameObjects      The collection of game objects in the game.
-	 * @param windowDimensions The dimensions of the window.
-	 * @param originalPaddle   The original paddle object.
-	 * @param heartImage       The image representing the heart.
-	 * @param heartDimensions  The dimensions of the heart.
-	 * @param gameManager      The game manager for managing game state.
+	 * @param delegate The delegate collision strategy to handle the collision.
+	 * @param context  The game context: game objects, game manager and heart dimensions.
 	 */
-	public ReturnStreakStrategy(CollisionStrategy delegate,
-							  GameObjectCollection gameObjects,
-							  Vector2 windowDimensions,
-							  Paddle originalPaddle,
-							  Renderable heartImage,
-							  Vector2 heartDimensions,
-							  BrickerGameManager gameManager) {
+	public ReturnStreakStrategy(CollisionStrategy delegate, GameContext context) {
 		this.basicCollisionStrategy         = delegate;
-		this.gameObjects      = gameObjects;
-		this.windowDimensions = windowDimensions;
-		this.originalPaddle   = originalPaddle;
-		this.heartImage       = heartImage;
-		this.heartDimensions  = heartDimensions;
-		this.gameManager      = gameManager;
+		this.context          = context;
 	}
     	/**
 	 * Handles the collision between a brick and a ball.
-	 * Creates a FallingHeart object that falls from the brick's position.
+	 * Drops a pooled FallingHeart from the brick's position.
 	 *
 	 * @param brick The brick that was hit by the ball.
 	 * @param other The other object involved in the collision (the ball).
@@ -68,20 +48,14 @@ public class ReturnStreakStrategy implements CollisionStrategy{
 
 		basicCollisionStrategy.onCollision(brick, other);
 
+		Vector2 heartDimensions = context.heartDimensions();
 		Vector2 center   = brick.getCenter();
 		Vector2 topLeft = new Vector2(
 				center.x() - heartDimensions.x()*CENTER_OFFSET_FACTOR,
 				center.y() - heartDimensions.y()*CENTER_OFFSET_FACTOR
 		);
-		FallingHeart h   = new FallingHeart(
-				topLeft, heartDimensions,
-				heartImage,
-				windowDimensions,
-				gameObjects,
-				originalPaddle,
-				gameManager
-		);
-		h.setVelocity(new Vector2(FALLING_HEART_SPEED_X, FALLING_HEART_SPEED_Y));
-		gameObjects.addGameObject(h, Layer.DEFAULT);
+		FallingHeart h   = context.gameManager().getHeartPool().acquire();
+		h.reset(topLeft, FALLING_HEART_VELOCITY);
+		context.gameManager().getCommands().spawn(h, Layer.DEFAULT);
 	}
 }
@@ -2,6 +2,9 @@ package bricker.brick_strategies;
 
 import bricker.gameobjects.Ball;
 import bricker.gameobjects.PuckBall;
+import bricker.main.GameContext;
+import bricker.main.GameEventBus;
+import bricker.main.GameEventType;
 import danogl.GameObject;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
@@ -14,6 +17,10 @@ import danogl.util.Vector2;
  * After a certain number of collisions, the ball returns to its original
  * velocity and appearance.
  * </p>
+ * <p>
+ * The turbo state belongs to the ball rather than to a brick, so a single instance
+ * is shared by all the turbo bricks of a game and is the one the game manager updates.
+ * </p>
  *
  * @author Eyal Hartman, Dana Weitzhandler
  */
@@ -23,8 +30,9 @@ public class TurboModeStrategy implements CollisionStrategy {
 	private static final float SPEED_FACTOR = 1.4f;
 
 	private final Ball ball;
-	private final BasicCollisionStrategy basicCollisionStrategy;
+	private final CollisionStrategy basicCollisionStrategy;
 	private final Renderable renderable;
+	private final GameEventBus events;
 
 	private int collisionCounter;
 	private boolean turboMode = false;
@@ -35,15 +43,15 @@ public class TurboModeStrategy implements CollisionStrategy {
 	 * Constructs a TurboModeStrategy that wraps a basic strategy and augments it
 	 * with turbo behavior (speed-up and appearance change).
 	 *
-	 * @param ball                  The main ball to apply turbo behavior to.
+	 * @param context               The game context: the main ball to apply turbo behavior to
+	 *                              and the turbo ball image.
 	 * @param basicCollisionStrategy The basic brick destruction behavior.
-	 * @param renderable            The renderable to apply to the ball during turbo mode.
 	 */
-	public TurboModeStrategy(Ball ball, BasicCollisionStrategy basicCollisionStrategy,
-							 Renderable renderable) {
+	public TurboModeStrategy(GameContext context, CollisionStrategy basicCollisionStrategy) {
 		this.basicCollisionStrategy = basicCollisionStrategy;
-		this.renderable = renderable;
-		this.ball = ball;
+		this.renderable = context.assets().turboBallImage();
+		this.ball = context.ball();
+		this.events = context.gameManager().getEvents();
 	}
 
 
@@ -72,7 +80,61 @@ public class TurboModeStrategy implements CollisionStrategy {
 
 			this.originalRenderer = ball.renderer().getRenderable();
 			ball.renderer().setRenderable(renderable);
+			Vector2 center = ball.getCenter();
+			events.publish(GameEventType.TURBO_STARTED, 0, center.x(), center.y());
+		}
+	}
+
+	/**
+	 * Forgets any active turbo mode without touching the ball. Used when the game is reset in place,
+	 * since the ball then gets its default velocity and appearance anyway.
+	 */
+	public void reset() {
+		this.turboMode = false;
+		this.originalVel = null;
+		this.originalRenderer = null;
+	}
+
+	/**
+	 * @return true while the ball is in turbo mode.
+	 */
+	public boolean isActive() {
+		return turboMode;
+	}
+
+	/**
+	 * @return The ball's collision counter when turbo mode started.
+	 */
+	public int getCollisionsAtStart() {
+		return collisionCounter;
+	}
+
+	/**
+	 * @return The velocity the ball returns to when turbo mode ends, or null if it is not active.
+	 */
+	public Vector2 getOriginalVelocity() {
+		return turboMode ? originalVel : null;
+	}
+
+	/**
+	 * Puts the turbo state back as it was recorded in a snapshot. The ball must already have
+	 * its restored velocity and its normal appearance; if turbo mode was active, the ball
+	 * switches to the turbo appearance and returns to its normal one when turbo mode ends.
+	 *
+	 * @param active            Whether turbo mode was active.
+	 * @param collisionsAtStart The ball's collision counter when turbo mode started.
+	 * @param originalVelocity  The velocity to return to when turbo mode ends.
+	 */
+	public void restore(boolean active, int collisionsAtStart, Vector2 originalVelocity) {
+		reset();
+		if (!active) {
+			return;
 		}
+		this.turboMode = true;
+		this.collisionCounter = collisionsAtStart;
+		this.originalVel = originalVelocity;
+		this.originalRenderer = ball.renderer().getRenderable();
+		ball.renderer().setRenderable(renderable);
 	}
 
 	/**
@@ -89,6 +151,7 @@ public class TurboModeStrategy implements CollisionStrategy {
 			this.turboMode = false;
 			ball.setVelocity(originalVel);
 			ball.renderer().setRenderable(originalRenderer);
+			events.publish(GameEventType.TURBO_ENDED, 0);
 		}
 	}
 }
@@ -1,8 +1,8 @@
 package bricker.gameobjects;
 
+import bricker.main.AudioMixer;
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.Sound;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -11,13 +11,29 @@ import danogl.util.Vector2;
  * The ball moves within the game window and bounces off other objects it collides with.
  * On each collision, it inverts its velocity based on the collision normal, plays a sound,
  * and increments its collision counter.
+ * <p>
+ * The ball remembers the move it made during the last update, so bricks, walls and paddles
+ * can be tested against the whole swept path ({@link #sweep}) rather than only the final
+ * position. That keeps fast balls from tunneling through thin objects at large timesteps.
+ * </p>
+ * <p>
+ * A swept hit is taken in two parts: {@link #recordHit} moves and reflects the ball and
+ * remembers the hit in the ball's {@link Contacts}, and {@link #applyContacts()} later
+ * plays out what the hits do to the rest of the game. Only the first part may run
+ * off the game thread.
+ * </p>
  *
  * @author Eyal Hartman, Dana Weitzhandler
  */
 public class Ball extends GameObject {
 
-	private final Sound collisionSound;
+	private final AudioMixer.Cue collisionSound;
 	private int collisionCounter = 0;
+	private float sweepX;
+	private float sweepY;
+	private float sweepDX = 0;
+	private float sweepDY = 0;
+	private final Contacts contacts = new Contacts();
 
 	/**
 	 * Constructs a new Ball object.
@@ -26,13 +42,182 @@ public class Ball extends GameObject {
 	 *                       Note that (0,0) is the top-left corner of the window.
 	 * @param dimensions     Width and height of the ball in window coordinates.
 	 * @param renderable     The renderable representing the ball. Can be null if no rendering is needed.
-	 * @param collisionSound The sound to play upon each collision.
+	 * @param collisionSound The sound cue to play upon each collision. Can be null if no sound is needed
+	 *                       (e.g. when running headless).
 	 */
-	public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, Sound collisionSound) {
+	public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+				AudioMixer.Cue collisionSound) {
 		super(topLeftCorner, dimensions, renderable);
 		this.collisionSound = collisionSound;
 	}
 
+	/**
+	 * Moves the ball and remembers the move, so it can be swept against obstacles.
+	 *
+	 * @param deltaTime Time elapsed since the last frame.
+	 */
+	@Override
+	public void update(float deltaTime) {
+		Vector2 start = getTopLeftCorner();
+		super.update(deltaTime);
+		Vector2 end = getTopLeftCorner();
+		sweepX = start.x();
+		sweepY = start.y();
+		sweepDX = end.x() - sweepX;
+		sweepDY = end.y() - sweepY;
+	}
+
+	/**
+	 * Tests the rest of the ball's last move against a static box.
+	 *
+	 * @param minX      The left edge of the box.
+	 * @param minY      The top edge of the box.
+	 * @param maxX      The right edge of the box.
+	 * @param maxY      The bottom edge of the box.
+	 * @param normalOut Receives the normal of the touched face ({x, y}), pointing towards the ball.
+	 * @return The fraction of the remaining move at which the ball touches the box,
+	 * or {@link SweptAabb#NO_HIT}. A hit is only reported if the ball is moving into the box.
+	 */
+	public float sweep(float minX, float minY, float maxX, float maxY, float[] normalOut) {
+		Vector2 dimensions = getDimensions();
+		float time = SweptAabb.timeOfImpact(sweepX, sweepY, dimensions.x(), dimensions.y(),
+				sweepDX, sweepDY, minX, minY, maxX, maxY, normalOut);
+		if (time == SweptAabb.NO_HIT) {
+			return SweptAabb.NO_HIT;
+		}
+		Vector2 velocity = getVelocity();
+		if (velocity.x() * normalOut[0] + velocity.y() * normalOut[1] >= 0) {
+			return SweptAabb.NO_HIT; // already moving away from the box
+		}
+		return time;
+	}
+
+	/**
+	 * Tests the rest of the ball's last move against another object's bounds.
+	 *
+	 * @param other     The obstacle.
+	 * @param normalOut Receives the normal of the touched face ({x, y}), pointing towards the ball.
+	 * @return The fraction of the remaining move at which the ball touches the obstacle,
+	 * or {@link SweptAabb#NO_HIT}.
+	 */
+	public float sweep(GameObject other, float[] normalOut) {
+		Vector2 topLeft = other.getTopLeftCorner();
+		Vector2 dimensions = other.getDimensions();
+		return sweep(topLeft.x(), topLeft.y(), topLeft.x() + dimensions.x(), topLeft.y() + dimensions.y(),
+				normalOut);
+	}
+
+	/**
+	 * @return The left edge of the box covering the rest of the ball's last move.
+	 */
+	public float sweptMinX() {
+		return Math.min(sweepX, sweepX + sweepDX);
+	}
+
+	/**
+	 * @return The top edge of the box covering the rest of the ball's last move.
+	 */
+	public float sweptMinY() {
+		return Math.min(sweepY, sweepY + sweepDY);
+	}
+
+	/**
+	 * @return The right edge of the box covering the rest of the ball's last move.
+	 */
+	public float sweptMaxX() {
+		return Math.max(sweepX, sweepX + sweepDX) + getDimensions().x();
+	}
+
+	/**
+	 * @return The bottom edge of the box covering the rest of the ball's last move.
+	 */
+	public float sweptMaxY() {
+		return Math.max(sweepY, sweepY + sweepDY) + getDimensions().y();
+	}
+
+	/**
+	 * Moves the ball back to the point of a swept hit and reflects the rest of its move
+	 * off the touched face. The velocity is left to {@link #bounce}.
+	 *
+	 * @param time   The fraction of the remaining move at which the hit happens.
+	 * @param normal The normal of the touched face.
+	 */
+	public void resolveSweptHit(float time, Vector2 normal) {
+		sweepX += sweepDX * time;
+		sweepY += sweepDY * time;
+		float restX = sweepDX * (1 - time);
+		float restY = sweepDY * (1 - time);
+		sweepDX = normal.x() != 0 ? -restX : restX;
+		sweepDY = normal.y() != 0 ? -restY : restY;
+		setTopLeftCorner(new Vector2(sweepX + sweepDX, sweepY + sweepDY));
+	}
+
+	/**
+	 * Ends the ball's sweep where its last move ended, leaving the ball there. Nothing is
+	 * swept for the rest of the step.
+	 */
+	protected void endSweep() {
+		sweepX += sweepDX;
+		sweepY += sweepDY;
+		sweepDX = 0;
+		sweepDY = 0;
+	}
+
+	/**
+	 * Tests whether the ball already overlaps a box where the rest of its last move starts.
+	 *
+	 * @param minX The left edge of the box.
+	 * @param minY The top edge of the box.
+	 * @param maxX The right edge of the box.
+	 * @param maxY The bottom edge of the box.
+	 * @return Whether the ball starts the rest of its move inside the box.
+	 */
+	protected boolean startsInside(float minX, float minY, float maxX, float maxY) {
+		Vector2 dimensions = getDimensions();
+		return sweepX < maxX && sweepX + dimensions.x() > minX
+				&& sweepY < maxY && sweepY + dimensions.y() > minY;
+	}
+
+	/**
+	 * Takes a swept hit found off the game thread: moves the ball to the point of contact,
+	 * reflects the rest of its move and its velocity, and records the hit for
+	 * {@link #applyContacts()}. Touches nothing but the ball.
+	 *
+	 * @param time   The fraction of the remaining move at which the hit happens.
+	 * @param other  The object that was hit.
+	 * @param normal The normal of the touched face.
+	 */
+	public void recordHit(float time, GameObject other, Vector2 normal) {
+		resolveSweptHit(time, normal);
+		reflect(normal);
+		contacts.add(other, normal);
+	}
+
+	/**
+	 * Applies the effects of the hits recorded since the last call, in the order they
+	 * happened: the ball's own reaction ({@link #bounced}), then the paddle's or the
+	 * brick's. Must run on the game thread.
+	 */
+	public void applyContacts() {
+		for (int i = 0; i < contacts.size(); i++) {
+			GameObject other = contacts.other(i);
+			bounced(other);
+			if (other instanceof Paddle) {
+				((Paddle) other).hitBy(this);
+			} else if (other instanceof Brick) {
+				((Brick) other).hit(this);
+			}
+		}
+		contacts.clear();
+	}
+
+	/**
+	 * @return The hits recorded by {@link #recordHit} and not applied yet.
+	 */
+	public Contacts contacts() {
+		return contacts;
+	}
+
 	/**
 	 * Handles behavior upon entering a collision.
 	 * Flips the ball's velocity according to the collision normal,
@@ -44,9 +229,41 @@ public class Ball extends GameObject {
 	@Override
 	public void onCollisionEnter(GameObject other, Collision collision) {
 		super.onCollisionEnter(other, collision);
-		Vector2 newVel = getVelocity().flipped(collision.getNormal());
-		setVelocity(newVel);
-		this.collisionSound.play();
+		bounce(other, collision.getNormal());
+	}
+
+	/**
+	 * Bounces the ball off another object.
+	 * Flips the ball's velocity according to the given normal,
+	 * plays a collision sound, and increments the collision counter.
+	 *
+	 * @param other  The GameObject this ball collided with.
+	 * @param normal The collision normal.
+	 */
+	public void bounce(GameObject other, Vector2 normal) {
+		reflect(normal);
+		bounced(other);
+	}
+
+	/**
+	 * Flips the ball's velocity according to the given normal.
+	 *
+	 * @param normal The collision normal.
+	 */
+	public void reflect(Vector2 normal) {
+		setVelocity(getVelocity().flipped(normal));
+	}
+
+	/**
+	 * Reacts to a bounce once the velocity has been reflected:
+	 * plays a collision sound and increments the collision counter.
+	 *
+	 * @param other The GameObject this ball collided with.
+	 */
+	protected void bounced(GameObject other) {
+		if (this.collisionSound != null) {
+			this.collisionSound.play();
+		}
 		this.collisionCounter++;
 	}
 
@@ -58,4 +275,13 @@ public class Ball extends GameObject {
 	public int getCollisionCounter() {
 		return this.collisionCounter;
 	}
+
+	/**
+	 * Sets the collision counter, when the ball's state is restored from a snapshot.
+	 *
+	 * @param collisionCounter The collision counter.
+	 */
+	public void setCollisionCounter(int collisionCounter) {
+		this.collisionCounter = collisionCounter;
+	}
 }
@@ -14,11 +14,19 @@ import danogl.util.Vector2;
  * instance, allowing flexible behavior such as disappearing, spawning
  * bonuses, or triggering special effects.
  * </p>
+ * <p>
+ * Bricks that belong to a {@link BrickField} are not added to the game themselves:
+ * the field creates a brick as a view of one of its entries when that entry is hit.
+ * </p>
  *
  *  * @author Eyal Hartman, Dana Weitzhandler
  */
 public class Brick extends GameObject {
+	private static final int NO_INDEX = -1;
+
 	private final CollisionStrategy collisionStrategy;
+	private final BrickField field;
+	private final int index;
 
 	/**
 	 * Constructs a new Brick object with the given position, size, visual appearance,
@@ -34,8 +42,44 @@ public class Brick extends GameObject {
 	 */
 	public Brick(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
 				 CollisionStrategy collisionStrategy) {
+		this(topLeftCorner, dimensions, renderable, collisionStrategy, null, NO_INDEX);
+	}
+
+	/**
+	 * Constructs a brick that is a view of an entry of a {@link BrickField}.
+	 *
+	 * @param topLeftCorner      Position of the brick in window coordinates.
+	 * @param dimensions         Width and height of the brick in pixels.
+	 * @param renderable         The image or shape to draw for this brick, or null.
+	 * @param collisionStrategy  A strategy object that defines the brick's behavior
+	 *                           upon collision.
+	 * @param field              The field holding the brick, or null for a standalone brick.
+	 * @param index              The id of the brick within the field.
+	 */
+	public Brick(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+				 CollisionStrategy collisionStrategy, BrickField field, int index) {
 		super(topLeftCorner, dimensions, renderable);
 		this.collisionStrategy = collisionStrategy;
+		this.field = field;
+		this.index = index;
+	}
+
+	/**
+	 * Returns the field this brick is a view of.
+	 *
+	 * @return The brick field, or null for a standalone brick.
+	 */
+	public BrickField getField() {
+		return field;
+	}
+
+	/**
+	 * Returns the id of this brick within its field.
+	 *
+	 * @return The brick's id, or -1 for a standalone brick.
+	 */
+	public int getIndex() {
+		return index;
 	}
 
 	/**
@@ -47,6 +91,16 @@ public class Brick extends GameObject {
 	 */
 	@Override
 	public void onCollisionEnter(GameObject other, Collision collision) {
+		hit(other);
+	}
+
+	/**
+	 * Applies this brick's {@link CollisionStrategy} for a hit by the given object.
+	 * Used both by the engine's collision callback and by the brick field's hit lookup.
+	 *
+	 * @param other The object that hit this brick.
+	 */
+	public void hit(GameObject other) {
 		this.collisionStrategy.onCollision(this, other);
 	}
 }
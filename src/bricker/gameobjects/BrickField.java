@@ -0,0 +1,428 @@
+package bricker.gameobjects;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.main.SpriteAtlas;
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All the bricks of a level, stored as a single game object.
+ * <p>
+ * Brick rectangles, liveness and strategy ids live in primitive arrays (struct-of-arrays)
+ * instead of one {@link Brick} game object per brick. The field renders every live brick in
+ * a single pass, and resolves ball hits through a {@link BrickGrid}. Strategies are stored once
+ * in a palette and referenced by id.
+ * </p>
+ * <p>
+ * Every change to the set of live bricks bumps a {@link #version()}, so a cached drawing of the
+ * field knows when it is stale.
+ * </p>
+ * <p>
+ * A brick's id is its index in the field. Bricks are either appended with {@link #add}, or
+ * put at ids {@link #reserve reserved} up front, so a level loaded out of order still gives
+ * every brick the same id. A reserved slot is not present until its brick is put: it is never
+ * alive, hit or drawn.
+ * </p>
+ * <p>
+ * Strategies still receive a {@link GameObject} for the brick: on a hit the field creates a
+ * short-lived {@link Brick} view of the brick, and removing that view from the game
+ * kills the brick in the field.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class BrickField extends GameObject {
+
+	private static final int BITS_PER_WORD = 64;
+	private static final int WORD_SHIFT = 6;
+	private static final int NO_BRICK = -1;
+	private static final int MAX_HITS_PER_MOVE = 4;
+	private static final double NO_ROTATION = 0;
+	private static final double OPAQUE = 1;
+
+	private final Renderable brickImage;
+	private final SpriteAtlas.Region atlasBrick;
+	private final BrickGrid grid;
+	private final ThreadLocal<HitVisitor> hitVisitors = ThreadLocal.withInitial(HitVisitor::new);
+	private Loader loader;
+
+	private final List<CollisionStrategy> palette = new ArrayList<>();
+	private final Map<CollisionStrategy, Integer> paletteIds = new IdentityHashMap<>();
+
+	private float[] xs;
+	private float[] ys;
+	private float[] widths;
+	private float[] heights;
+	private short[] strategyIds;
+	private long[] alive;
+	private long[] present;
+	private int size = 0;
+	private int liveCount = 0;
+	private int version = 0;
+
+	/**
+	 * Adds bricks to the field on demand, for levels that are loaded lazily.
+	 */
+	public interface Loader {
+		/**
+		 * Called before a ball is tested against the field: every brick that may overlap the
+		 * given box must be added by the time this returns.
+		 *
+		 * @param minX The left edge of the box.
+		 * @param minY The top edge of the box.
+		 * @param maxX The right edge of the box.
+		 * @param maxY The bottom edge of the box.
+		 */
+		void ensureLoaded(float minX, float minY, float maxX, float maxY);
+	}
+
+	/**
+	 * Constructs an empty brick field.
+	 *
+	 * @param topLeftCorner The top-left corner of the area holding the bricks.
+	 * @param dimensions    The size of the area holding the bricks.
+	 * @param brickImage    The image drawn for every live brick. Can be null (headless runs).
+	 * @param grid          The spatial index used to find the bricks a ball overlaps.
+	 * @param capacity      The expected number of bricks.
+	 */
+	public BrickField(Vector2 topLeftCorner, Vector2 dimensions, Renderable brickImage,
+					  BrickGrid grid, int capacity) {
+		super(topLeftCorner, dimensions, null);
+		this.brickImage = brickImage;
+		this.atlasBrick = brickImage instanceof SpriteAtlas.Region ? (SpriteAtlas.Region) brickImage : null;
+		this.grid = grid;
+		int initialCapacity = Math.max(capacity, 1);
+		this.xs = new float[initialCapacity];
+		this.ys = new float[initialCapacity];
+		this.widths = new float[initialCapacity];
+		this.heights = new float[initialCapacity];
+		this.strategyIds = new short[initialCapacity];
+		this.alive = new long[wordCount(initialCapacity)];
+		this.present = new long[wordCount(initialCapacity)];
+	}
+
+	/**
+	 * Adds a live brick to the field.
+	 *
+	 * @param x        The x-coordinate of the brick's top-left corner.
+	 * @param y        The y-coordinate of the brick's top-left corner.
+	 * @param width    The width of the brick.
+	 * @param height   The height of the brick.
+	 * @param strategy The strategy handling the brick's collisions.
+	 * @return The id of the new brick.
+	 */
+	public int add(float x, float y, float width, float height, CollisionStrategy strategy) {
+		int id = size;
+		reserve(size + 1);
+		put(id, x, y, width, height, strategy);
+		return id;
+	}
+
+	/**
+	 * Makes room for the bricks with ids below a count, to be put later in any order.
+	 *
+	 * @param count The number of ids the field should hold.
+	 */
+	public void reserve(int count) {
+		if (count > xs.length) {
+			grow(count);
+		}
+		size = Math.max(size, count);
+	}
+
+	/**
+	 * Puts a live brick into a reserved slot.
+	 *
+	 * @param id       The id of the brick, below {@link #size()}.
+	 * @param x        The x-coordinate of the brick's top-left corner.
+	 * @param y        The y-coordinate of the brick's top-left corner.
+	 * @param width    The width of the brick.
+	 * @param height   The height of the brick.
+	 * @param strategy The strategy handling the brick's collisions.
+	 * @throws IllegalArgumentException If the id is not reserved or its brick is already present.
+	 */
+	public void put(int id, float x, float y, float width, float height, CollisionStrategy strategy) {
+		if (id < 0 || id >= size || isPresent(id)) {
+			throw new IllegalArgumentException("Brick " + id + " is not a free slot of the field");
+		}
+		xs[id] = x;
+		ys[id] = y;
+		widths[id] = width;
+		heights[id] = height;
+		strategyIds[id] = (short) paletteId(strategy);
+		present[id >>> WORD_SHIFT] |= 1L << id;
+		alive[id >>> WORD_SHIFT] |= 1L << id;
+		liveCount++;
+		version++;
+		grid.add(id, x, y, width, height);
+	}
+
+	/**
+	 * Sets the loader asked for the bricks around every ball before it is tested against the field.
+	 *
+	 * @param loader The loader, or null when every brick is added up front.
+	 */
+	public void setLoader(Loader loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * Kills a brick.
+	 *
+	 * @param id The id of the brick.
+	 * @return true if the brick was alive, false if it had already been removed.
+	 */
+	public boolean remove(int id) {
+		if (!isAlive(id)) {
+			return false;
+		}
+		alive[id >>> WORD_SHIFT] &= ~(1L << id);
+		liveCount--;
+		version++;
+		return true;
+	}
+
+	/**
+	 * Brings a brick back into play with a (possibly different) strategy, keeping its rectangle.
+	 * Used to reset a level in place.
+	 *
+	 * @param id       The id of the brick.
+	 * @param strategy The strategy handling the brick's collisions.
+	 * @throws IllegalArgumentException If the brick is not present.
+	 */
+	public void revive(int id, CollisionStrategy strategy) {
+		if (!isPresent(id)) {
+			throw new IllegalArgumentException("Brick " + id + " has not been put into the field");
+		}
+		strategyIds[id] = (short) paletteId(strategy);
+		if (!isAlive(id)) {
+			alive[id >>> WORD_SHIFT] |= 1L << id;
+			liveCount++;
+			version++;
+		}
+	}
+
+	/**
+	 * @param id The id of a brick.
+	 * @return true if the brick is still in play.
+	 */
+	public boolean isAlive(int id) {
+		return (alive[id >>> WORD_SHIFT] & (1L << id)) != 0;
+	}
+
+	/**
+	 * @param id The id of a brick, below {@link #size()}.
+	 * @return true if the brick has been added or put, false if its slot is only reserved.
+	 */
+	public boolean isPresent(int id) {
+		return (present[id >>> WORD_SHIFT] & (1L << id)) != 0;
+	}
+
+	/**
+	 * Copies the liveness bitset into an array: brick {@code id} is bit {@code id % 64} of word
+	 * {@code id / 64}, and {@code (size() + 63) / 64} words are written.
+	 *
+	 * @param dest   The array to copy into.
+	 * @param offset The index of the first word to write.
+	 */
+	public void copyAlive(long[] dest, int offset) {
+		System.arraycopy(alive, 0, dest, offset, wordCount(size));
+	}
+
+	/**
+	 * @return The number of bricks that are still in play.
+	 */
+	public int liveCount() {
+		return liveCount;
+	}
+
+	/**
+	 * @return A counter bumped every time a brick is added, removed or revived.
+	 */
+	public int version() {
+		return version;
+	}
+
+	/**
+	 * @return The number of ids in the field: bricks added or reserved, live or not.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param id The id of a brick.
+	 * @return The strategy handling the brick's collisions.
+	 */
+	public CollisionStrategy strategy(int id) {
+		return palette.get(strategyIds[id]);
+	}
+
+	/**
+	 * Resolves the hits of a ball (or puck) on the bricks along its last move, and applies
+	 * them right away. Equivalent to {@link #preload}, {@link #sweep} and
+	 * {@link Ball#applyContacts()} in a row.
+	 *
+	 * @param ball The moving ball.
+	 */
+	public void collide(Ball ball) {
+		preload(ball);
+		sweep(ball);
+		ball.applyContacts();
+	}
+
+	/**
+	 * Makes sure every brick the ball's last move could reach is in the field. A swept ball
+	 * only ever reflects the rest of its move, so it stays within one move's length of where
+	 * it started on each axis. Must run on the game thread, before {@link #sweep}.
+	 *
+	 * @param ball The moving ball.
+	 */
+	public void preload(Ball ball) {
+		if (loader == null) {
+			return;
+		}
+		Vector2 dimensions = ball.getDimensions();
+		float minX = ball.sweptMinX();
+		float minY = ball.sweptMinY();
+		float maxX = ball.sweptMaxX();
+		float maxY = ball.sweptMaxY();
+		float reachX = maxX - minX - dimensions.x();
+		float reachY = maxY - minY - dimensions.y();
+		loader.ensureLoaded(minX - reachX, minY - reachY, maxX + reachX, maxY + reachY);
+	}
+
+	/**
+	 * Sweeps a ball (or puck) against the bricks along its last move: the ball is swept from
+	 * where it started the step to where it ended, stops at the first live brick it moves into
+	 * and bounces off it. The rest of the move is then swept again, so a fast ball can hit
+	 * several bricks in one step but never pass through one. The hits are only recorded in
+	 * the ball's {@link Contacts}; the bricks' strategies run when they are applied.
+	 * <p>
+	 * Only reads the field, so different balls may be swept on different threads as long as
+	 * no brick is added or removed meanwhile.
+	 * </p>
+	 *
+	 * @param ball The moving ball.
+	 */
+	public void sweep(Ball ball) {
+		HitVisitor hitVisitor = hitVisitors.get();
+		hitVisitor.ball = ball;
+		for (int hits = 0; hits < MAX_HITS_PER_MOVE; hits++) {
+			hitVisitor.firstHit = NO_BRICK;
+			hitVisitor.firstHitTime = SweptAabb.NO_HIT;
+			grid.query(ball.sweptMinX(), ball.sweptMinY(), ball.sweptMaxX(), ball.sweptMaxY(), hitVisitor);
+			if (hitVisitor.firstHit == NO_BRICK) {
+				break;
+			}
+			ball.recordHit(hitVisitor.firstHitTime, view(hitVisitor.firstHit), hitVisitor.firstHitNormal);
+		}
+		hitVisitor.ball = null;
+	}
+
+	/**
+	 * Creates a {@link Brick} view of a brick, to hand to collision strategies.
+	 *
+	 * @param id The id of the brick.
+	 * @return A game object with the brick's position and size, bound to this field.
+	 */
+	public Brick view(int id) {
+		return new Brick(new Vector2(xs[id], ys[id]), new Vector2(widths[id], heights[id]),
+				null, strategy(id), this, id);
+	}
+
+	/**
+	 * The field itself never takes part in the engine's collision detection;
+	 * ball hits are resolved through {@link #sweep(Ball)}.
+	 *
+	 * @param other The other object.
+	 * @return Always false.
+	 */
+	@Override
+	public boolean shouldCollideWith(GameObject other) {
+		return false;
+	}
+
+	/**
+	 * Draws every live brick in one pass. A brick image from the {@link SpriteAtlas} is drawn
+	 * straight from the atlas, without allocating per brick.
+	 *
+	 * @param g The graphics context to draw on.
+	 */
+	@Override
+	public void render(Graphics2D g) {
+		if (brickImage == null) {
+			return;
+		}
+		for (int word = 0; word < wordCount(size); word++) {
+			long bits = alive[word];
+			while (bits != 0) {
+				int id = (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				if (atlasBrick != null) {
+					atlasBrick.draw(g, xs[id], ys[id], widths[id], heights[id]);
+				} else {
+					brickImage.render(g, new Vector2(xs[id], ys[id]), new Vector2(widths[id], heights[id]),
+							NO_ROTATION, false, false, OPAQUE);
+				}
+			}
+		}
+	}
+
+	private int paletteId(CollisionStrategy strategy) {
+		Integer id = paletteIds.get(strategy);
+		if (id == null) {
+			id = palette.size();
+			palette.add(strategy);
+			paletteIds.put(strategy, id);
+		}
+		return id;
+	}
+
+	private void grow(int minCapacity) {
+		int capacity = Math.max(xs.length * 2, minCapacity);
+		xs = Arrays.copyOf(xs, capacity);
+		ys = Arrays.copyOf(ys, capacity);
+		widths = Arrays.copyOf(widths, capacity);
+		heights = Arrays.copyOf(heights, capacity);
+		strategyIds = Arrays.copyOf(strategyIds, capacity);
+		alive = Arrays.copyOf(alive, wordCount(capacity));
+		present = Arrays.copyOf(present, wordCount(capacity));
+	}
+
+	private static int wordCount(int bits) {
+		return (bits + BITS_PER_WORD - 1) / BITS_PER_WORD;
+	}
+
+	/**
+	 * Sweeps the current ball against the grid's candidates and keeps the earliest hit.
+	 */
+	private class HitVisitor implements BrickGrid.Visitor {
+		private final float[] normal = new float[2];
+		private Ball ball;
+		private int firstHit;
+		private float firstHitTime;
+		private Vector2 firstHitNormal;
+
+		@Override
+		public void visit(int id) {
+			if (!isAlive(id)) {
+				return;
+			}
+			float time = ball.sweep(xs[id], ys[id], xs[id] + widths[id], ys[id] + heights[id], normal);
+			if (time < firstHitTime) {
+				firstHit = id;
+				firstHitTime = time;
+				firstHitNormal = SweptAabb.toVector(normal);
+			}
+		}
+	}
+}
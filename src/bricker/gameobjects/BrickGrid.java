@@ -0,0 +1,138 @@
+package bricker.gameobjects;
+
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * A uniform-grid spatial index over the bricks of a level, identified by integer ids.
+ * <p>
+ * Every brick is stored in the single cell that contains its top-left corner.
+ * A query for a moving object's bounding box only visits the handful of cells the
+ * box covers (widened by the largest brick size), so finding collision candidates
+ * costs O(1) per moving object regardless of how many bricks the grid holds.
+ * The grid only narrows the search: callers test the candidates' actual rectangles.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class BrickGrid {
+
+	private static final int INITIAL_CELL_CAPACITY = 1;
+
+	/**
+	 * Receives the ids of the candidate bricks found by a query.
+	 */
+	public interface Visitor {
+		/**
+		 * Called once for every brick in the cells covered by a query.
+		 *
+		 * @param id The id of the candidate brick.
+		 */
+		void visit(int id);
+	}
+
+	private final float originX;
+	private final float originY;
+	private final float cellWidth;
+	private final float cellHeight;
+	private final int rows;
+	private final int cols;
+	private final int[][] cells;
+	private final int[] cellSizes;
+
+	private float maxBrickWidth = 0;
+	private float maxBrickHeight = 0;
+
+	/**
+	 * Constructs an empty grid.
+	 *
+	 * @param origin   Top-left corner of the area covered by the grid, in window coordinates.
+	 * @param cellSize Width and height of a single cell. For a regular brick layout this is the
+	 *                 brick pitch (brick size plus spacing), so each cell holds one brick.
+	 * @param rows     Number of cell rows.
+	 * @param cols     Number of cell columns.
+	 */
+	public BrickGrid(Vector2 origin, Vector2 cellSize, int rows, int cols) {
+		this.originX = origin.x();
+		this.originY = origin.y();
+		this.cellWidth = cellSize.x();
+		this.cellHeight = cellSize.y();
+		this.rows = Math.max(rows, 1);
+		this.cols = Math.max(cols, 1);
+		this.cells = new int[this.rows * this.cols][];
+		this.cellSizes = new int[this.rows * this.cols];
+	}
+
+	/**
+	 * Adds a brick to the cell containing its top-left corner.
+	 *
+	 * @param id     The id of the brick.
+	 * @param x      The x-coordinate of the brick's top-left corner.
+	 * @param y      The y-coordinate of the brick's top-left corner.
+	 * @param width  The width of the brick.
+	 * @param height The height of the brick.
+	 */
+	public void add(int id, float x, float y, float width, float height) {
+		int cell = cellIndex(column(x), row(y));
+		int[] bucket = cells[cell];
+		if (bucket == null) {
+			bucket = new int[INITIAL_CELL_CAPACITY];
+			cells[cell] = bucket;
+		} else if (cellSizes[cell] == bucket.length) {
+			bucket = Arrays.copyOf(bucket, bucket.length * 2);
+			cells[cell] = bucket;
+		}
+		bucket[cellSizes[cell]++] = id;
+		maxBrickWidth = Math.max(maxBrickWidth, width);
+		maxBrickHeight = Math.max(maxBrickHeight, height);
+	}
+
+	/**
+	 * Removes every brick from the grid, keeping the allocated cells.
+	 */
+	public void clear() {
+		Arrays.fill(cellSizes, 0);
+		maxBrickWidth = 0;
+		maxBrickHeight = 0;
+	}
+
+	/**
+	 * Visits every brick whose cell may hold a brick overlapping the given box.
+	 *
+	 * @param minX    The left edge of the box.
+	 * @param minY    The top edge of the box.
+	 * @param maxX    The right edge of the box.
+	 * @param maxY    The bottom edge of the box.
+	 * @param visitor Receives the candidate ids.
+	 */
+	public void query(float minX, float minY, float maxX, float maxY, Visitor visitor) {
+		int firstCol = column(minX - maxBrickWidth);
+		int lastCol = column(maxX);
+		int firstRow = row(minY - maxBrickHeight);
+		int lastRow = row(maxY);
+		for (int r = firstRow; r <= lastRow; r++) {
+			for (int c = firstCol; c <= lastCol; c++) {
+				int cell = cellIndex(c, r);
+				int[] bucket = cells[cell];
+				for (int i = 0; i < cellSizes[cell]; i++) {
+					visitor.visit(bucket[i]);
+				}
+			}
+		}
+	}
+
+	private int column(float x) {
+		int col = (int) Math.floor((x - originX) / cellWidth);
+		return Math.max(0, Math.min(col, cols - 1));
+	}
+
+	private int row(float y) {
+		int row = (int) Math.floor((y - originY) / cellHeight);
+		return Math.max(0, Math.min(row, rows - 1));
+	}
+
+	private int cellIndex(int col, int row) {
+		return row * cols + col;
+	}
+}
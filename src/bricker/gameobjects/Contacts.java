@@ -0,0 +1,85 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * The hits a ball found while its move was swept, in the order they happened.
+ * <p>
+ * Sweeping only touches the ball itself (its position, velocity and remaining move), so
+ * different balls can be swept on different threads. What a hit does to the rest of the
+ * game (sounds, strategies, counters, queued commands) is recorded here instead, and
+ * applied later on the game thread by {@link Ball#applyContacts()}, ball by ball in a fixed
+ * order. The arrays are reused frame after frame.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class Contacts {
+
+	private static final int INITIAL_CAPACITY = 8;
+	private static final int NORMAL_COMPONENTS = 2;
+
+	private final float[] scratchNormal = new float[NORMAL_COMPONENTS];
+	private GameObject[] others = new GameObject[INITIAL_CAPACITY];
+	private Vector2[] normals = new Vector2[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/**
+	 * Records a hit.
+	 *
+	 * @param other  The object that was hit.
+	 * @param normal The normal of the touched face.
+	 */
+	public void add(GameObject other, Vector2 normal) {
+		if (size == others.length) {
+			others = Arrays.copyOf(others, size * 2);
+			normals = Arrays.copyOf(normals, size * 2);
+		}
+		others[size] = other;
+		normals[size] = normal;
+		size++;
+	}
+
+	/**
+	 * @return The number of recorded hits.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param index The index of a hit.
+	 * @return The object that was hit.
+	 */
+	public GameObject other(int index) {
+		return others[index];
+	}
+
+	/**
+	 * @param index The index of a hit.
+	 * @return The normal of the touched face.
+	 */
+	public Vector2 normal(int index) {
+		return normals[index];
+	}
+
+	/**
+	 * @return A two-element array the sweep of this ball may use for its normals
+	 * ({@link Ball#sweep}), so concurrent sweeps never share one.
+	 */
+	public float[] scratchNormal() {
+		return scratchNormal;
+	}
+
+	/**
+	 * Forgets every recorded hit.
+	 */
+	public void clear() {
+		Arrays.fill(others, 0, size, null);
+		Arrays.fill(normals, 0, size, null);
+		size = 0;
+	}
+}
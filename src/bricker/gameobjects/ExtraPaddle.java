@@ -3,7 +3,6 @@ package bricker.gameobjects;
 import bricker.main.BrickerGameManager;
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.collisions.GameObjectCollection;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
@@ -19,7 +18,6 @@ public class ExtraPaddle extends Paddle{
 	private int hitCount = 0;
 	private static final float MOVEMENT_SPEED = 300;
 
-	private final GameObjectCollection gameObjects;
 	private final BrickerGameManager gameManager;
 
 	/**
@@ -32,17 +30,15 @@ public class ExtraPaddle extends Paddle{
 	 *                         the GameObject will not be rendered.
 	 * @param inputListener    The input listener for user input.
 	 * @param windowDimensions The dimensions of the window.
-	 * @param gameObjects      The collection of game objects, used to remove the paddle.
-	 * @param gameManager      Reference to the BrickerGameManager, used to update paddle count.
+	 * @param gameManager      Reference to the BrickerGameManager, used to remove the paddle.
 	 */
 	public ExtraPaddle(Vector2 topLeftCorner,
 					   Vector2 dimensions,
 					   Renderable renderable,
 					   UserInputListener inputListener,
-					   Vector2 windowDimensions, GameObjectCollection gameObjects,
+					   Vector2 windowDimensions,
 					   BrickerGameManager gameManager) {
 		super(topLeftCorner, dimensions, renderable, inputListener, windowDimensions);
-		this.gameObjects = gameObjects;
 		this.gameManager = gameManager;
 	}
 	/**
@@ -56,7 +52,6 @@ public class ExtraPaddle extends Paddle{
 	}
 	/**
 	 * Handles the collision with the ball.
-	 * Increases the player's lives and removes the extra paddle from the game.
 	 *
 	 * @param other     The other object involved in the collision (the ball).
 	 * @param collision The collision information.
@@ -66,10 +61,35 @@ public class ExtraPaddle extends Paddle{
 		if (!(other instanceof bricker.gameobjects.Ball)) {
 			return;
 		}
+		hitBy((Ball) other);
+	}
+
+	/**
+	 * @return The number of ball hits the extra paddle has taken.
+	 */
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Sets the number of ball hits taken, when the paddle is restored from a snapshot.
+	 *
+	 * @param hitCount The number of hits.
+	 */
+	public void setHitCount(int hitCount) {
+		this.hitCount = hitCount;
+	}
+
+	/**
+	 * Counts a ball hit, and removes the extra paddle from the game after {@value #MAX_HITS} hits.
+	 *
+	 * @param ball The ball that hit the paddle.
+	 */
+	@Override
+	public void hitBy(Ball ball) {
 		hitCount++;
 		if (hitCount >= MAX_HITS) {
-			gameObjects.removeGameObject(this);
-			gameManager.decrementExtraPaddles();
+			gameManager.getCommands().removeExtraPaddle(this);
 		}
 	}
 }
@@ -3,7 +3,6 @@ package bricker.gameobjects;
 import bricker.main.BrickerGameManager;
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.collisions.GameObjectCollection;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -15,7 +14,6 @@ import danogl.util.Vector2;
  */
 public class FallingHeart extends GameObject {
 
-	private final GameObjectCollection gameObjects;
 	private final Paddle originalPaddle;
 	private final BrickerGameManager gameManager;
 	private final Vector2 windowDimensions;
@@ -28,7 +26,6 @@ public class FallingHeart extends GameObject {
 	 * @param renderable      The renderable representing the object. Can be null, in which case
 	 *                        the GameObject will not be rendered.
 	 * @param windowDimensions The dimensions of the window.
-	 * @param gameObjects     The collection of game objects in the game.
 	 * @param originalPaddle  The original paddle object.
 	 * @param gameManager     The game manager for managing game state.
 	 */
@@ -36,16 +33,25 @@ public class FallingHeart extends GameObject {
 						Vector2 dimensions,
 						Renderable renderable,
 						Vector2 windowDimensions,
-						GameObjectCollection gameObjects,
 						Paddle originalPaddle,
 						BrickerGameManager gameManager) {
 		super(topLeftCorner, dimensions, renderable);
 		this.windowDimensions = windowDimensions;
-		this.gameObjects      = gameObjects;
 		this.originalPaddle   = originalPaddle;
 		this.gameManager      = gameManager;
 	}
 
+	/**
+	 * Prepares a pooled heart for another drop.
+	 *
+	 * @param topLeftCorner The top-left corner of the heart.
+	 * @param velocity      The falling velocity of the heart.
+	 */
+	public void reset(Vector2 topLeftCorner, Vector2 velocity) {
+		setTopLeftCorner(topLeftCorner);
+		setVelocity(velocity);
+	}
+
 	/**
 	 * For this object, the collision with the paddle is handled.
 	 *
@@ -58,19 +64,19 @@ public class FallingHeart extends GameObject {
 	}
     	/**
 	 * Handles the collision with the paddle.
-	 * Increases the player's lives and removes the heart from the game.
+	 * Queues an extra life and the heart's return to the game manager's heart pool.
 	 *
 	 * @param other     The other object involved in the collision.
 	 * @param collision The collision information.
 	 */
 	@Override
 	public void onCollisionEnter(GameObject other, Collision collision) {
-		gameManager.incrementLives();
-		gameObjects.removeGameObject(this);
+		gameManager.getCommands().addLife();
+		despawn();
 	}
     	/**
 	 * Updates the position of the heart.
-	 * If the heart goes out of the window, it is removed from the game.
+	 * If the heart goes out of the window, it is queued for removal from the game.
 	 *
 	 * @param deltaTime The time since the last update.
 	 */
@@ -78,6 +84,13 @@ public class FallingHeart extends GameObject {
 	public void update(float deltaTime) {
 		super.update(deltaTime);
 		if (getTopLeftCorner().y() > windowDimensions.y())
-			gameObjects.removeGameObject(this);
+			despawn();
+	}
+
+	/**
+	 * Queues removing the heart from the game and returning it to the heart pool.
+	 */
+	private void despawn() {
+		gameManager.getCommands().despawn(this);
 	}
 }
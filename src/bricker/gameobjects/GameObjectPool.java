@@ -0,0 +1,66 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * A pool of reusable game objects of one kind.
+ * <p>
+ * Objects that leave the game are released back to the pool and handed out again on the
+ * next spawn, so steady-state play spawns and despawns without allocating. At most
+ * {@code capacity} idle objects are kept; extra releases are dropped for the garbage
+ * collector, and an empty pool falls back to creating a new object.
+ * </p>
+ *
+ * @param <T> The type of the pooled objects.
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class GameObjectPool<T extends GameObject> {
+
+	private final Supplier<T> factory;
+	private final ArrayDeque<T> idle;
+	private final int capacity;
+
+	/**
+	 * Constructs an empty pool.
+	 *
+	 * @param factory  Creates a new object when the pool is empty.
+	 * @param capacity The maximum number of idle objects kept for reuse.
+	 */
+	public GameObjectPool(Supplier<T> factory, int capacity) {
+		this.factory = factory;
+		this.capacity = capacity;
+		this.idle = new ArrayDeque<>(capacity);
+	}
+
+	/**
+	 * Takes an idle object from the pool, or creates one if the pool is empty.
+	 * The caller is responsible for resetting the object's state.
+	 *
+	 * @return An object that is not currently in the game.
+	 */
+	public T acquire() {
+		T object = idle.pollLast();
+		return object != null ? object : factory.get();
+	}
+
+	/**
+	 * Returns an object that was removed from the game to the pool.
+	 *
+	 * @param object The released object. Must not be in the game anymore.
+	 */
+	public void release(T object) {
+		if (idle.size() < capacity) {
+			idle.addLast(object);
+		}
+	}
+
+	/**
+	 * @return The number of idle objects currently held.
+	 */
+	public int idleCount() {
+		return idle.size();
+	}
+}
@@ -44,6 +44,14 @@ public class Paddle extends GameObject {
 		this.windowDimensions = windowDimensions;
 	}
 
+	/**
+	 * Called when a ball bounces off the paddle. A plain paddle does nothing.
+	 *
+	 * @param ball The ball that hit the paddle.
+	 */
+	public void hitBy(Ball ball) {
+	}
+
 	/**
 	 * Updates the paddle's position based on user input.
 	 * Enables movement after the first update call and ensures the paddle stays within window bounds.
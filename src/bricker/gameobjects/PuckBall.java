@@ -1,11 +1,9 @@
 package bricker.gameobjects;
 
 import bricker.brick_strategies.CollisionStrategy;
+import bricker.main.AudioMixer;
 import bricker.main.BrickerGameManager;
 import danogl.GameObject;
-import danogl.collisions.Collision;
-import danogl.collisions.GameObjectCollection;
-import danogl.gui.Sound;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
@@ -20,10 +18,8 @@ import danogl.util.Vector2;
  * @author Eyal Hartman, Dana Weitzhandler
  */
 public class PuckBall extends Ball {
-	private final GameObjectCollection gameObjects;
 	private final Vector2 windowDimensions;
 	private final BrickerGameManager brickerGameManager;
-	private final Sound collisionSound;
 
 	private static final int MAX_HEIGHT = 0;
 
@@ -34,24 +30,33 @@ public class PuckBall extends Ball {
 	 *                      (0,0) is the top-left corner of the window.
 	 * @param dimensions Width and height of the puck in pixels.
 	 * @param renderable The visual representation of the puck.
-	 * @param collisionSound Sound to be played on collision.
-	 * @param gameObjects A collection of all game objects in the scene.
+	 * @param collisionSound Sound cue to be played on collision.
 	 * @param windowDimensions Dimensions of the game window.
 	 * @param brickerGameManager Reference to the game manager to update brick count.
 	 */
 	public PuckBall(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-					Sound collisionSound, GameObjectCollection gameObjects, Vector2 windowDimensions,
+					AudioMixer.Cue collisionSound, Vector2 windowDimensions,
 					BrickerGameManager brickerGameManager) {
 		super(topLeftCorner, dimensions, renderable, collisionSound);
-		this.gameObjects = gameObjects;
 		this.windowDimensions = windowDimensions;
 		this.brickerGameManager = brickerGameManager;
-		this.collisionSound = collisionSound;
+	}
+
+	/**
+	 * Prepares a pooled puck for another spawn.
+	 *
+	 * @param center   The center of the puck.
+	 * @param velocity The initial velocity of the puck.
+	 */
+	public void reset(Vector2 center, Vector2 velocity) {
+		setCenter(center);
+		setVelocity(velocity);
 	}
 
 	/**
 	 * Updates puck state every frame.
-	 * If the puck goes off the screen vertically, it is removed from the game.
+	 * If the puck goes off the screen vertically, it is queued for removal from the game
+	 * and return to the game manager's puck pool.
 	 *
 	 * @param deltaTime Time elapsed since the last frame.
 	 */
@@ -60,29 +65,67 @@ public class PuckBall extends Ball {
 		super.update(deltaTime);
 		double ballHeight = this.getCenter().y();
 		if (ballHeight > windowDimensions.y() || ballHeight < MAX_HEIGHT) {
-			gameObjects.removeGameObject(this);
+			brickerGameManager.getCommands().despawn(this);
 		}
 	}
 
 	/**
-	 * Handles behavior when the puck collides with another object.
-	 * Plays collision sound, reflects velocity, and if the collided object is a brick,
-	 * removes it and updates the game manager's brick count.
+	 * Reflects the puck's velocity like a ball, then flips it back, so the puck keeps its
+	 * course through whatever it hits.
 	 *
-	 * @param other The other GameObject involved in the collision.
-	 * @param collision The collision data containing normal vectors and collision point.
+	 * @param normal The collision normal.
 	 */
 	@Override
-	public void onCollisionEnter(GameObject other, Collision collision) {
-		super.onCollisionEnter(other, collision);
-		Vector2 newVel = getVelocity().flipped(collision.getNormal());
-		setVelocity(newVel);
-		this.collisionSound.play();
+	public void reflect(Vector2 normal) {
+		super.reflect(normal);
+		setVelocity(getVelocity().flipped(normal));
+	}
 
+	/**
+	 * Tests the rest of the puck's last move against a static box. A puck already inside the
+	 * box is passing through it, so only boxes it enters during the move are hit.
+	 *
+	 * @param minX      The left edge of the box.
+	 * @param minY      The top edge of the box.
+	 * @param maxX      The right edge of the box.
+	 * @param maxY      The bottom edge of the box.
+	 * @param normalOut Receives the normal of the touched face ({x, y}), pointing towards the puck.
+	 * @return The fraction of the remaining move at which the puck enters the box,
+	 * or {@link SweptAabb#NO_HIT}.
+	 */
+	@Override
+	public float sweep(float minX, float minY, float maxX, float maxY, float[] normalOut) {
+		if (startsInside(minX, minY, maxX, maxY)) {
+			return SweptAabb.NO_HIT;
+		}
+		return super.sweep(minX, minY, maxX, maxY, normalOut);
+	}
+
+	/**
+	 * Takes a swept hit like {@link #reflect}: the puck keeps its course, so it stays where its
+	 * unreflected move ended and the rest of the move is not swept again.
+	 *
+	 * @param time   The fraction of the remaining move at which the hit happens.
+	 * @param normal The normal of the touched face.
+	 */
+	@Override
+	public void resolveSweptHit(float time, Vector2 normal) {
+		endSweep();
+	}
+
+	/**
+	 * Handles behavior when the puck has hit another object.
+	 * Reacts like a ball (playing the collision sound once), and unless the other object
+	 * is a ball or a paddle, queues its removal as a destroyed brick (which also updates
+	 * the game manager's brick count).
+	 *
+	 * @param other The other GameObject involved in the collision.
+	 */
+	@Override
+	protected void bounced(GameObject other) {
+		super.bounced(other);
 		if (!(other instanceof Ball || other instanceof Paddle)) {
-			if (gameObjects.removeGameObject(other)) {
-				brickerGameManager.decrementCounter();
-			}
+			brickerGameManager.getCommands().removeBrick(other);
 		}
 	}
 }
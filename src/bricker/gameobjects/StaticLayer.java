@@ -0,0 +1,100 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything on screen that does not move, drawn as one cached image.
+ * <p>
+ * The background, the walls, the life display and the brick field are added here instead of
+ * to the game's layers. They are drawn, in the order they were added, into an offscreen image
+ * the first time the layer is rendered, and from then on every frame only copies that image.
+ * The image is drawn again only after {@link #invalidate()}, which the game calls when a brick
+ * is destroyed or revived or the lives change, so the cost of a frame depends on the moving
+ * objects alone.
+ * </p>
+ * <p>
+ * Members are never updated or collided by the engine; objects that must still collide (the
+ * walls) stay in the game as invisible colliders next to their member here.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class StaticLayer extends GameObject {
+
+	private final List<GameObject> members = new ArrayList<>();
+	private BufferedImage image;
+	private boolean dirty = true;
+	private int repaints = 0;
+
+	/**
+	 * Constructs an empty layer covering the window.
+	 *
+	 * @param windowDimensions The dimensions of the game window.
+	 */
+	public StaticLayer(Vector2 windowDimensions) {
+		super(Vector2.ZERO, windowDimensions, null);
+	}
+
+	/**
+	 * Adds an object drawn above the members added before it.
+	 *
+	 * @param member The object. It must not be in the game's layers as well.
+	 */
+	public void add(GameObject member) {
+		members.add(member);
+		dirty = true;
+	}
+
+	/**
+	 * Marks the cached image as stale, so the members are drawn again on the next frame.
+	 */
+	public void invalidate() {
+		dirty = true;
+	}
+
+	/**
+	 * @return The number of times the members were drawn into the cached image.
+	 */
+	public int getRepaints() {
+		return repaints;
+	}
+
+	/**
+	 * Draws the cached image, first bringing it up to date if a member changed.
+	 *
+	 * @param g The graphics context to draw on.
+	 */
+	@Override
+	public void render(Graphics2D g) {
+		if (dirty || image == null) {
+			repaint(g);
+		}
+		g.drawImage(image, 0, 0, null);
+	}
+
+	private void repaint(Graphics2D target) {
+		int width = (int) Math.ceil(getDimensions().x());
+		int height = (int) Math.ceil(getDimensions().y());
+		if (image == null || image.getWidth() != width || image.getHeight() != height) {
+			image = target.getDeviceConfiguration().createCompatibleImage(width, height, Transparency.OPAQUE);
+		}
+		Graphics2D g = image.createGraphics();
+		try {
+			g.setRenderingHints(target.getRenderingHints());
+			for (GameObject member : members) {
+				member.render(g);
+			}
+		} finally {
+			g.dispose();
+		}
+		dirty = false;
+		repaints++;
+	}
+}
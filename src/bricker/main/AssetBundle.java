@@ -0,0 +1,228 @@
+package bricker.main;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every image and sound of the game packed into one file, read through a memory mapping.
+ * <p>
+ * Opening a bundle opens the file once, maps it and touches every page in file order, so a
+ * cold start reads the assets sequentially instead of opening and seeking one file per asset.
+ * Entries are then handed out as read-only slices of the mapping, and can be decoded on any
+ * number of threads at once.
+ * </p>
+ * <p>
+ * Layout (big-endian): magic, version, entry count, then every entry's name (UTF-8, length as a
+ * short), offset and length; the entries' bytes follow the index, in the same order. Bundles
+ * are written by {@link #pack} (see {@link #main}).
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public final class AssetBundle {
+
+	/** The file extensions of the assets a bundle packs. */
+	public static final Set<String> ASSET_EXTENSIONS = Set.of("png", "jpg", "jpeg", "wav");
+
+	private static final int MAGIC = 0x42415354; // "BAST"
+	private static final byte VERSION = 1;
+	private static final int UNSIGNED_SHORT_MASK = 0xFFFF;
+	private static final int HEADER_BYTES = Integer.BYTES + 1 + Integer.BYTES;
+	private static final int INDEX_ENTRY_BYTES = Short.BYTES + Long.BYTES + Integer.BYTES;
+	private static final int DIRECTORY_ARG = 0;
+	private static final int BUNDLE_ARG = 1;
+
+	private final MappedByteBuffer data;
+	private final Map<String, int[]> entries;
+
+	private AssetBundle(MappedByteBuffer data, Map<String, int[]> entries) {
+		this.data = data;
+		this.entries = entries;
+	}
+
+	/**
+	 * Opens a bundle and reads it into memory.
+	 *
+	 * @param path The bundle file.
+	 * @return The bundle.
+	 * @throws IOException If the file cannot be read or is not a bundle of a supported version.
+	 */
+	public static AssetBundle open(Path path) throws IOException {
+		MappedByteBuffer data;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		data.load();
+		try {
+			if (data.getInt() != MAGIC) {
+				throw new IOException("Not a Bricker asset bundle: " + path);
+			}
+			byte version = data.get();
+			if (version != VERSION) {
+				throw new IOException("Unsupported asset bundle version " + version);
+			}
+			int count = data.getInt();
+			Map<String, int[]> entries = new LinkedHashMap<>();
+			for (int i = 0; i < count; i++) {
+				byte[] name = new byte[data.getShort() & UNSIGNED_SHORT_MASK];
+				data.get(name);
+				long offset = data.getLong();
+				int length = data.getInt();
+				if (offset < 0 || length < 0 || offset + length > data.capacity()) {
+					throw new IOException("Asset bundle entry out of range: " + path);
+				}
+				entries.put(new String(name, StandardCharsets.UTF_8), new int[]{(int) offset, length});
+			}
+			return new AssetBundle(data, Collections.unmodifiableMap(entries));
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated asset bundle: " + path, e);
+		}
+	}
+
+	/**
+	 * @return The names of the entries, in file order.
+	 */
+	public Set<String> names() {
+		return entries.keySet();
+	}
+
+	/**
+	 * @param name The file name of an asset.
+	 * @return The asset's bytes as a read-only slice of the mapping, or null if it is not in the bundle.
+	 */
+	public ByteBuffer entry(String name) {
+		int[] entry = entries.get(name);
+		return entry == null ? null : data.slice(entry[0], entry[1]).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param name The file name of an asset.
+	 * @return A stream over the asset's bytes, or null if it is not in the bundle.
+	 */
+	public InputStream openStream(String name) {
+		ByteBuffer entry = entry(name);
+		return entry == null ? null : new BufferInputStream(entry);
+	}
+
+	/**
+	 * Packs every asset of a directory into a bundle, by file name.
+	 *
+	 * @param directory The asset directory.
+	 * @param bundle    The bundle file to write.
+	 * @throws IOException If an asset cannot be read or the bundle cannot be written.
+	 */
+	public static void pack(Path directory, Path bundle) throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> listing = Files.newDirectoryStream(directory)) {
+			for (Path file : listing) {
+				if (Files.isRegularFile(file) && ASSET_EXTENSIONS.contains(extension(file.getFileName().toString()))) {
+					files.add(file);
+				}
+			}
+		}
+		files.sort(null);
+		List<byte[]> names = new ArrayList<>(files.size());
+		long offset = HEADER_BYTES;
+		for (Path file : files) {
+			byte[] name = file.getFileName().toString().getBytes(StandardCharsets.UTF_8);
+			names.add(name);
+			offset += INDEX_ENTRY_BYTES + name.length;
+		}
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(bundle)))) {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeInt(files.size());
+			for (int i = 0; i < files.size(); i++) {
+				long length = Files.size(files.get(i));
+				out.writeShort(names.get(i).length);
+				out.write(names.get(i));
+				out.writeLong(offset);
+				out.writeInt((int) length);
+				offset += length;
+			}
+			for (Path file : files) {
+				Files.copy(file, (OutputStream) out);
+			}
+		}
+	}
+
+	/**
+	 * @param name A file name.
+	 * @return The file name's extension in lower case, or an empty string.
+	 */
+	static String extension(String name) {
+		int dot = name.lastIndexOf('.');
+		return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Packs the game's asset directory into its bundle.
+	 * <p>
+	 * Usage: {@code [directory [bundle]]}, by default {@link AssetRegistry#ASSET_DIRECTORY} and
+	 * {@link AssetRegistry#ASSET_BUNDLE}.
+	 * </p>
+	 *
+	 * @param args The command line arguments.
+	 * @throws IOException If the bundle cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		Path directory = args.length > DIRECTORY_ARG ? Path.of(args[DIRECTORY_ARG]) : AssetRegistry.ASSET_DIRECTORY;
+		Path bundle = args.length > BUNDLE_ARG ? Path.of(args[BUNDLE_ARG]) : AssetRegistry.ASSET_BUNDLE;
+		pack(directory, bundle);
+		System.out.printf("Packed %d assets into %s (%d bytes)%n",
+				open(bundle).names().size(), bundle, Files.size(bundle));
+	}
+
+	/**
+	 * An input stream over a byte buffer.
+	 */
+	private static final class BufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		BufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
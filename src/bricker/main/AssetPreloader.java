@@ -0,0 +1,253 @@
+package bricker.main;
+
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.rendering.ImageRenderable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes every image and sound of an asset directory or {@link AssetBundle} in parallel,
+ * before the game loop starts.
+ * <p>
+ * {@link #start()} submits one task per image to a pool of daemon worker threads, and can be
+ * called before the game window exists. Sounds need the engine's {@link SoundReader}, which
+ * only exists once the game is initialized, so they are submitted by {@link #loadSounds};
+ * the reader is not documented as thread-safe, so sounds are read one at a time, still
+ * alongside the images. {@link #awaitAll} blocks until every asset is resident and reports
+ * each one as it finishes, so the wait is as long as the slowest asset rather than the sum.
+ * </p>
+ * <p>
+ * Images are decoded with {@link ImageIO}, and those named as transparent get every pixel of
+ * their top-left pixel's color made transparent, as the engine's image reader does. Images of a
+ * bundle are decoded straight from its mapping; its sounds are read by the {@link BundleSoundReader}
+ * given to {@link #loadSounds}.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class AssetPreloader implements AutoCloseable {
+
+	private static final Set<String> IMAGE_EXTENSIONS = Set.of("png", "jpg", "jpeg");
+	private static final String SOUND_EXTENSION = "wav";
+	private static final int TRANSPARENT = 0x00000000;
+	private static final String THREAD_NAME = "bricker-assets";
+
+	/**
+	 * Receives the progress of {@link #awaitAll}.
+	 */
+	public interface ProgressListener {
+		/**
+		 * Called on the waiting thread each time an asset becomes resident.
+		 *
+		 * @param loaded The number of assets resident so far.
+		 * @param total  The number of assets submitted.
+		 * @param name   The file name of the asset that just finished.
+		 */
+		void onProgress(int loaded, int total, String name);
+	}
+
+	private final Path directory;
+	private final AssetBundle bundle;
+	private final Set<String> transparentImages;
+	private final ExecutorService pool;
+	private final CompletionService<String> completions;
+	private final Map<String, ImageRenderable> images = new ConcurrentHashMap<>();
+	private final Map<String, Sound> sounds = new ConcurrentHashMap<>();
+	private final List<String> soundFiles = new ArrayList<>();
+	private int submitted = 0;
+	private int loaded = 0;
+
+	/**
+	 * Constructs a preloader. Nothing is read until {@link #start()}.
+	 *
+	 * @param directory         The asset directory.
+	 * @param transparentImages The file names of the images whose top-left color is transparent.
+	 * @param workers           The number of worker threads.
+	 */
+	public AssetPreloader(Path directory, Set<String> transparentImages, int workers) {
+		this(directory, null, transparentImages, workers);
+	}
+
+	/**
+	 * Constructs a preloader reading from a bundle. Nothing is decoded until {@link #start()}.
+	 *
+	 * @param bundle            The asset bundle.
+	 * @param transparentImages The file names of the images whose top-left color is transparent.
+	 * @param workers           The number of worker threads.
+	 */
+	public AssetPreloader(AssetBundle bundle, Set<String> transparentImages, int workers) {
+		this(null, bundle, transparentImages, workers);
+	}
+
+	private AssetPreloader(Path directory, AssetBundle bundle, Set<String> transparentImages, int workers) {
+		this.directory = directory;
+		this.bundle = bundle;
+		this.transparentImages = Set.copyOf(transparentImages);
+		this.pool = Executors.newFixedThreadPool(workers, task -> {
+			Thread thread = new Thread(task, THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.completions = new ExecutorCompletionService<>(pool);
+	}
+
+	/**
+	 * Lists the asset directory or bundle and starts decoding its images.
+	 *
+	 * @return This preloader.
+	 * @throws UncheckedIOException If the directory cannot be listed.
+	 */
+	public AssetPreloader start() {
+		if (bundle != null) {
+			bundle.names().forEach(this::submit);
+			return this;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				submit(file.getFileName().toString());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot list assets in " + directory, e);
+		}
+		return this;
+	}
+
+	/**
+	 * Starts reading the sounds with the engine's reader. A bundle's sounds must be read by a
+	 * {@link BundleSoundReader} over {@link #getBundle()}.
+	 *
+	 * @param reader The sound reader.
+	 */
+	public void loadSounds(SoundReader reader) {
+		for (String name : soundFiles) {
+			completions.submit(() -> readSound(reader, name));
+			submitted++;
+		}
+		soundFiles.clear();
+	}
+
+	/**
+	 * @return The bundle the assets are read from, or null if they are read from a directory.
+	 */
+	public AssetBundle getBundle() {
+		return bundle;
+	}
+
+	/**
+	 * Waits until every submitted asset is resident.
+	 *
+	 * @param listener Receives the progress, or null.
+	 * @throws IllegalStateException If an asset cannot be read.
+	 */
+	public void awaitAll(ProgressListener listener) {
+		while (loaded < submitted) {
+			String name;
+			try {
+				name = completions.take().get();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Cannot load an asset", e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while loading assets", e);
+			}
+			loaded++;
+			if (listener != null) {
+				listener.onProgress(loaded, submitted, name);
+			}
+		}
+	}
+
+	/**
+	 * @param name The file name of an image in the asset directory.
+	 * @return The decoded image, or null if it was not loaded.
+	 */
+	public ImageRenderable image(String name) {
+		return images.get(name);
+	}
+
+	/**
+	 * @param name The file name of a sound in the asset directory.
+	 * @return The sound, or null if it was not loaded.
+	 */
+	public Sound sound(String name) {
+		return sounds.get(name);
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+
+	private void submit(String name) {
+		String extension = AssetBundle.extension(name);
+		if (IMAGE_EXTENSIONS.contains(extension)) {
+			completions.submit(() -> decodeImage(name));
+			submitted++;
+		} else if (SOUND_EXTENSION.equals(extension)) {
+			soundFiles.add(name);
+		}
+	}
+
+	private String decodeImage(String name) throws IOException {
+		BufferedImage image;
+		if (bundle != null) {
+			try (InputStream in = bundle.openStream(name)) {
+				image = ImageIO.read(in);
+			}
+		} else {
+			image = ImageIO.read(directory.resolve(name).toFile());
+		}
+		if (image == null) {
+			throw new IOException("Not a readable image: " + name);
+		}
+		if (transparentImages.contains(name)) {
+			image = withTopLeftColorTransparent(image);
+		}
+		images.put(name, new ImageRenderable(image));
+		return name;
+	}
+
+	private String readSound(SoundReader reader, String name) {
+		String path = bundle != null ? name : directory.resolve(name).toString();
+		Sound sound;
+		synchronized (reader) {
+			sound = reader.readSound(path);
+		}
+		sounds.put(name, sound);
+		return name;
+	}
+
+	private static BufferedImage withTopLeftColorTransparent(BufferedImage source) {
+		BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = source.getRGB(0, 0, source.getWidth(), source.getHeight(), null, 0, source.getWidth());
+		int key = pixels[0];
+		for (int i = 0; i < pixels.length; i++) {
+			if (pixels[i] == key) {
+				pixels[i] = TRANSPARENT;
+			}
+		}
+		image.setRGB(0, 0, source.getWidth(), source.getHeight(), pixels, 0, source.getWidth());
+		return image;
+	}
+}
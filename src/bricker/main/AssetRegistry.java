@@ -0,0 +1,172 @@
+package bricker.main;
+
+import danogl.gui.Sound;
+import danogl.gui.rendering.Renderable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Holds every image and sound the game uses, loaded exactly once by an {@link AssetPreloader},
+ * and hands out the shared (flyweight) instances to the game manager, the strategies and the
+ * game objects.
+ * <p>
+ * Renderables and sounds are immutable from the game's point of view, so a single
+ * instance can back any number of bricks, balls and pucks. Collision handling therefore
+ * never reads or decodes a file in the middle of a frame.
+ * </p>
+ * <p>
+ * The sprites (ball, puck, turbo ball, paddle, brick and heart) are packed into one
+ * {@link SpriteAtlas} once they are decoded, and their renderables draw from it. The
+ * background is only drawn into the cached static layer, so it keeps its own image.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class AssetRegistry {
+
+	/** The directory holding the game's images and sounds. */
+	public static final Path ASSET_DIRECTORY = Path.of("assets", "assets");
+
+	/** The bundle the game's assets are read from when it exists, packed by {@link AssetBundle#main}. */
+	public static final Path ASSET_BUNDLE = Path.of("assets", "assets.bundle");
+
+	private static final String BALL_FILE = "ball.png";
+	private static final String PUCK_FILE = "mockBall.png";
+	private static final String TURBO_BALL_FILE = "redball.png";
+	private static final String PADDLE_FILE = "paddle.png";
+	private static final String BRICK_FILE = "brick.png";
+	private static final String HEART_FILE = "heart.png";
+	private static final String BACKGROUND_FILE = "DARK_BG2_small.jpeg";
+	private static final String COLLISION_SOUND_FILE = "blop.wav";
+	private static final Set<String> TRANSPARENT_IMAGES =
+			Set.of(BALL_FILE, PUCK_FILE, PADDLE_FILE, HEART_FILE, BACKGROUND_FILE);
+	private static final int BALL_SPRITE = 0;
+	private static final int PUCK_SPRITE = 1;
+	private static final int TURBO_BALL_SPRITE = 2;
+	private static final int PADDLE_SPRITE = 3;
+	private static final int BRICK_SPRITE = 4;
+	private static final int HEART_SPRITE = 5;
+
+	private final Renderable ballImage;
+	private final Renderable puckImage;
+	private final Renderable turboBallImage;
+	private final Renderable paddleImage;
+	private final Renderable brickImage;
+	private final Renderable heartImage;
+	private final Renderable backgroundImage;
+	private final Sound collisionSound;
+	private final SpriteAtlas atlas;
+
+	/**
+	 * Takes the game's assets from a preloader that has finished loading. When the preloader
+	 * is null (headless runs), every asset is null: game objects are then created without a
+	 * renderable and play no sound.
+	 *
+	 * @param preloaded The preloader, with every asset resident, or null.
+	 */
+	public AssetRegistry(AssetPreloader preloaded) {
+		boolean hasImages = preloaded != null;
+		this.atlas = hasImages ? new SpriteAtlas(
+				preloaded.image(BALL_FILE).getImage(),
+				preloaded.image(PUCK_FILE).getImage(),
+				preloaded.image(TURBO_BALL_FILE).getImage(),
+				preloaded.image(PADDLE_FILE).getImage(),
+				preloaded.image(BRICK_FILE).getImage(),
+				preloaded.image(HEART_FILE).getImage()) : null;
+		this.ballImage = hasImages ? atlas.region(BALL_SPRITE) : null;
+		this.puckImage = hasImages ? atlas.region(PUCK_SPRITE) : null;
+		this.turboBallImage = hasImages ? atlas.region(TURBO_BALL_SPRITE) : null;
+		this.paddleImage = hasImages ? atlas.region(PADDLE_SPRITE) : null;
+		this.brickImage = hasImages ? atlas.region(BRICK_SPRITE) : null;
+		this.heartImage = hasImages ? atlas.region(HEART_SPRITE) : null;
+		this.backgroundImage = hasImages ? preloaded.image(BACKGROUND_FILE) : null;
+		this.collisionSound = hasImages ? preloaded.sound(COLLISION_SOUND_FILE) : null;
+	}
+
+	/**
+	 * Creates a preloader for every asset in {@link #ASSET_BUNDLE}, or in {@link #ASSET_DIRECTORY}
+	 * if there is no bundle, configured with the images whose top-left color is transparent.
+	 * Call {@link AssetPreloader#start()} on it.
+	 *
+	 * @param workers The number of worker threads.
+	 * @return The preloader.
+	 * @throws UncheckedIOException If the bundle exists but cannot be read.
+	 */
+	public static AssetPreloader preloader(int workers) {
+		if (!Files.isRegularFile(ASSET_BUNDLE)) {
+			return new AssetPreloader(ASSET_DIRECTORY, TRANSPARENT_IMAGES, workers);
+		}
+		try {
+			return new AssetPreloader(AssetBundle.open(ASSET_BUNDLE), TRANSPARENT_IMAGES, workers);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot open asset bundle " + ASSET_BUNDLE, e);
+		}
+	}
+
+	/**
+	 * @return The main ball image.
+	 */
+	public Renderable ballImage() {
+		return ballImage;
+	}
+
+	/**
+	 * @return The image of the extra puck balls.
+	 */
+	public Renderable puckImage() {
+		return puckImage;
+	}
+
+	/**
+	 * @return The image of the ball while turbo mode is active.
+	 */
+	public Renderable turboBallImage() {
+		return turboBallImage;
+	}
+
+	/**
+	 * @return The paddle image, shared by the user paddle and the extra paddle.
+	 */
+	public Renderable paddleImage() {
+		return paddleImage;
+	}
+
+	/**
+	 * @return The brick image.
+	 */
+	public Renderable brickImage() {
+		return brickImage;
+	}
+
+	/**
+	 * @return The heart image, used for the life display and the falling hearts.
+	 */
+	public Renderable heartImage() {
+		return heartImage;
+	}
+
+	/**
+	 * @return The background image.
+	 */
+	public Renderable backgroundImage() {
+		return backgroundImage;
+	}
+
+	/**
+	 * @return The atlas the sprites are drawn from, or null when running headless.
+	 */
+	public SpriteAtlas atlas() {
+		return atlas;
+	}
+
+	/**
+	 * @return The collision sound, shared by the ball and the pucks.
+	 */
+	public Sound collisionSound() {
+		return collisionSound;
+	}
+}
@@ -0,0 +1,211 @@
+package bricker.main;
+
+import danogl.gui.Sound;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays sound effects on a dedicated thread, so the game loop never waits on the audio system.
+ * <p>
+ * Each sound is registered once as a {@link Cue}. Playing a cue only pushes its id onto a
+ * lock-free {@link IntRingQueue}; if the queue is full the request is dropped. The mixer
+ * thread drains the queue and starts the sounds, subject to two limits:
+ * <ul>
+ *     <li>A cue requested again within the merge window of its last start is merged into
+ *     that start, so a dozen pucks hitting bricks on the same frame make one sound.</li>
+ *     <li>At most a fixed number of voices play at once. The engine's sounds are
+ *     fire-and-forget, so a voice counts as busy for a nominal duration after it starts;
+ *     a request finding no free voice is dropped.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class AudioMixer implements AutoCloseable {
+
+	/** The default maximum number of sounds playing at once. */
+	public static final int DEFAULT_MAX_VOICES = 8;
+	/** The default window within which repeated requests for a cue are merged, in milliseconds. */
+	public static final long DEFAULT_MERGE_WINDOW_MILLIS = 30;
+	/** The default time a started sound occupies a voice, in milliseconds. */
+	public static final long DEFAULT_VOICE_MILLIS = 200;
+
+	private static final int QUEUE_CAPACITY = 256;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long NEVER_PLAYED = Long.MIN_VALUE;
+	private static final String THREAD_NAME = "bricker-audio";
+
+	private final IntRingQueue requests = new IntRingQueue(QUEUE_CAPACITY);
+	private final long mergeWindowNanos;
+	private final long voiceNanos;
+	private final long[] voiceEnds;
+	private final Thread thread;
+	private final AtomicLong played = new AtomicLong();
+	private final AtomicLong merged = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private volatile Sound[] sounds = new Sound[0];
+	private volatile boolean running = true;
+	private volatile boolean idle = false;
+	private long[] lastStarts = new long[0];
+
+	/**
+	 * Constructs a mixer with the default limits. Call {@link #start()} to begin playing.
+	 */
+	public AudioMixer() {
+		this(DEFAULT_MAX_VOICES, TimeUnit.MILLISECONDS.toNanos(DEFAULT_MERGE_WINDOW_MILLIS),
+				TimeUnit.MILLISECONDS.toNanos(DEFAULT_VOICE_MILLIS));
+	}
+
+	/**
+	 * Constructs a mixer. Call {@link #start()} to begin playing.
+	 *
+	 * @param maxVoices        The maximum number of sounds playing at once.
+	 * @param mergeWindowNanos The window within which repeated requests for a cue are merged.
+	 * @param voiceNanos       The time a started sound occupies a voice.
+	 */
+	public AudioMixer(int maxVoices, long mergeWindowNanos, long voiceNanos) {
+		if (maxVoices < 1) {
+			throw new IllegalArgumentException("At least one voice is needed");
+		}
+		this.mergeWindowNanos = mergeWindowNanos;
+		this.voiceNanos = voiceNanos;
+		this.voiceEnds = new long[maxVoices];
+		this.thread = new Thread(this::mix, THREAD_NAME);
+		this.thread.setDaemon(true);
+	}
+
+	/**
+	 * Starts the mixer thread.
+	 */
+	public void start() {
+		thread.start();
+	}
+
+	/**
+	 * Registers a sound and returns the cue that plays it.
+	 *
+	 * @param sound The sound, or null.
+	 * @return The cue, or null if the sound is null (for example when running headless).
+	 */
+	public synchronized Cue cue(Sound sound) {
+		if (sound == null) {
+			return null;
+		}
+		Sound[] registered = Arrays.copyOf(sounds, sounds.length + 1);
+		registered[sounds.length] = sound;
+		sounds = registered;
+		return new Cue(sounds.length - 1);
+	}
+
+	/**
+	 * @return The number of sounds started.
+	 */
+	public long getPlayed() {
+		return played.get();
+	}
+
+	/**
+	 * @return The number of requests merged into a recent start of the same cue.
+	 */
+	public long getMerged() {
+		return merged.get();
+	}
+
+	/**
+	 * @return The number of requests dropped because the queue was full or no voice was free.
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * Stops the mixer thread. Requests still queued are discarded.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		LockSupport.unpark(thread);
+	}
+
+	private void request(int id) {
+		if (!requests.offer(id)) {
+			dropped.incrementAndGet();
+			return;
+		}
+		if (idle) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	private void mix() {
+		Arrays.fill(voiceEnds, System.nanoTime());
+		while (running) {
+			int id = requests.poll();
+			if (id == IntRingQueue.EMPTY) {
+				idle = true;
+				if (requests.isEmpty()) {
+					LockSupport.parkNanos(IDLE_PARK_NANOS);
+				}
+				idle = false;
+			} else {
+				startVoice(id, System.nanoTime());
+			}
+		}
+	}
+
+	private void startVoice(int id, long now) {
+		Sound[] registered = sounds;
+		if (id >= lastStarts.length) {
+			int oldLength = lastStarts.length;
+			lastStarts = Arrays.copyOf(lastStarts, registered.length);
+			Arrays.fill(lastStarts, oldLength, lastStarts.length, NEVER_PLAYED);
+		}
+		if (lastStarts[id] != NEVER_PLAYED && now - lastStarts[id] < mergeWindowNanos) {
+			merged.incrementAndGet();
+			return;
+		}
+		int voice = freeVoice(now);
+		if (voice < 0) {
+			dropped.incrementAndGet();
+			return;
+		}
+		voiceEnds[voice] = now + voiceNanos;
+		lastStarts[id] = now;
+		try {
+			registered[id].play();
+			played.incrementAndGet();
+		} catch (RuntimeException e) {
+			dropped.incrementAndGet();
+		}
+	}
+
+	private int freeVoice(long now) {
+		for (int voice = 0; voice < voiceEnds.length; voice++) {
+			if (voiceEnds[voice] - now <= 0) {
+				return voice;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * A registered sound. Playing it never blocks: the request is handed to the mixer thread.
+	 */
+	public final class Cue {
+		private final int id;
+
+		private Cue(int id) {
+			this.id = id;
+		}
+
+		/**
+		 * Asks the mixer to play the sound.
+		 */
+		public void play() {
+			request(id);
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package bricker.main;
+
+/**
+ * The kinds of bricks the level generator places, one per top-level collision strategy.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public enum BrickType {
+	/** A brick that is simply removed when hit. */
+	BASIC,
+	/** A brick that spawns extra puck balls. */
+	EXTRA_BALLS,
+	/** A brick that adds an extra paddle. */
+	EXTRA_PADDLE,
+	/** A brick that puts the ball in turbo mode. */
+	TURBO,
+	/** A brick that drops a heart. */
+	RETURN_LIFE,
+	/** A brick that combines two other behaviors. */
+	DOUBLE
+}
@@ -3,7 +3,15 @@ package bricker.main;
 import bricker.brick_strategies.*;
 import bricker.gameobjects.Ball;
 import bricker.gameobjects.Brick;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.BrickGrid;
+import bricker.gameobjects.ExtraPaddle;
+import bricker.gameobjects.FallingHeart;
+import bricker.gameobjects.GameObjectPool;
 import bricker.gameobjects.Paddle;
+import bricker.gameobjects.PuckBall;
+import bricker.gameobjects.StaticLayer;
+import bricker.gameobjects.SweptAabb;
 import danogl.GameManager;
 import danogl.GameObject;
 
@@ -13,15 +21,23 @@ import danogl.gui.*;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.gui.rendering.TextRenderable;
-import danogl.util.Counter;
 import danogl.util.Vector2;
 
 
 import danogl.gui.WindowController;
 
+import javax.management.JMException;
 import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.event.KeyEvent;
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static java.lang.Integer.parseInt;
 
@@ -62,18 +78,23 @@ public class BrickerGameManager extends GameManager {
 	private final static int GREEN_LIVES = 3;
 	private final static int WIDTH_WINDOW = 700;
 	private final static int HEIGHT_WINDOW = 500;
+	private final static float VERTICAL_SPACING = 2;
+	private final static int DEFAULT_SPAWN_POOL_CAPACITY = 64;
+	private final static int LEVEL_CHUNKS_PER_FRAME = 16;
+	private final static int MAX_OBSTACLE_HITS_PER_MOVE = 4;
+	private final static float DEFAULT_PHYSICS_RATE = 120;
+	private final static int MAX_PHYSICS_STEPS_PER_FRAME = 8;
+	private final static String PHYSICS_RATE_PROPERTY = "bricker.physicsRate";
+	private final static String PHYSICS_WORKERS_PROPERTY = "bricker.physicsWorkers";
+	private final static String ASSET_PROGRESS_FORMAT = "Loading assets: %d/%d (%s)%n";
+	private final static int DEFAULT_METRICS_PORT = 9464;
+	private final static String METRICS_PORT_PROPERTY = "bricker.metricsPort";
+	private final static String METRICS_MBEAN_NAME = "bricker:type=FrameMetrics";
 
 	private final static String LOOSE_STRING = "You lose! Play again?";
 	private final static String WIN_STRING = "You win! Play again?";
-	private final static String BALL_ADDRESS = "assets/assets/ball.png";
-	private final static String PADDLE_ADDRESS = "assets/assets/paddle.png";
-	private final static String BRICK_ADDRESS = "assets/assets/brick.png";
-	private final static String HEART_ADDRESS = "assets/assets/heart.png";
-	private final static String COLLISION_SOUND_ADDRESS = "assets/assets/blop.wav";
-	private final static String BACKGROUND_ADDRESS = "assets/assets/DARK_BG2_small.jpeg";
 	private final static String IS_INEGER_REGEX = "^-?\\d+$";
 	private final static String BRICKER = "Bricker";
-	private final static String RED_BALL_ADDRESS = "assets/assets/redball.png";
 
 	private final int numLines;
 	private boolean wHandled = false;
@@ -85,19 +106,47 @@ public class BrickerGameManager extends GameManager {
 	private int numLives = INITIAL_HEART_COUNT;
 	private GameObject[] hearts;
 	private TurboModeStrategy turboStrategy;
-	private Renderable turboImage;
+	private GameContext context;
 	private FactoryDoubleStrategy strategyDoubleFactory;
 
-	private final Counter bricksCounter = new Counter();
-	private final Counter extraPaddlesCount = new Counter();
+	private final AtomicInteger bricksCounter = new AtomicInteger();
+	private final AtomicInteger extraPaddlesCount = new AtomicInteger();
+	private final int[] bricksPerType = new int[BrickType.values().length];
+	private int livesLost = 0;
+	private int spawnPoolCapacity = DEFAULT_SPAWN_POOL_CAPACITY;
+	private GameObjectPool<PuckBall> puckPool;
+	private GameObjectPool<FallingHeart> heartPool;
+	private BrickField brickField;
+	private final List<Ball> movingBalls = new ArrayList<>();
+	private final List<GameObject> obstacles = new ArrayList<>();
+	private final List<GameObject> walls = new ArrayList<>();
+	private final Consumer<Ball> sweepBall = this::sweepBall;
 
 
 	private Renderable heartImage;
+	private AssetRegistry assets;
+	private AssetPreloader assetPreloader;
 	private ImageReader imageReader;
 	private SoundReader soundReader;
 	private UserInputListener inputListener;
 	private TextRenderable numericLife;
 	private GameObject numericLifeObject;
+	private StaticLayer staticLayer;
+	private int drawnBrickVersion = -1;
+	private final GameRandom random = new GameRandom();
+	private final FrameMetrics metrics = new FrameMetrics();
+	private final GameEventBus events = new GameEventBus(GameEventBus.DEFAULT_CAPACITY);
+	private final CommandBuffer commands = new CommandBuffer(this, events);
+	private final FixedStepClock physicsClock =
+			new FixedStepClock(1 / DEFAULT_PHYSICS_RATE, MAX_PHYSICS_STEPS_PER_FRAME);
+	private final RenderInterpolator interpolator = new RenderInterpolator();
+	private ParallelSweep parallelSweep = new ParallelSweep(1, ParallelSweep.DEFAULT_MIN_BALLS_PER_WORKER);
+	private AudioMixer mixer;
+	private AudioMixer.Cue collisionCue;
+	private LevelFile level;
+	private LevelLoader levelLoader;
+	private int livePucks;
+	private int liveHearts;
 
 
 
@@ -117,6 +166,7 @@ public class BrickerGameManager extends GameManager {
 			this.numLines = parseInt(args[FIRST_ARG]);
 			this.numBricks = parseInt(args[SECOND_ARG]);
 		}
+		events.subscribe(this::keepScore);
 	}
 
 	/**
@@ -137,48 +187,151 @@ public class BrickerGameManager extends GameManager {
 		this.inputListener = inputListener;
 		this.windowController = windowController;
 		wHandled = false;
-		this.turboStrategy = null;
 		super.initializeGame(imageReader, soundReader, inputListener, windowController);
 		windowDimensions = windowController.getWindowDimensions();
+		if (assets == null) {
+			loadAssets();
+		}
+		if (mixer == null && soundReader != null) {
+			mixer = new AudioMixer();
+			collisionCue = mixer.cue(assets.collisionSound());
+			mixer.start();
+		}
 
-		createBackground(imageReader);
-		createBall(imageReader, soundReader, windowDimensions);
-		createPaddle(imageReader, inputListener);
+		staticLayer = new StaticLayer(windowDimensions);
+		gameObjects().addGameObject(staticLayer, Layer.BACKGROUND);
+		createBackground();
+		createBall(windowDimensions);
+		createPaddle(inputListener);
 		creatingWalls(windowDimensions);
-		createHearts(imageReader);
+		createHearts();
 		createNumeric();
+		createSpawnPools();
 
-		turboImage = imageReader.readImage(RED_BALL_ADDRESS, false);
-		strategyDoubleFactory = new FactoryDoubleStrategy(imageReader, soundReader,
-				gameObjects(), new Vector2(PUCK_SIZE, PUCK_SIZE), BALL_SPEED,
-				new BasicCollisionStrategy(this),
-				windowDimensions, this, ball, turboImage,
-				new Vector2(PADDLE_WIDTH, PADDLE_BRICK_HEIGHT), inputListener,
-				(Paddle)userPaddle, heartImage,
+		context = new GameContext(this, gameObjects(), assets, inputListener, windowDimensions,
+				random, ball, userPaddle, new Vector2(PUCK_SIZE, PUCK_SIZE), BALL_SPEED,
+				new Vector2(PADDLE_WIDTH, PADDLE_BRICK_HEIGHT),
 				new Vector2(HEART_HEIGHT_WIDTH, HEART_HEIGHT_WIDTH));
-		createBricks(imageReader, windowDimensions);
+		strategyDoubleFactory = new FactoryDoubleStrategy(context);
+		turboStrategy = strategyDoubleFactory.getTurboModeStrategy();
+		if (level != null) {
+			createLevelBricks();
+		} else {
+			createBricks(windowDimensions);
+		}
 	}
 
 	/**
-	 * Updates the game state and checks for win/lose conditions.
+	 * The game's own subscriber to its event bus: keeps the brick, life and extra paddle
+	 * counters in step with the events the command buffer publishes.
+	 *
+	 * @param event The event.
+	 */
+	private void keepScore(GameEvent event) {
+		switch (event.type()) {
+			case BRICK_DESTROYED:
+				decrementCounter();
+				break;
+			case LIFE_GAINED:
+				incrementLives();
+				break;
+			case EXTRA_PADDLE_REMOVED:
+				decrementExtraPaddles();
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Advances the simulation by as many fixed physics steps as the frame's time completes
+	 * (see {@link #setPhysicsStep}). Positions before the last step are captured, so the
+	 * render can draw moving objects between the last two physics states. The rules and the
+	 * player's input are checked once per frame, after the steps, so a key press is seen even
+	 * on a frame that runs no step, and a restart never happens between two steps of a frame.
 	 *
 	 * @param deltaTime The time since the last update in seconds.
 	 */
 	@Override
 	public void update(float deltaTime) {
+		int steps = physicsClock.advance(deltaTime);
+		for (int i = 0; i < steps; i++) {
+			if (i == steps - 1) {
+				interpolator.capture(gameObjects().objectsInLayer(Layer.DEFAULT));
+			}
+			physicsStep(physicsClock.step());
+		}
+		long phaseStart = metrics.start();
+		checkRules();
+		metrics.end(FramePhase.RULES, phaseStart);
+		metrics.setLiveCounts(movingBalls.size() - livePucks, livePucks, liveHearts, bricksCounter.get());
+	}
+
+	/**
+	 * Runs one physics step: moves and collides every object, applies the queued side
+	 * effects and advances turbo mode.
+	 *
+	 * @param deltaTime The length of the step in seconds.
+	 */
+	private void physicsStep(float deltaTime) {
+		long phaseStart = metrics.start();
 		super.update(deltaTime);
-		double ballHeight = this.ball.getCenter().y();
+		metrics.end(FramePhase.ENGINE_UPDATE, phaseStart);
+		phaseStart = metrics.start();
+		if (levelLoader != null && !levelLoader.isComplete()) {
+			levelLoader.loadNext(LEVEL_CHUNKS_PER_FRAME);
+		}
+		collideBricks();
+		metrics.end(FramePhase.BRICK_COLLISIONS, phaseStart);
+		phaseStart = metrics.start();
+		commands.flush();
+		metrics.end(FramePhase.APPLY_COMMANDS, phaseStart);
+		phaseStart = metrics.start();
 		if (turboStrategy != null) {
 			turboStrategy.update(deltaTime);
 		}
+		metrics.end(FramePhase.TURBO, phaseStart);
+	}
+
+	/**
+	 * Renders the frame with moving objects interpolated between the last two physics states,
+	 * timing it as the {@link FramePhase#RENDER} phase. The background, walls, life display and
+	 * bricks come from the cached {@link StaticLayer}, which is drawn again only when the brick
+	 * field or the lives changed.
+	 *
+	 * @param g The graphics context to draw on.
+	 */
+	@Override
+	public void render(Graphics2D g) {
+		long phaseStart = metrics.start();
+		if (brickField.version() != drawnBrickVersion) {
+			drawnBrickVersion = brickField.version();
+			staticLayer.invalidate();
+		}
+		interpolator.apply(physicsClock.alpha());
+		try {
+			super.render(g);
+		} finally {
+			interpolator.restore();
+		}
+		metrics.end(FramePhase.RENDER, phaseStart);
+	}
+
+	/**
+	 * Handles a lost ball, and the win, lose and restart conditions.
+	 */
+	private void checkRules() {
+		double ballHeight = this.ball.getCenter().y();
 		if (ballHeight >windowDimensions.y() ){
 			if (this.numLives > 0){
 				hearts[numLives - 1].renderer().setRenderable(null);
 				numLives--;
+				livesLost++;
 				setVelocityBall();
-				Renderable defaultBall = imageReader.readImage(BALL_ADDRESS, true);
-				ball.renderer().setRenderable(defaultBall);
+				interpolator.clear();
+				ball.renderer().setRenderable(assets.ballImage());
 				updateLifeDisplay();
+				events.publish(GameEventType.LIFE_LOST, numLives);
 			}
 		}
 		if (ballHeight > windowDimensions.y() && this.numLives == 0) {
@@ -188,7 +341,7 @@ public class BrickerGameManager extends GameManager {
 				windowController.closeWindow();
 			}
 		}
-		if (bricksCounter.value() == 0) {
+		if (bricksCounter.get() == 0) {
 			if (windowController.openYesNoDialog(WIN_STRING)) {
 				restartGame();
 			} else {
@@ -204,11 +357,286 @@ public class BrickerGameManager extends GameManager {
 	}
 
 
+	/**
+	 * Returns the number of bricks that are still in play.
+	 *
+	 * @return The number of bricks left.
+	 */
+	public int getBricksLeft() {
+		return bricksCounter.get();
+	}
+
+	/**
+	 * Returns the number of lives the player has left.
+	 *
+	 * @return The number of lives.
+	 */
+	public int getNumLives() {
+		return numLives;
+	}
+
+	/**
+	 * Returns the number of lives lost since the game was created.
+	 *
+	 * @return The number of lives lost.
+	 */
+	public int getLivesLost() {
+		return livesLost;
+	}
+
+	/**
+	 * Returns how many bricks of the given type were placed in the current level.
+	 *
+	 * @param type The brick type.
+	 * @return The number of bricks of that type.
+	 */
+	public int getBrickCount(BrickType type) {
+		return bricksPerType[type.ordinal()];
+	}
+
+	/**
+	 * Returns the buffer that collision side effects (removals, spawns, extra lives) are queued
+	 * into. The buffer is applied once per frame, after every collision has been resolved.
+	 *
+	 * @return The command buffer.
+	 */
+	public CommandBuffer getCommands() {
+		return commands;
+	}
+
+	/**
+	 * Returns the bus game events are published on. Scoring, audio, analytics and other
+	 * consumers subscribe to it instead of being called from the collision code.
+	 *
+	 * @return The event bus.
+	 */
+	public GameEventBus getEvents() {
+		return events;
+	}
+
+	/**
+	 * Returns the per-phase frame timings and live object counts of this game.
+	 *
+	 * @return The frame metrics.
+	 */
+	public FrameMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Plays an authored level instead of a random grid of bricks. Must be called before
+	 * {@link #initializeGame}. The level's bricks are streamed into the game a few chunks
+	 * per frame, so the game starts without waiting for the whole level.
+	 *
+	 * @param level The level to play, or null for a random level.
+	 */
+	public void setLevel(LevelFile level) {
+		this.level = level;
+	}
+
+	/**
+	 * Seeds the game's single random source. Every random decision of the session (brick
+	 * types, double strategies, ball directions and puck angles) is drawn from it, so two
+	 * sessions with the same seed and the same input play out identically.
+	 * Must be called before {@link #initializeGame}.
+	 *
+	 * @param seed The seed of the session.
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+	}
+
+	/**
+	 * Sets the length of a physics step. The simulation always advances in steps of this
+	 * length, however fast frames are rendered: a shorter step costs more CPU per second of
+	 * play and keeps collisions more accurate. A frame runs at most
+	 * {@value #MAX_PHYSICS_STEPS_PER_FRAME} steps and drops any time beyond that.
+	 *
+	 * @param step The length of a physics step, in seconds.
+	 */
+	public void setPhysicsStep(float step) {
+		physicsClock.setStep(step);
+	}
+
+	/**
+	 * Sets the number of worker threads the balls are swept on. Balls are only handed to
+	 * workers when there are at least {@link ParallelSweep#DEFAULT_MIN_BALLS_PER_WORKER} per
+	 * worker; the result is the same for any number of workers.
+	 *
+	 * @param workers The number of workers; 1 sweeps every ball on the game thread.
+	 */
+	public void setPhysicsWorkers(int workers) {
+		parallelSweep.shutdown();
+		parallelSweep = new ParallelSweep(workers, ParallelSweep.DEFAULT_MIN_BALLS_PER_WORKER);
+	}
+
+	/**
+	 * Sets the preloader the game's assets come from. Starting it before {@link #run()} lets
+	 * the images decode while the window opens; otherwise the game starts one itself.
+	 *
+	 * @param assetPreloader The preloader, already started.
+	 */
+	public void setAssetPreloader(AssetPreloader assetPreloader) {
+		this.assetPreloader = assetPreloader;
+	}
+
+	/**
+	 * Sets the maximum number of idle pucks and hearts kept for reuse. Takes effect
+	 * the next time the game is initialized.
+	 *
+	 * @param spawnPoolCapacity The capacity of each spawn pool.
+	 */
+	public void setSpawnPoolCapacity(int spawnPoolCapacity) {
+		this.spawnPoolCapacity = spawnPoolCapacity;
+	}
+
+	/**
+	 * Returns the pool the extra puck balls are spawned from.
+	 *
+	 * @return The puck pool.
+	 */
+	public GameObjectPool<PuckBall> getPuckPool() {
+		return puckPool;
+	}
+
+	/**
+	 * Returns the pool the falling hearts are spawned from.
+	 *
+	 * @return The heart pool.
+	 */
+	public GameObjectPool<FallingHeart> getHeartPool() {
+		return heartPool;
+	}
+
+	/**
+	 * Returns the context holding the dependencies shared by the collision strategies.
+	 *
+	 * @return The game context.
+	 */
+	public GameContext getContext() {
+		return context;
+	}
+
+	/**
+	 * Captures the whole session state: bricks and their strategies, balls, pucks, hearts,
+	 * paddles, turbo mode, lives, counters and the random source. A level that is still
+	 * streaming in is loaded completely first.
+	 *
+	 * @return The snapshot.
+	 */
+	public GameSnapshot snapshot() {
+		finishLevelLoading();
+		return GameSnapshot.capture(this);
+	}
+
+	/**
+	 * Puts the session back into the state of a snapshot, in place. The game must have been
+	 * initialized with the same level layout (the same rows and bricks per row, or the same
+	 * level file) as the game the snapshot was taken from.
+	 *
+	 * @param snapshot The snapshot.
+	 * @throws IllegalArgumentException If the snapshot does not match this game's level.
+	 */
+	public void restore(GameSnapshot snapshot) {
+		finishLevelLoading();
+		clearDynamicObjects();
+		snapshot.restoreInto(this);
+		showLives();
+	}
+
+	/**
+	 * Returns the game's random source.
+	 *
+	 * @return The random source.
+	 */
+	GameRandom getRandom() {
+		return random;
+	}
+
+	/**
+	 * Returns the bricks of the level.
+	 *
+	 * @return The brick field.
+	 */
+	BrickField getBrickField() {
+		return brickField;
+	}
+
+	/**
+	 * Returns the factory handing out the game's collision strategies.
+	 *
+	 * @return The strategy factory.
+	 */
+	FactoryDoubleStrategy getStrategyFactory() {
+		return strategyDoubleFactory;
+	}
+
+	/**
+	 * Returns the shared turbo mode strategy, which holds the ball's turbo state.
+	 *
+	 * @return The turbo mode strategy.
+	 */
+	TurboModeStrategy getTurboStrategy() {
+		return turboStrategy;
+	}
+
+	/**
+	 * Returns the live array of brick counts per {@link BrickType}, indexed by ordinal.
+	 *
+	 * @return The brick counts.
+	 */
+	int[] getBricksPerType() {
+		return bricksPerType;
+	}
+
+	/**
+	 * Sets the lives and counters, when the game is restored from a snapshot.
+	 *
+	 * @param numLives     The number of lives left.
+	 * @param livesLost    The number of lives lost so far.
+	 * @param bricksLeft   The number of bricks still in play.
+	 * @param extraPaddles The number of extra paddles in play.
+	 */
+	void setCounters(int numLives, int livesLost, int bricksLeft, int extraPaddles) {
+		this.numLives = numLives;
+		this.livesLost = livesLost;
+		bricksCounter.set(bricksLeft);
+		extraPaddlesCount.set(extraPaddles);
+	}
+
+	/**
+	 * Creates an extra paddle like the one the extra paddle strategy spawns, without adding it.
+	 *
+	 * @return The extra paddle.
+	 */
+	ExtraPaddle createExtraPaddle() {
+		return new ExtraPaddle(windowDimensions.mult(MULT_BY_HALF), new Vector2(PADDLE_WIDTH, PADDLE_BRICK_HEIGHT),
+				assets.paddleImage(), inputListener, windowDimensions, this);
+	}
+
+	/**
+	 * Returns the main ball.
+	 *
+	 * @return The main ball.
+	 */
+	Ball getBall() {
+		return ball;
+	}
+
+	/**
+	 * Returns the paddle controlled by the user.
+	 *
+	 * @return The user paddle.
+	 */
+	Paddle getUserPaddle() {
+		return userPaddle;
+	}
+
 	/**
 	 * Decreases the counter of bricks by one.
 	 */
 	public void decrementCounter() {
-		bricksCounter.decrement();
+		bricksCounter.decrementAndGet();
 	}
 
 	/**
@@ -217,21 +645,21 @@ public class BrickerGameManager extends GameManager {
 	 * @return The number of extra paddles.
 	 * */
 	public int getExtraPaddlesCount() {
-		return extraPaddlesCount.value();
+		return extraPaddlesCount.get();
 	}
 
 	/**
 	 * Increases the number of extra paddles by one.
 	 */
 	public void incrementExtraPaddles() {
-		extraPaddlesCount.increment();
+		extraPaddlesCount.incrementAndGet();
 	}
 
 	/**
 	 * Decreases the number of extra paddles by one.
 	 */
 	public void decrementExtraPaddles() {
-		extraPaddlesCount.decrement();
+		extraPaddlesCount.decrementAndGet();
 	}
 
 	/**
@@ -248,42 +676,172 @@ public class BrickerGameManager extends GameManager {
 
 	/**
 	 * Gets the game objects in the game. And then removes the game object from the game.
+	 * Bricks that are views of the brick field are killed in the field.
 	 * @param object The game object to be removed.
 	 * @return The game objects in the game.
 	 */
 	public boolean removeGameObject(GameObject object) {
+		if (object instanceof Brick && ((Brick) object).getField() != null) {
+			Brick brick = (Brick) object;
+			return brick.getField().remove(brick.getIndex());
+		}
 		return gameObjects().removeGameObject(object);
 	}
 
 	/**
-	 * Restarts the game by removing all game objects and resetting the game state.
+	 * Resolves collisions between the balls (main ball and pucks) and the walls, paddles and bricks.
+	 * The brick field lives in its own layer that the engine does not test against the moving
+	 * objects; instead, each ball looks up only the bricks in the grid cells its bounding box covers.
+	 * <p>
+	 * This runs in three stages. Bricks a ball could reach are first streamed in, on the game
+	 * thread. Every ball is then swept, possibly on several workers (see
+	 * {@link #setPhysicsWorkers}); a sweep moves and reflects only its own ball and records
+	 * the hits. Finally the recorded hits are applied on the game thread, ball by ball in
+	 * collection order, so sounds, strategies, random draws and queued commands happen in
+	 * the same order however many workers swept.
+	 * </p>
 	 */
-	private void restartGame() {
-		Iterable<GameObject> objectsDefault = gameObjects().objectsInLayer(Layer.DEFAULT);
-		for (GameObject object:objectsDefault){
-			gameObjects().removeGameObject(object);
+	private void collideBricks() {
+		movingBalls.clear();
+		obstacles.clear();
+		obstacles.addAll(walls);
+		livePucks = 0;
+		liveHearts = 0;
+		for (GameObject object : gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			if (object instanceof Paddle) {
+				obstacles.add(object);
+			} else if (object instanceof Ball) {
+				movingBalls.add((Ball) object);
+				if (object instanceof PuckBall) {
+					livePucks++;
+				}
+			} else if (object instanceof FallingHeart) {
+				liveHearts++;
+			}
 		}
-
-		Iterable<GameObject> objectsBackground = gameObjects().objectsInLayer(Layer.BACKGROUND);
-		for (GameObject object:objectsBackground){
-			gameObjects().removeGameObject(object);
+		for (Ball movingBall : movingBalls) {
+			brickField.preload(movingBall);
 		}
-		Iterable<GameObject> objectsStatic = gameObjects().objectsInLayer(Layer.STATIC_OBJECTS);
-		for (GameObject object:objectsStatic){
-			gameObjects().removeGameObject(object);
+		parallelSweep.run(movingBalls, sweepBall);
+		for (Ball movingBall : movingBalls) {
+			movingBall.applyContacts();
+		}
+	}
+
+	/**
+	 * Sweeps a ball's last move against the walls and paddles, then against the bricks.
+	 * Only changes the ball, so it may run on a worker thread.
+	 *
+	 * @param ball The moving ball.
+	 */
+	private void sweepBall(Ball ball) {
+		sweepObstacles(ball);
+		brickField.sweep(ball);
+	}
+
+	/**
+	 * Sweeps a ball's last move against the walls and paddles. The engine only tests overlaps at
+	 * the end of the frame, so a fast ball or a long frame can carry the ball through a wall or
+	 * the paddle; such a ball is moved back to the first contact and bounced. Balls the engine
+	 * already bounced are moving away from the obstacle and are left alone. The hits are
+	 * recorded in the ball's contacts and applied later.
+	 *
+	 * @param ball The moving ball.
+	 */
+	private void sweepObstacles(Ball ball) {
+		float[] sweepNormal = ball.contacts().scratchNormal();
+		for (int hits = 0; hits < MAX_OBSTACLE_HITS_PER_MOVE; hits++) {
+			GameObject firstHit = null;
+			float firstHitTime = SweptAabb.NO_HIT;
+			Vector2 firstHitNormal = null;
+			for (GameObject obstacle : obstacles) {
+				float time = ball.sweep(obstacle, sweepNormal);
+				if (time < firstHitTime) {
+					firstHit = obstacle;
+					firstHitTime = time;
+					firstHitNormal = SweptAabb.toVector(sweepNormal);
+				}
+			}
+			if (firstHit == null) {
+				return;
+			}
+			ball.recordHit(firstHitTime, firstHit, firstHitNormal);
 		}
+	}
+
+	/**
+	 * Restarts the game in place. The background, walls, hearts, life display, paddle, ball
+	 * and brick field are kept; only the dynamic objects (pucks, falling hearts and the extra
+	 * paddle) are removed, and the kept objects are reset to their starting state.
+	 * Every brick is revived with a newly drawn strategy, so the level is re-randomized
+	 * without allocating a new scene.
+	 */
+	void restartGame() {
+		clearDynamicObjects();
 
 		// Reset internal state
+		turboStrategy.reset();
+		setVelocityBall();
+		userPaddle.setCenter(new Vector2(windowDimensions.x()/2, windowDimensions.y()-PADDLE_FROM_EDGE));
+		userPaddle.setVelocity(Vector2.ZERO);
 		numLives = INITIAL_HEART_COUNT;
-		bricksCounter.reset();
-		extraPaddlesCount.reset();
-
-		// Recreate game objects
-		initializeGame(imageReader, soundReader, inputListener, windowController);
+		showLives();
+		extraPaddlesCount.set(0);
+		wHandled = false;
 
-		turboStrategy = null;
+		// Re-randomize the bricks (an authored level keeps its strategies)
+		bricksCounter.set(0);
+		Arrays.fill(bricksPerType, 0);
+		if (level != null) {
+			for (int id = 0; id < brickField.size(); id++) {
+				if (brickField.isPresent(id)) {
+					brickField.revive(id, brickField.strategy(id));
+				}
+			}
+			countLevelBricks();
+		} else {
+			for (int id = 0; id < brickField.size(); id++) {
+				brickField.revive(id, chooseBrickStrategy());
+				bricksCounter.incrementAndGet();
+			}
+		}
+		events.publish(GameEventType.GAME_RESTARTED, 0);
+	}
 
+	/**
+	 * Drops the frame's pending work and removes the dynamic objects (pucks, falling hearts
+	 * and the extra paddle), returning pucks and hearts to their pools. The ball gets its
+	 * normal appearance back.
+	 */
+	private void clearDynamicObjects() {
+		commands.clear();
+		interpolator.clear();
+		physicsClock.reset();
+		List<GameObject> dynamicObjects = new ArrayList<>();
+		for (GameObject object : gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			if (object != ball && object != userPaddle) {
+				dynamicObjects.add(object);
+			}
+		}
+		for (GameObject object : dynamicObjects) {
+			gameObjects().removeGameObject(object);
+			if (object instanceof PuckBall) {
+				puckPool.release((PuckBall) object);
+			} else if (object instanceof FallingHeart) {
+				heartPool.release((FallingHeart) object);
+			}
+		}
+		ball.renderer().setRenderable(assets.ballImage());
+	}
 
+	/**
+	 * Shows one heart per remaining life and updates the numeric life display.
+	 */
+	private void showLives() {
+		for (int i = 0; i < MAX_STREAKS; i++) {
+			hearts[i].renderer().setRenderable(i < numLives ? heartImage : null);
+		}
+		updateLifeDisplay();
 	}
 
 	/**
@@ -297,30 +855,65 @@ public class BrickerGameManager extends GameManager {
 		numericLifeObject = new GameObject(new Vector2(2 * WALLS_WIDTH,
 				windowDimensions.y() - HEART_HEIGHT_WIDTH - NUMERIC_HEIGHT_WIDTH - SPACE_FROM_HEART),
 				new Vector2(NUMERIC_HEIGHT_WIDTH, NUMERIC_HEIGHT_WIDTH), numericLife);
-		gameObjects().addGameObject(numericLifeObject, Layer.BACKGROUND);
+		staticLayer.add(numericLifeObject);
+	}
+
+	/**
+	 * Creates the pools that puck balls and falling hearts are spawned from.
+	 */
+	private void createSpawnPools() {
+		Vector2 puckDimensions = new Vector2(PUCK_SIZE, PUCK_SIZE);
+		Vector2 heartDimensions = new Vector2(HEART_HEIGHT_WIDTH, HEART_HEIGHT_WIDTH);
+		puckPool = new GameObjectPool<>(() -> new PuckBall(Vector2.ZERO, puckDimensions,
+				assets.puckImage(), collisionCue, windowDimensions, this),
+				spawnPoolCapacity);
+		heartPool = new GameObjectPool<>(() -> new FallingHeart(Vector2.ZERO, heartDimensions,
+				assets.heartImage(), windowDimensions, userPaddle, this),
+				spawnPoolCapacity);
+	}
+
+	/**
+	 * Makes every asset resident before the first frame. With a window, the images and sounds
+	 * are decoded in parallel and the progress is printed; headless games have no assets.
+	 */
+	private void loadAssets() {
+		if (imageReader == null && soundReader == null) {
+			assets = new AssetRegistry(null);
+			return;
+		}
+		if (assetPreloader == null) {
+			assetPreloader = AssetRegistry.preloader(Runtime.getRuntime().availableProcessors()).start();
+		}
+		try (AssetPreloader preloader = assetPreloader) {
+			if (soundReader != null) {
+				preloader.loadSounds(preloader.getBundle() == null ? soundReader
+						: new BundleSoundReader(preloader.getBundle(), windowController));
+			}
+			preloader.awaitAll((loaded, total, name) ->
+					System.out.printf(ASSET_PROGRESS_FORMAT, loaded, total, name));
+			assets = new AssetRegistry(preloader);
+		}
+		assetPreloader = null;
 	}
 
 	/**
 	 * Creates the background of the game window.
-	 *
-	 * @param imageReader The image reader used to load the background image.
 	 */
-	private void createBackground(ImageReader imageReader) {
-		Renderable backgroundImage = imageReader.readImage(BACKGROUND_ADDRESS, true);
+	private void createBackground() {
+		Renderable backgroundImage = assets.backgroundImage();
 		GameObject background = new GameObject(Vector2.ZERO, new Vector2(windowDimensions.x(),
 				windowDimensions.y()), backgroundImage);
-		gameObjects().addGameObject(background, Layer.BACKGROUND);
 		background.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+		staticLayer.add(background);
 	}
 
 	/**
 	 * Creates the paddle for the user.
 	 *
-	 * @param imageReader The image reader used to load the paddle image.
 	 * @param inputListener The input listener for user input.
 	 */
-	private void createPaddle(ImageReader imageReader, UserInputListener inputListener) {
-		Renderable paddleImage = imageReader.readImage(PADDLE_ADDRESS, true);
+	private void createPaddle(UserInputListener inputListener) {
+		Renderable paddleImage = assets.paddleImage();
 		GameObject userPaddle =  new Paddle(Vector2.ZERO,
 				new Vector2(PADDLE_WIDTH, PADDLE_BRICK_HEIGHT),
 				paddleImage, inputListener, windowDimensions);
@@ -331,11 +924,9 @@ public class BrickerGameManager extends GameManager {
 
 	/**
 	 * Creates the hearts that represent the player's lives.
-	 *
-	 * @param imageReader The image reader used to load the heart image.
 	 */
-	private void createHearts(ImageReader imageReader) {
-		this.heartImage = imageReader.readImage(HEART_ADDRESS, true);
+	private void createHearts() {
+		this.heartImage = assets.heartImage();
 		float lenHeart = HEART_HEIGHT_WIDTH+1;
 		hearts = new GameObject[MAX_STREAKS];
 		for(int i=0; i<MAX_STREAKS; i++){
@@ -344,7 +935,7 @@ public class BrickerGameManager extends GameManager {
 					new Vector2(HEART_HEIGHT_WIDTH, HEART_HEIGHT_WIDTH), heartImage);
 			if (i == INITIAL_HEART_COUNT)
 				hearts[i].renderer().setRenderable(null);
-			gameObjects().addGameObject(hearts[i], Layer.BACKGROUND);
+			staticLayer.add(hearts[i]);
 
 		}
 		numLives = INITIAL_HEART_COUNT;
@@ -353,186 +944,106 @@ public class BrickerGameManager extends GameManager {
 	/**
 	 * Creates the bricks in the game.
 	 *
-	 * @param imageReader The image reader used to load the brick image.
 	 * @param windowDimensions The dimensions of the game window.
 	 */
-	private void createBricks(ImageReader imageReader, Vector2 windowDimensions) {
-		Renderable brickImage = imageReader.readImage(BRICK_ADDRESS, false);
-		Renderable heartImage = imageReader.readImage(HEART_ADDRESS, true);
-		Vector2 heartDimensions = new Vector2(HEART_HEIGHT_WIDTH, HEART_HEIGHT_WIDTH);
-		Random random = new Random();
-		float verticalSpacing = 2;
+	private void createBricks(Vector2 windowDimensions) {
+		Renderable brickImage = assets.brickImage();
 		float lenBricks = windowDimensions.x()-(2*WALLS_WIDTH+2)-(this.numBricks -1);
 		float brickWidth = lenBricks/this.numBricks;
+		BrickGrid brickGrid = new BrickGrid(new Vector2(WALLS_WIDTH, WALLS_WIDTH),
+				new Vector2(brickWidth + ADDED_SPACE, PADDLE_BRICK_HEIGHT + VERTICAL_SPACING),
+				this.numLines, this.numBricks);
+		brickField = new BrickField(new Vector2(WALLS_WIDTH, WALLS_WIDTH),
+				new Vector2(windowDimensions.x() - 2 * WALLS_WIDTH,
+						this.numLines * (PADDLE_BRICK_HEIGHT + VERTICAL_SPACING)),
+				brickImage, brickGrid, this.numLines * this.numBricks);
+		staticLayer.add(brickField);
 		for (int row = 0; row<this.numLines; row++){
-			float y = WALLS_WIDTH + row * (PADDLE_BRICK_HEIGHT + verticalSpacing);
+			float y = WALLS_WIDTH + row * (PADDLE_BRICK_HEIGHT + VERTICAL_SPACING);
 			for (int col = 0; col<this.numBricks; col++){
-				int chooseBehavior = random.nextInt(1,MAX_BOUND);
-				GameObject brick = null;
 				float x = WALLS_WIDTH+ col*(brickWidth +ADDED_SPACE);
-				if (1<= chooseBehavior && chooseBehavior <= BASIC_BRICK){
-					brick = new Brick(new Vector2(x, y),
-							new Vector2(brickWidth, PADDLE_BRICK_HEIGHT)
-							, brickImage, new BasicCollisionStrategy(this));
-				} else if (chooseBehavior == EXTRA_BRICK){
-					brick = extraBallBrick(imageReader, windowDimensions, x, y, brickWidth, brickImage);
-				} else if (chooseBehavior == EXTRA_PADDLE_BRICK) {
-					brick = extraPaddleBrick(imageReader, windowDimensions, x, y, brickWidth, brickImage);
-				} else if (chooseBehavior == TURBO_BRICK){
-					brick = turboBrick(imageReader, x, y, brickWidth, brickImage);
-				} else if(chooseBehavior == RETURN_LIFE_BRICK){
-					brick = returnLifeBrick(windowDimensions, heartImage, heartDimensions, x, y,
-							brickWidth, brickImage);
-				} else if (chooseBehavior == DOUBLE_BRICK) {
-					brick = doubleBrick(x, y, brickWidth, brickImage);
-				}
-				gameObjects().addGameObject(brick, Layer.DEFAULT);
-				bricksCounter.increment();
+				brickField.add(x, y, brickWidth, PADDLE_BRICK_HEIGHT, chooseBrickStrategy());
+				bricksCounter.incrementAndGet();
 			}
 		}
 	}
 
 	/**
-	 * Creates a double brick object.
-	 *
-	 * @param x The x-coordinate of the brick's position.
-	 * @param y The y-coordinate of the brick's position.
-	 * @param brickWidth The width of the brick.
-	 * @param brickImage The image to be used for rendering the brick.
-	 * @return A GameObject representing the double brick.
+	 * Loads whatever part of an authored level has not been streamed in yet.
+	 */
+	private void finishLevelLoading() {
+		if (levelLoader != null && !levelLoader.isComplete()) {
+			levelLoader.loadNext(Integer.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Creates the brick field of an authored level and loads its first chunks. The remaining
+	 * chunks are loaded during the following frames, or as soon as a ball comes near them.
+	 */
+	private void createLevelBricks() {
+		BrickGrid brickGrid = new BrickGrid(new Vector2(level.gridOriginX(), level.gridOriginY()),
+				new Vector2(level.cellWidth(), level.cellHeight()), level.gridRows(), level.gridCols());
+		brickField = new BrickField(Vector2.ZERO, windowDimensions, assets.brickImage(), brickGrid,
+				level.brickCount());
+		staticLayer.add(brickField);
+		levelLoader = new LevelLoader(level, brickField, strategyDoubleFactory);
+		brickField.setLoader(levelLoader);
+		levelLoader.loadNext(LEVEL_CHUNKS_PER_FRAME);
+		countLevelBricks();
+	}
+
+	/**
+	 * Sets the brick counters to the level's totals, loaded or not.
 	 */
-	private GameObject doubleBrick(float x, float y, float brickWidth, Renderable brickImage) {
-		GameObject brick;
-		CollisionStrategy strategyDouble = strategyDoubleFactory.buildDoubleStrategy();
-		brick = new Brick(
-				new Vector2(x, y),
-				new Vector2(brickWidth, PADDLE_BRICK_HEIGHT), brickImage, strategyDouble
-		);
-		return brick;
+	private void countLevelBricks() {
+		bricksCounter.addAndGet(level.brickCount());
+		for (BrickType type : BrickType.values()) {
+			bricksPerType[type.ordinal()] = level.brickCount(type);
+		}
 	}
 
 	/**
-	 * Creates a brick that returns a life to the player.
+	 * Draws the strategy of a new brick and counts the brick in its type.
 	 *
-	 * @param windowDimensions The dimensions of the game window.
-	 * @param heartImage The image to be used for rendering the heart.
-	 * @param heartDimensions The dimensions of the heart image.
-	 * @param x The x-coordinate of the brick's position.
-	 * @param y The y-coordinate of the brick's position.
-	 * @param brickWidth The width of the brick.
-	 * @param brickImage The image to be used for rendering the brick.
-	 * @return A GameObject representing the life-returning brick.
-	 */
-	private GameObject returnLifeBrick(Vector2 windowDimensions, Renderable heartImage,
-									   Vector2 heartDimensions,
-									   float x, float y, float brickWidth,
-									   Renderable brickImage) {
-		GameObject brick;
-		CollisionStrategy heartStrat = new ReturnStreakStrategy(
-				new BasicCollisionStrategy(this),
-				gameObjects(),
-				windowDimensions,
-				(Paddle)userPaddle,
-				heartImage,
-				heartDimensions,
-				this
-		);
-		brick = new Brick(
-				new Vector2(x, y),
-				new Vector2(brickWidth, PADDLE_BRICK_HEIGHT),
-				brickImage,
-				heartStrat
-		);
-		return brick;
-	}
-
-	/**
-	 * Creates a turbo brick object.
-	 *
-	 * @param imageReader The image reader used to load the brick image.
-	 * @param x The x-coordinate of the brick's position.
-	 * @param y The y-coordinate of the brick's position.
-	 * @param brickWidth The width of the brick.
-	 * @param brickImage The image to be used for rendering the brick.
-	 * @return A GameObject representing the turbo brick.
-	 */
-	private GameObject turboBrick(ImageReader imageReader, float x, float y,
-								  float brickWidth, Renderable brickImage) {
-		GameObject brick;
-		Renderable turboImage = imageReader.readImage(RED_BALL_ADDRESS, false);
-		this.turboStrategy = new TurboModeStrategy(ball, new BasicCollisionStrategy(this),
-				turboImage);
-		brick = new Brick(new Vector2(x, y),
-				new Vector2(brickWidth, PADDLE_BRICK_HEIGHT)
-				, brickImage, turboStrategy);
-		return brick;
-	}
-
-	/**
-	 * Creates a brick that gives the player an extra paddle.
-	 *
-	 * @param imageReader The image reader used to load the brick image.
-	 * @param windowDimensions The dimensions of the game window.
-	 * @param x The x-coordinate of the brick's position.
-	 * @param y The y-coordinate of the brick's position.
-	 * @param brickWidth The width of the brick.
-	 * @param brickImage The image to be used for rendering the brick.
-	 * @return A GameObject representing the extra paddle brick.
-	 */
-	private GameObject extraPaddleBrick(ImageReader imageReader, Vector2 windowDimensions,
-										float x, float y, float brickWidth, Renderable brickImage) {
-		GameObject brick;
-		brick = new Brick(new Vector2(x, y),
-			   new Vector2(brickWidth, PADDLE_BRICK_HEIGHT)
-			   , brickImage, new ExtraPaddleStrategy(this,
-			   new BasicCollisionStrategy(this),
-				gameObjects(),
-				imageReader,
-				inputListener,
-				windowDimensions,
-				new Vector2(PADDLE_WIDTH, PADDLE_BRICK_HEIGHT)));
-		return brick;
-	}
-
-	/**
-	 * Creates a brick that gives the player an extra ball.
-	 *
-	 * @param imageReader The image reader used to load the brick image.
-	 * @param windowDimensions The dimensions of the game window.
-	 * @param x The x-coordinate of the brick's position.
-	 * @param y The y-coordinate of the brick's position.
-	 * @param brickWidth The width of the brick.
-	 * @param brickImage The image to be used for rendering the brick.
-	 * @return A GameObject representing the extra ball brick.
-	 */
-	private GameObject extraBallBrick(ImageReader imageReader, Vector2 windowDimensions, float x, float y,
-									  float brickWidth, Renderable brickImage) {
-		GameObject brick;
-		brick = new Brick(new Vector2(x, y),
-				new Vector2(brickWidth, PADDLE_BRICK_HEIGHT)
-				, brickImage, new ExtraBallsStrategy(imageReader,
-				soundReader,
-				gameObjects(),
-				new Vector2(PUCK_SIZE,PUCK_SIZE),
-				BALL_SPEED,
-				new BasicCollisionStrategy(this),
-				windowDimensions,
-				this));
-		return brick;
+	 * @return The strategy handling the brick's collisions.
+	 */
+	private CollisionStrategy chooseBrickStrategy() {
+		int chooseBehavior = random.nextInt(1,MAX_BOUND);
+		CollisionStrategy strategy = null;
+		BrickType type = null;
+		if (1<= chooseBehavior && chooseBehavior <= BASIC_BRICK){
+			strategy = strategyDoubleFactory.getBasicStrategy();
+			type = BrickType.BASIC;
+		} else if (chooseBehavior == EXTRA_BRICK){
+			strategy = strategyDoubleFactory.getExtraBallsStrategy();
+			type = BrickType.EXTRA_BALLS;
+		} else if (chooseBehavior == EXTRA_PADDLE_BRICK) {
+			strategy = strategyDoubleFactory.getExtraPaddleStrategy();
+			type = BrickType.EXTRA_PADDLE;
+		} else if (chooseBehavior == TURBO_BRICK){
+			strategy = strategyDoubleFactory.getTurboModeStrategy();
+			type = BrickType.TURBO;
+		} else if(chooseBehavior == RETURN_LIFE_BRICK){
+			strategy = strategyDoubleFactory.getReturnStreakStrategy();
+			type = BrickType.RETURN_LIFE;
+		} else if (chooseBehavior == DOUBLE_BRICK) {
+			strategy = strategyDoubleFactory.buildDoubleStrategy();
+			type = BrickType.DOUBLE;
+		}
+		bricksPerType[type.ordinal()]++;
+		return strategy;
 	}
 
 	/**
 	 * Creates a ball object and adds it to the game.
 	 *
-	 * @param imageReader The image reader used to load the ball image.
-	 * @param soundReader The sound reader used to load the collision sound.
 	 * @param windowDimensions The dimensions of the game window.
 	 */
-	private void createBall(ImageReader imageReader, SoundReader soundReader, Vector2 windowDimensions) {
-		Renderable ballImage = imageReader.readImage(BALL_ADDRESS, true);
-		Sound collisionSound = soundReader.readSound(COLLISION_SOUND_ADDRESS);
+	private void createBall(Vector2 windowDimensions) {
+		Renderable ballImage = assets.ballImage();
 		ball =  new Ball(Vector2.ZERO, new Vector2(SIZE_BALL, SIZE_BALL), ballImage,
-				collisionSound);
+				collisionCue);
 		setVelocityBall();
 		gameObjects().addGameObject(ball, Layer.DEFAULT);
 	}
@@ -543,18 +1054,25 @@ public class BrickerGameManager extends GameManager {
 	 * @param windowDimensions The dimensions of the game window.
 	 */
 	private void creatingWalls(Vector2 windowDimensions) {
-		GameObject leftWall = new GameObject(Vector2.ZERO, new Vector2(WALLS_WIDTH, windowDimensions.y()),
-				new RectangleRenderable(Color.BLACK));
-		gameObjects().addGameObject(leftWall, Layer.STATIC_OBJECTS);
-
-		GameObject rightWall = new GameObject(new Vector2(windowDimensions.x()-WALLS_WIDTH, 0),
-				new Vector2(windowDimensions.x()-SPACE_FROM_WALL, windowDimensions.y()),
-				new RectangleRenderable(Color.BLACK));
-		gameObjects().addGameObject(rightWall, Layer.STATIC_OBJECTS);
+		walls.clear();
+		createWall(Vector2.ZERO, new Vector2(WALLS_WIDTH, windowDimensions.y()));
+		createWall(new Vector2(windowDimensions.x()-WALLS_WIDTH, 0),
+				new Vector2(windowDimensions.x()-SPACE_FROM_WALL, windowDimensions.y()));
+		createWall(Vector2.ZERO, new Vector2(windowDimensions.x(), WALLS_WIDTH));
+	}
 
-		GameObject upWall = new GameObject(Vector2.ZERO, new Vector2(windowDimensions.x(), WALLS_WIDTH),
-				new RectangleRenderable(Color.BLACK));
-		gameObjects().addGameObject(upWall, Layer.STATIC_OBJECTS);
+	/**
+	 * Creates one wall: an invisible collider in the game's static layer, and its look in the
+	 * cached static layer.
+	 *
+	 * @param topLeftCorner The top-left corner of the wall.
+	 * @param dimensions    The size of the wall.
+	 */
+	private void createWall(Vector2 topLeftCorner, Vector2 dimensions) {
+		GameObject wall = new GameObject(topLeftCorner, dimensions, null);
+		gameObjects().addGameObject(wall, Layer.STATIC_OBJECTS);
+		walls.add(wall);
+		staticLayer.add(new GameObject(topLeftCorner, dimensions, new RectangleRenderable(Color.BLACK)));
 	}
 
 	/**
@@ -564,11 +1082,10 @@ public class BrickerGameManager extends GameManager {
 		ball.setCenter(windowDimensions.mult(MULT_BY_HALF));
 		float ballVelX = BALL_SPEED;
 		float ballVelY = BALL_SPEED;
-		Random rand = new Random();
-		if (rand.nextBoolean()){
+		if (random.nextBoolean()){
 			ballVelX = -1*BALL_SPEED;
 		}
-		if (rand.nextBoolean()){
+		if (random.nextBoolean()){
 			ballVelY = -1*BALL_SPEED;
 		}
 		ball.setVelocity(new Vector2(ballVelX, ballVelY));
@@ -590,6 +1107,7 @@ public class BrickerGameManager extends GameManager {
 	 * If the number of lives is 1 or less, the color is red.
 	 */
 	private void updateLifeDisplay() {
+		staticLayer.invalidate();
 		numericLife.setString(Integer.toString(numLives));
 		if (numLives >= GREEN_LIVES) numericLife.setColor(Color.green);
 		else if (numLives == 2) numericLife.setColor(Color.yellow);
@@ -597,13 +1115,45 @@ public class BrickerGameManager extends GameManager {
 	}
 
 	/**
-	 * The main method to run the game.
+	 * The main method to run the game. A single non-numeric argument is read as the path of a
+	 * level file (see {@link LevelWriter}); otherwise the arguments give the rows and bricks per
+	 * row of a random level. The physics rate, in steps per second, is read from the
+	 * {@code bricker.physicsRate} system property, and the number of physics workers from
+	 * {@code bricker.physicsWorkers} (all processors by default). The frame metrics are published over JMX and as
+	 * Prometheus text on {@code http://localhost:<port>/metrics}, where the port is read from the
+	 * {@code bricker.metricsPort} system property.
 	 *
 	 * @param args Command line arguments for the game.
 	 */
 	public static void main(String[] args){
 		BrickerGameManager game = new BrickerGameManager(BRICKER,
 				new Vector2(WIDTH_WINDOW,HEIGHT_WINDOW), args);
+		if (args.length == 1 && !isInteger(args[FIRST_ARG])) {
+			try {
+				game.setLevel(LevelFile.open(Path.of(args[FIRST_ARG])));
+			} catch (IOException e) {
+				System.err.println("Cannot load level " + args[FIRST_ARG] + ": " + e.getMessage());
+				return;
+			}
+		}
+		int processors = Runtime.getRuntime().availableProcessors();
+		try {
+			game.setAssetPreloader(AssetRegistry.preloader(processors).start());
+		} catch (UncheckedIOException e) {
+			System.err.println("Cannot load assets: " + e.getCause().getMessage());
+			return;
+		}
+		game.setPhysicsWorkers(Integer.getInteger(PHYSICS_WORKERS_PROPERTY, processors));
+		String physicsRate = System.getProperty(PHYSICS_RATE_PROPERTY);
+		if (physicsRate != null) {
+			game.setPhysicsStep(1 / Float.parseFloat(physicsRate));
+		}
+		try {
+			game.getMetrics().register(METRICS_MBEAN_NAME);
+			new MetricsServer(game.getMetrics(), Integer.getInteger(METRICS_PORT_PROPERTY, DEFAULT_METRICS_PORT));
+		} catch (IOException | JMException e) {
+			System.err.println("Frame metrics are not exported: " + e.getMessage());
+		}
 		game.run();
 
 
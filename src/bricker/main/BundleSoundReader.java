@@ -0,0 +1,70 @@
+package bricker.main;
+
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.WindowController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A sound reader that reads sounds out of an {@link AssetBundle}.
+ * <p>
+ * A path is looked up in the bundle by its file name; paths not in the bundle are read from
+ * disk as usual. The engine only builds sounds from files, so a bundled sound is first copied
+ * from the mapping into a temporary file, deleted on exit, which is read back from the page
+ * cache. The bundle is still the only asset file opened from the game's directory.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class BundleSoundReader extends SoundReader {
+
+	private static final String TEMP_PREFIX = "bricker-";
+
+	private final AssetBundle bundle;
+
+	/**
+	 * Constructs a reader over a bundle.
+	 *
+	 * @param bundle           The asset bundle.
+	 * @param windowController The window controller the engine's reader needs.
+	 */
+	public BundleSoundReader(AssetBundle bundle, WindowController windowController) {
+		super(windowController);
+		this.bundle = bundle;
+	}
+
+	/**
+	 * Reads a sound from the bundle, or from disk if the bundle does not hold it.
+	 *
+	 * @param path The sound's path or file name.
+	 * @return The sound.
+	 * @throws UncheckedIOException If a bundled sound cannot be staged.
+	 */
+	@Override
+	public Sound readSound(String path) {
+		String name = Path.of(path).getFileName().toString();
+		ByteBuffer entry = bundle.entry(name);
+		if (entry == null) {
+			return super.readSound(path);
+		}
+		try {
+			Path staged = Files.createTempFile(TEMP_PREFIX, name);
+			staged.toFile().deleteOnExit();
+			try (FileChannel out = FileChannel.open(staged, StandardOpenOption.WRITE)) {
+				while (entry.hasRemaining()) {
+					out.write(entry);
+				}
+			}
+			return super.readSound(staged.toString());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot stage sound " + name, e);
+		}
+	}
+}
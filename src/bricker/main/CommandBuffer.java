@@ -0,0 +1,215 @@
+package bricker.main;
+
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.ExtraPaddle;
+import bricker.gameobjects.FallingHeart;
+import bricker.gameobjects.PuckBall;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Queues the side effects of collisions during a frame and applies them in one batch.
+ * <p>
+ * Collision callbacks run while the engine, or the brick field, is still walking the
+ * collision pairs. Instead of adding and removing objects right away, strategies and game
+ * objects record commands here. The game manager applies them with {@link #flush()} once
+ * the frame's collisions are resolved, so the object collection changes in a single pass.
+ * Removals are de-duplicated: an object asked to leave twice in a frame (a heart caught
+ * by the paddle on the frame it falls off-screen, for example) is removed and pooled once.
+ * </p>
+ * <p>
+ * Applying a command changes the scene and publishes what happened on the game's
+ * {@link GameEventBus}; counters and lives are kept by the bus's subscribers rather than
+ * updated here.
+ * </p>
+ * <p>
+ * Commands are stored in parallel arrays that grow once and are reused every frame, so
+ * queuing allocates nothing in steady state.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class CommandBuffer {
+
+	private static final byte SPAWN = 0;
+	private static final byte REMOVE_BRICK = 1;
+	private static final byte DESPAWN_PUCK = 2;
+	private static final byte DESPAWN_HEART = 3;
+	private static final byte REMOVE_EXTRA_PADDLE = 4;
+	private static final byte ADD_LIFE = 5;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final int NOT_A_FIELD_BRICK = -1;
+
+	private final BrickerGameManager gameManager;
+	private final GameEventBus events;
+	private final Set<GameObject> pendingRemovals =
+			Collections.newSetFromMap(new IdentityHashMap<>());
+	private byte[] kinds = new byte[INITIAL_CAPACITY];
+	private GameObject[] targets = new GameObject[INITIAL_CAPACITY];
+	private int[] layers = new int[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/**
+	 * Constructs an empty command buffer.
+	 *
+	 * @param gameManager The game manager the commands are applied to.
+	 * @param events      The bus the applied commands are published on.
+	 */
+	public CommandBuffer(BrickerGameManager gameManager, GameEventBus events) {
+		this.gameManager = gameManager;
+		this.events = events;
+	}
+
+	/**
+	 * Queues adding an object to the game.
+	 *
+	 * @param object The object to add.
+	 * @param layer  The layer to add it to.
+	 */
+	public void spawn(GameObject object, int layer) {
+		push(SPAWN, object, layer);
+	}
+
+	/**
+	 * Queues removing a brick and, if it was still in play, publishing its destruction.
+	 *
+	 * @param brick The brick that was hit.
+	 */
+	public void removeBrick(GameObject brick) {
+		pushRemoval(REMOVE_BRICK, brick);
+	}
+
+	/**
+	 * Queues removing a puck and returning it to the puck pool.
+	 *
+	 * @param puck The puck to despawn.
+	 */
+	public void despawn(PuckBall puck) {
+		pushRemoval(DESPAWN_PUCK, puck);
+	}
+
+	/**
+	 * Queues removing a falling heart and returning it to the heart pool.
+	 *
+	 * @param heart The heart to despawn.
+	 */
+	public void despawn(FallingHeart heart) {
+		pushRemoval(DESPAWN_HEART, heart);
+	}
+
+	/**
+	 * Queues removing the extra paddle and publishing its removal.
+	 *
+	 * @param paddle The extra paddle.
+	 */
+	public void removeExtraPaddle(GameObject paddle) {
+		pushRemoval(REMOVE_EXTRA_PADDLE, paddle);
+	}
+
+	/**
+	 * Queues publishing that the player caught a heart and gains a life.
+	 */
+	public void addLife() {
+		push(ADD_LIFE, null, 0);
+	}
+
+	/**
+	 * @return The number of queued commands.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Applies every queued command in the order it was queued, then empties the buffer.
+	 */
+	public void flush() {
+		for (int i = 0; i < size; i++) {
+			GameObject target = targets[i];
+			switch (kinds[i]) {
+				case SPAWN:
+					gameManager.gameObjects().addGameObject(target, layers[i]);
+					publishSpawn(target);
+					break;
+				case REMOVE_BRICK:
+					if (gameManager.removeGameObject(target)) {
+						int id = target instanceof Brick ? ((Brick) target).getIndex() : NOT_A_FIELD_BRICK;
+						publish(GameEventType.BRICK_DESTROYED, id, target);
+					}
+					break;
+				case DESPAWN_PUCK:
+					if (gameManager.removeGameObject(target)) {
+						publish(GameEventType.PUCK_LOST, 0, target);
+						gameManager.getPuckPool().release((PuckBall) target);
+					}
+					break;
+				case DESPAWN_HEART:
+					if (gameManager.removeGameObject(target)) {
+						publish(GameEventType.HEART_DESPAWNED, 0, target);
+						gameManager.getHeartPool().release((FallingHeart) target);
+					}
+					break;
+				case REMOVE_EXTRA_PADDLE:
+					if (gameManager.removeGameObject(target)) {
+						publish(GameEventType.EXTRA_PADDLE_REMOVED, 0, target);
+					}
+					break;
+				case ADD_LIFE:
+					events.publish(GameEventType.LIFE_GAINED, 0);
+					break;
+				default:
+					throw new IllegalStateException("Unknown command " + kinds[i]);
+			}
+		}
+		clear();
+	}
+
+	/**
+	 * Drops every queued command without applying it.
+	 */
+	public void clear() {
+		Arrays.fill(targets, 0, size, null);
+		size = 0;
+		pendingRemovals.clear();
+	}
+
+	private void publishSpawn(GameObject object) {
+		if (object instanceof PuckBall) {
+			publish(GameEventType.PUCK_SPAWNED, 0, object);
+		} else if (object instanceof FallingHeart) {
+			publish(GameEventType.HEART_SPAWNED, 0, object);
+		} else if (object instanceof ExtraPaddle) {
+			publish(GameEventType.EXTRA_PADDLE_ADDED, 0, object);
+		}
+	}
+
+	private void publish(GameEventType type, int value, GameObject object) {
+		Vector2 center = object.getCenter();
+		events.publish(type, value, center.x(), center.y());
+	}
+
+	private void pushRemoval(byte kind, GameObject object) {
+		if (pendingRemovals.add(object)) {
+			push(kind, object, 0);
+		}
+	}
+
+	private void push(byte kind, GameObject object, int layer) {
+		if (size == kinds.length) {
+			int capacity = size * 2;
+			kinds = Arrays.copyOf(kinds, capacity);
+			targets = Arrays.copyOf(targets, capacity);
+			layers = Arrays.copyOf(layers, capacity);
+		}
+		kinds[size] = kind;
+		targets[size] = object;
+		layers[size] = layer;
+		size++;
+	}
+}
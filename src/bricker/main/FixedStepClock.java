@@ -0,0 +1,91 @@
+package bricker.main;
+
+/**
+ * Turns variable frame times into a whole number of fixed physics steps.
+ * <p>
+ * Every rendered frame adds its duration to an accumulator, and one physics step is taken
+ * for every full step length the accumulator holds. The remainder is carried to the next
+ * frame, so the simulation advances at the physics rate regardless of the display rate, and
+ * {@link #alpha()} tells how far the rendered frame lies between the last two physics states.
+ * </p>
+ * <p>
+ * A frame never runs more than a fixed number of steps. After a long stall (a dialog, a
+ * debugger pause, a slow machine) the excess time is dropped instead of being simulated in
+ * one burst, which would only make the next frame late as well.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class FixedStepClock {
+
+	private final int maxStepsPerFrame;
+	private float step;
+	private float accumulator = 0;
+
+	/**
+	 * Constructs a clock.
+	 *
+	 * @param step             The length of a physics step, in seconds.
+	 * @param maxStepsPerFrame The maximum number of steps a single frame may run.
+	 */
+	public FixedStepClock(float step, int maxStepsPerFrame) {
+		if (maxStepsPerFrame < 1) {
+			throw new IllegalArgumentException("A frame must run at least one step");
+		}
+		this.maxStepsPerFrame = maxStepsPerFrame;
+		setStep(step);
+	}
+
+	/**
+	 * Changes the length of a physics step. Time already accumulated is kept.
+	 *
+	 * @param step The length of a physics step, in seconds.
+	 */
+	public void setStep(float step) {
+		if (!(step > 0)) {
+			throw new IllegalArgumentException("Physics step must be positive: " + step);
+		}
+		this.step = step;
+	}
+
+	/**
+	 * @return The length of a physics step, in seconds.
+	 */
+	public float step() {
+		return step;
+	}
+
+	/**
+	 * Adds a rendered frame's duration and consumes the steps it completes.
+	 *
+	 * @param frameDelta The time since the previous frame, in seconds.
+	 * @return The number of physics steps to run this frame.
+	 */
+	public int advance(float frameDelta) {
+		accumulator += Math.max(frameDelta, 0);
+		int steps = 0;
+		while (accumulator >= step && steps < maxStepsPerFrame) {
+			accumulator -= step;
+			steps++;
+		}
+		if (accumulator >= step) {
+			accumulator = 0;
+		}
+		return steps;
+	}
+
+	/**
+	 * @return How far the current frame lies past the last physics step, as a fraction of a
+	 * step between 0 and 1.
+	 */
+	public float alpha() {
+		return Math.min(accumulator / step, 1);
+	}
+
+	/**
+	 * Drops the accumulated time, so the next step starts from a clean frame boundary.
+	 */
+	public void reset() {
+		accumulator = 0;
+	}
+}
@@ -0,0 +1,197 @@
+package bricker.main;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-phase frame timings and live object counts of one game.
+ * <p>
+ * The game manager brackets each {@link FramePhase} with {@link #start()} and
+ * {@link #end(FramePhase, long)}, which costs one {@link System#nanoTime()} call and one
+ * histogram increment per phase, and publishes its object counts once per frame. The
+ * numbers can be read concurrently through JMX ({@link #register(String)}) or as
+ * Prometheus text ({@link #toPrometheusText()}, served by {@link MetricsServer}).
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class FrameMetrics implements FrameMetricsMXBean {
+
+	private static final double P50 = 50;
+	private static final double P99 = 99;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final String PREFIX = "bricker_";
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[FramePhase.values().length];
+	private volatile int liveBalls;
+	private volatile int livePucks;
+	private volatile int liveHearts;
+	private volatile int liveBricks;
+
+	/**
+	 * Constructs empty metrics.
+	 */
+	public FrameMetrics() {
+		for (int i = 0; i < histograms.length; i++) {
+			histograms[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Marks the start of a phase.
+	 *
+	 * @return The start time to pass to {@link #end(FramePhase, long)}.
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the duration of a phase.
+	 *
+	 * @param phase     The phase that just ended.
+	 * @param startNanos The value returned by {@link #start()} when the phase began.
+	 */
+	public void end(FramePhase phase, long startNanos) {
+		histograms[phase.ordinal()].record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Publishes the number of live objects at the end of a frame.
+	 *
+	 * @param balls  The number of main balls.
+	 * @param pucks  The number of puck balls.
+	 * @param hearts The number of falling hearts.
+	 * @param bricks The number of bricks left.
+	 */
+	public void setLiveCounts(int balls, int pucks, int hearts, int bricks) {
+		this.liveBalls = balls;
+		this.livePucks = pucks;
+		this.liveHearts = hearts;
+		this.liveBricks = bricks;
+	}
+
+	/**
+	 * @param phase A frame phase.
+	 * @return A snapshot of the phase's latency.
+	 */
+	public PhaseStats stats(FramePhase phase) {
+		LatencyHistogram histogram = histograms[phase.ordinal()];
+		return new PhaseStats(histogram.count(), histogram.percentile(P50),
+				histogram.percentile(P99), histogram.max());
+	}
+
+	@Override
+	public PhaseStats getEngineUpdate() {
+		return stats(FramePhase.ENGINE_UPDATE);
+	}
+
+	@Override
+	public PhaseStats getBrickCollisions() {
+		return stats(FramePhase.BRICK_COLLISIONS);
+	}
+
+	@Override
+	public PhaseStats getApplyCommands() {
+		return stats(FramePhase.APPLY_COMMANDS);
+	}
+
+	@Override
+	public PhaseStats getTurbo() {
+		return stats(FramePhase.TURBO);
+	}
+
+	@Override
+	public PhaseStats getRules() {
+		return stats(FramePhase.RULES);
+	}
+
+	@Override
+	public PhaseStats getRender() {
+		return stats(FramePhase.RENDER);
+	}
+
+	@Override
+	public int getLiveBalls() {
+		return liveBalls;
+	}
+
+	@Override
+	public int getLivePucks() {
+		return livePucks;
+	}
+
+	@Override
+	public int getLiveHearts() {
+		return liveHearts;
+	}
+
+	@Override
+	public int getLiveBricks() {
+		return liveBricks;
+	}
+
+	@Override
+	public void reset() {
+		for (LatencyHistogram histogram : histograms) {
+			histogram.reset();
+		}
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server.
+	 *
+	 * @param name The JMX object name, e.g. {@code bricker:type=FrameMetrics}.
+	 * @throws JMException If the name is invalid or already registered.
+	 */
+	public void register(String name) throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		server.registerMBean(this, new ObjectName(name));
+	}
+
+	/**
+	 * Formats the metrics in the Prometheus text exposition format. Latencies are summaries
+	 * in seconds with 0.5 and 0.99 quantiles; object counts are gauges.
+	 *
+	 * @return The metrics as text.
+	 */
+	public String toPrometheusText() {
+		StringBuilder text = new StringBuilder();
+		String latency = PREFIX + "frame_phase_seconds";
+		text.append("# HELP ").append(latency).append(" Time spent in each phase of a frame.\n");
+		text.append("# TYPE ").append(latency).append(" summary\n");
+		for (FramePhase phase : FramePhase.values()) {
+			PhaseStats stats = stats(phase);
+			String label = "phase=\"" + phase.metricName() + "\"";
+			appendSample(text, latency, label + ",quantile=\"0.5\"", stats.getP50Nanos() / NANOS_PER_SECOND);
+			appendSample(text, latency, label + ",quantile=\"0.99\"", stats.getP99Nanos() / NANOS_PER_SECOND);
+			appendSample(text, latency + "_sum", label,
+					histograms[phase.ordinal()].sum() / NANOS_PER_SECOND);
+			text.append(latency).append("_count{").append(label).append("} ").append(stats.getCount()).append('\n');
+		}
+		String max = PREFIX + "frame_phase_max_seconds";
+		text.append("# HELP ").append(max).append(" Longest time spent in each phase of a frame.\n");
+		text.append("# TYPE ").append(max).append(" gauge\n");
+		for (FramePhase phase : FramePhase.values()) {
+			appendSample(text, max, "phase=\"" + phase.metricName() + "\"",
+					histograms[phase.ordinal()].max() / NANOS_PER_SECOND);
+		}
+		appendGauge(text, "live_balls", "Main balls in play.", liveBalls);
+		appendGauge(text, "live_pucks", "Puck balls in play.", livePucks);
+		appendGauge(text, "live_hearts", "Falling hearts in play.", liveHearts);
+		appendGauge(text, "live_bricks", "Bricks left.", liveBricks);
+		return text.toString();
+	}
+
+	private static void appendGauge(StringBuilder text, String name, String help, int value) {
+		text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+		text.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+		text.append(PREFIX).append(name).append(' ').append(value).append('\n');
+	}
+
+	private static void appendSample(StringBuilder text, String name, String labels, double value) {
+		text.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+	}
+}
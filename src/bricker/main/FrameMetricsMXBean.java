@@ -0,0 +1,64 @@
+package bricker.main;
+
+/**
+ * The JMX view of a game's {@link FrameMetrics}.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public interface FrameMetricsMXBean {
+
+	/**
+	 * @return The latency of the engine's update.
+	 */
+	PhaseStats getEngineUpdate();
+
+	/**
+	 * @return The latency of the brick hits and their strategy callbacks.
+	 */
+	PhaseStats getBrickCollisions();
+
+	/**
+	 * @return The latency of applying the queued collision side effects.
+	 */
+	PhaseStats getApplyCommands();
+
+	/**
+	 * @return The latency of the turbo mode update.
+	 */
+	PhaseStats getTurbo();
+
+	/**
+	 * @return The latency of the life, win and lose checks.
+	 */
+	PhaseStats getRules();
+
+	/**
+	 * @return The latency of rendering.
+	 */
+	PhaseStats getRender();
+
+	/**
+	 * @return The number of main balls in play at the end of the last frame.
+	 */
+	int getLiveBalls();
+
+	/**
+	 * @return The number of puck balls in play at the end of the last frame.
+	 */
+	int getLivePucks();
+
+	/**
+	 * @return The number of falling hearts at the end of the last frame.
+	 */
+	int getLiveHearts();
+
+	/**
+	 * @return The number of bricks left at the end of the last frame.
+	 */
+	int getLiveBricks();
+
+	/**
+	 * Forgets every recorded duration.
+	 */
+	void reset();
+}
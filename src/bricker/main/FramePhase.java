@@ -0,0 +1,30 @@
+package bricker.main;
+
+import java.util.Locale;
+
+/**
+ * The phases a game frame is split into for {@link FrameMetrics}.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public enum FramePhase {
+	/** The engine's own update: movement, physics and collisions between game objects. */
+	ENGINE_UPDATE,
+	/** Ball and puck hits on the brick field, including the strategy callbacks they fire. */
+	BRICK_COLLISIONS,
+	/** Applying the removals, spawns and life changes queued by collisions. */
+	APPLY_COMMANDS,
+	/** The turbo mode update of the main ball. */
+	TURBO,
+	/** The life, win, lose and restart checks. */
+	RULES,
+	/** Drawing the frame. */
+	RENDER;
+
+	/**
+	 * @return The phase name used by the metrics endpoints, in lower snake case.
+	 */
+	public String metricName() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,227 @@
+package bricker.main;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Joins a match hosted by a {@link GameServer}: sends the keys the player holds and keeps a
+ * {@link ReplicatedState} up to date with the frames the server streams back.
+ * <p>
+ * The channel is non-blocking. {@link #poll()} applies whatever complete frames have arrived
+ * and returns at once, so a render loop can call it every frame.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class GameClient implements AutoCloseable {
+
+	private static final int INITIAL_BUFFER_BYTES = 16 * 1024;
+	private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+	private static final int NO_KEYS_PENDING = -1;
+	private static final int HOST_ARG = 0;
+	private static final int PORT_ARG = 1;
+	private static final int SECONDS_ARG = 2;
+	private static final String DEFAULT_HOST = "localhost";
+	private static final long DEFAULT_SECONDS = 30;
+	private static final long POLL_INTERVAL_MILLIS = 5;
+	private static final float AUTOPILOT_DEAD_ZONE = 5;
+
+	private final SocketChannel channel;
+	private final ReplicatedState state = new ReplicatedState();
+	private final ByteBuffer keysOut = ByteBuffer.allocate(1);
+	private ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+	private int pendingKeys = NO_KEYS_PENDING;
+	private long bytesReceived = 0;
+	private long framesReceived = 0;
+
+	private GameClient(SocketChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Connects to a server.
+	 *
+	 * @param address The server's address.
+	 * @return The connected client.
+	 * @throws IOException If the server cannot be reached.
+	 */
+	public static GameClient connect(InetSocketAddress address) throws IOException {
+		SocketChannel channel = SocketChannel.open(address);
+		channel.socket().setTcpNoDelay(true);
+		channel.configureBlocking(false);
+		return new GameClient(channel);
+	}
+
+	/**
+	 * Applies every complete frame that has arrived, without waiting for more.
+	 *
+	 * @return The number of frames applied.
+	 * @throws IOException If the server closed the connection or sent a corrupt frame.
+	 */
+	public int poll() throws IOException {
+		flushKeys();
+		int read;
+		while ((read = channel.read(in)) > 0) {
+			bytesReceived += read;
+			if (!in.hasRemaining()) {
+				break;
+			}
+		}
+		int applied = applyFrames();
+		if (read < 0) {
+			throw new EOFException("The server closed the connection");
+		}
+		return applied;
+	}
+
+	/**
+	 * Tells the server which keys the player holds. Only the latest mask matters, so a mask
+	 * that cannot be written right away replaces any still waiting.
+	 *
+	 * @param mask The key mask, made of the bits of {@link InputLog}.
+	 * @throws IOException If the connection is broken.
+	 */
+	public void sendKeys(int mask) throws IOException {
+		pendingKeys = mask;
+		flushKeys();
+	}
+
+	/**
+	 * @return The match as last received.
+	 */
+	public ReplicatedState state() {
+		return state;
+	}
+
+	/**
+	 * @return The number of bytes received.
+	 */
+	public long getBytesReceived() {
+		return bytesReceived;
+	}
+
+	/**
+	 * @return The number of frames applied.
+	 */
+	public long getFramesReceived() {
+		return framesReceived;
+	}
+
+	/**
+	 * Disconnects from the server.
+	 *
+	 * @throws IOException If the channel cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void flushKeys() throws IOException {
+		if (pendingKeys == NO_KEYS_PENDING) {
+			return;
+		}
+		keysOut.clear();
+		keysOut.put(0, (byte) pendingKeys);
+		if (channel.write(keysOut) > 0) {
+			pendingKeys = NO_KEYS_PENDING;
+		}
+	}
+
+	/**
+	 * Applies the complete frames in the input buffer and keeps the incomplete tail, growing
+	 * the buffer if a single frame does not fit.
+	 */
+	private int applyFrames() throws IOException {
+		in.flip();
+		int applied = 0;
+		while (in.remaining() >= Integer.BYTES) {
+			int length = in.getInt(in.position());
+			if (length <= 0 || length > MAX_FRAME_BYTES) {
+				throw new IOException("Bad frame length " + length);
+			}
+			if (in.remaining() < Integer.BYTES + length) {
+				if (Integer.BYTES + length > in.capacity()) {
+					ByteBuffer larger = ByteBuffer.allocate(Integer.BYTES + length);
+					larger.put(in);
+					in = larger;
+					return applied;
+				}
+				break;
+			}
+			int payloadStart = in.position() + Integer.BYTES;
+			state.apply(in.slice(payloadStart, length));
+			in.position(payloadStart + length);
+			applied++;
+			framesReceived++;
+		}
+		in.compact();
+		return applied;
+	}
+
+	/**
+	 * Joins a match with a bot that keeps the paddle under the ball, and prints what it
+	 * receives once a second.
+	 * <p>
+	 * Usage: {@code [host [port [seconds]]]}.
+	 * </p>
+	 *
+	 * @param args The command line arguments.
+	 * @throws IOException If the server cannot be reached or the connection breaks.
+	 * @throws InterruptedException If interrupted while waiting for frames.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		String host = args.length > HOST_ARG ? args[HOST_ARG] : DEFAULT_HOST;
+		int port = args.length > PORT_ARG ? Integer.parseInt(args[PORT_ARG]) : GameServer.DEFAULT_PORT;
+		long seconds = args.length > SECONDS_ARG ? Long.parseLong(args[SECONDS_ARG]) : DEFAULT_SECONDS;
+		try (GameClient client = connect(new InetSocketAddress(host, port))) {
+			long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+			long nextReport = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+			int heldKeys = 0;
+			while (System.nanoTime() - end < 0) {
+				client.poll();
+				int keys = steer(client.state());
+				if (keys != heldKeys) {
+					client.sendKeys(keys);
+					heldKeys = keys;
+				}
+				if (System.nanoTime() - nextReport >= 0) {
+					ReplicatedState state = client.state();
+					System.out.printf("tick %d, %d lives, %d/%d bricks, %d frames, %.1f bytes/frame%n",
+							state.getTick(), state.getLives(), state.getBricksLeft(), state.getBrickCount(),
+							client.getFramesReceived(), client.getFramesReceived() == 0 ? 0.0
+									: (double) client.getBytesReceived() / client.getFramesReceived());
+					nextReport += TimeUnit.SECONDS.toNanos(1);
+				}
+				Thread.sleep(POLL_INTERVAL_MILLIS);
+			}
+		}
+	}
+
+	/**
+	 * @return The keys that move the user paddle towards the main ball.
+	 */
+	private static int steer(ReplicatedState state) {
+		float ballX = Float.NaN;
+		float paddleX = Float.NaN;
+		for (int id = state.nextEntity(0); id >= 0; id = state.nextEntity(id + 1)) {
+			if (state.kind(id) == StateEncoder.BALL) {
+				ballX = state.x(id);
+			} else if (state.kind(id) == StateEncoder.PADDLE) {
+				paddleX = state.x(id);
+			}
+		}
+		float offset = ballX - paddleX;
+		if (offset < -AUTOPILOT_DEAD_ZONE) {
+			return InputLog.LEFT;
+		}
+		if (offset > AUTOPILOT_DEAD_ZONE) {
+			return InputLog.RIGHT;
+		}
+		return 0;
+	}
+}
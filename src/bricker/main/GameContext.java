@@ -0,0 +1,153 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Paddle;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+
+import java.util.Random;
+
+/**
+ * Holds, once per game, every dependency the collision strategies need.
+ * <p>
+ * Strategies keep a single reference to the context instead of copying each dependency,
+ * which lets one strategy instance be shared by all the bricks of its type.
+ * The context is rebuilt whenever the game is initialized.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class GameContext {
+
+	private final BrickerGameManager gameManager;
+	private final GameObjectCollection gameObjects;
+	private final AssetRegistry assets;
+	private final UserInputListener inputListener;
+	private final Vector2 windowDimensions;
+	private final Random random;
+	private final Ball ball;
+	private final Paddle userPaddle;
+	private final Vector2 puckDimensions;
+	private final int ballSpeed;
+	private final Vector2 paddleDimensions;
+	private final Vector2 heartDimensions;
+
+	/**
+	 * Constructs a game context.
+	 *
+	 * @param gameManager      The game manager, for global game state.
+	 * @param gameObjects      The collection of game objects in the game.
+	 * @param assets           The shared images and sounds.
+	 * @param inputListener    The input listener for user input.
+	 * @param windowDimensions The dimensions of the game window.
+	 * @param random           The session's seeded random source.
+	 * @param ball             The main ball.
+	 * @param userPaddle       The paddle controlled by the user.
+	 * @param puckDimensions   The size of the extra puck balls.
+	 * @param ballSpeed        The speed of the balls.
+	 * @param paddleDimensions The size of the paddles.
+	 * @param heartDimensions  The size of the hearts.
+	 */
+	public GameContext(BrickerGameManager gameManager, GameObjectCollection gameObjects,
+					   AssetRegistry assets, UserInputListener inputListener, Vector2 windowDimensions,
+					   Random random, Ball ball, Paddle userPaddle, Vector2 puckDimensions, int ballSpeed,
+					   Vector2 paddleDimensions, Vector2 heartDimensions) {
+		this.gameManager = gameManager;
+		this.gameObjects = gameObjects;
+		this.assets = assets;
+		this.inputListener = inputListener;
+		this.windowDimensions = windowDimensions;
+		this.random = random;
+		this.ball = ball;
+		this.userPaddle = userPaddle;
+		this.puckDimensions = puckDimensions;
+		this.ballSpeed = ballSpeed;
+		this.paddleDimensions = paddleDimensions;
+		this.heartDimensions = heartDimensions;
+	}
+
+	/**
+	 * @return The game manager.
+	 */
+	public BrickerGameManager gameManager() {
+		return gameManager;
+	}
+
+	/**
+	 * @return The collection of game objects in the game.
+	 */
+	public GameObjectCollection gameObjects() {
+		return gameObjects;
+	}
+
+	/**
+	 * @return The shared images and sounds.
+	 */
+	public AssetRegistry assets() {
+		return assets;
+	}
+
+	/**
+	 * @return The input listener for user input.
+	 */
+	public UserInputListener inputListener() {
+		return inputListener;
+	}
+
+	/**
+	 * @return The dimensions of the game window.
+	 */
+	public Vector2 windowDimensions() {
+		return windowDimensions;
+	}
+
+	/**
+	 * @return The session's seeded random source, shared by every random decision of the game.
+	 */
+	public Random random() {
+		return random;
+	}
+
+	/**
+	 * @return The main ball.
+	 */
+	public Ball ball() {
+		return ball;
+	}
+
+	/**
+	 * @return The paddle controlled by the user.
+	 */
+	public Paddle userPaddle() {
+		return userPaddle;
+	}
+
+	/**
+	 * @return The size of the extra puck balls.
+	 */
+	public Vector2 puckDimensions() {
+		return puckDimensions;
+	}
+
+	/**
+	 * @return The speed of the balls.
+	 */
+	public int ballSpeed() {
+		return ballSpeed;
+	}
+
+	/**
+	 * @return The size of the paddles.
+	 */
+	public Vector2 paddleDimensions() {
+		return paddleDimensions;
+	}
+
+	/**
+	 * @return The size of the hearts.
+	 */
+	public Vector2 heartDimensions() {
+		return heartDimensions;
+	}
+}
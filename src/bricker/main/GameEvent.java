@@ -0,0 +1,65 @@
+package bricker.main;
+
+/**
+ * A read-only view of one event on the {@link GameEventBus}.
+ * <p>
+ * The bus and every cursor own a single instance that is refilled for each event they
+ * deliver, so handing events to handlers never allocates.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class GameEvent {
+
+	private long sequence;
+	private GameEventType type;
+	private int value;
+	private float x;
+	private float y;
+
+	/**
+	 * Refills the view.
+	 */
+	void set(long sequence, GameEventType type, int value, float x, float y) {
+		this.sequence = sequence;
+		this.type = type;
+		this.value = value;
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * @return The position of the event on the bus, counting from 0.
+	 */
+	public long sequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return The kind of the event.
+	 */
+	public GameEventType type() {
+		return type;
+	}
+
+	/**
+	 * @return The event's count, as described by its {@link GameEventType}, or 0.
+	 */
+	public int value() {
+		return value;
+	}
+
+	/**
+	 * @return The x-coordinate of the center of the object the event is about, or 0.
+	 */
+	public float x() {
+		return x;
+	}
+
+	/**
+	 * @return The y-coordinate of the center of the object the event is about, or 0.
+	 */
+	public float y() {
+		return y;
+	}
+}
@@ -0,0 +1,192 @@
+package bricker.main;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A preallocated ring buffer of game events, published by the game thread.
+ * <p>
+ * Events are stored in parallel primitive arrays, one slot per sequence number modulo the
+ * capacity, so publishing writes a few array elements and never allocates. There are two
+ * ways to consume them:
+ * <ul>
+ *     <li>{@link #subscribe} registers a handler that runs on the game thread right after each
+ *     event is published. Such handlers see every event; the game's own bookkeeping (the
+ *     brick, life and extra paddle counters) is one of them.</li>
+ *     <li>{@link #cursor()} returns an independent reader for another thread (analytics,
+ *     exporters). A cursor polls at its own pace and never slows the game down: the
+ *     publisher does not wait for it, and a cursor that falls a full ring behind skips
+ *     the overwritten events and counts them as lost.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Each slot carries the sequence of the event it holds. The publisher invalidates the slot,
+ * writes the fields and then publishes the sequence, and a cursor re-checks the sequence
+ * after reading the fields, so it never delivers a half-overwritten event.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class GameEventBus {
+
+	/** The default number of events the ring holds. */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	private static final long INVALID = -1;
+
+	private final int mask;
+	private final byte[] types;
+	private final int[] values;
+	private final float[] xs;
+	private final float[] ys;
+	private final AtomicLongArray slotSequences;
+	private final AtomicLong published = new AtomicLong(INVALID);
+	private final GameEvent event = new GameEvent();
+	private GameEventHandler[] handlers = new GameEventHandler[0];
+	private long next = 0;
+
+	/**
+	 * Constructs an empty bus.
+	 *
+	 * @param capacity The number of events the ring holds, rounded up to a power of two.
+	 */
+	public GameEventBus(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		int size = Math.max(Integer.highestOneBit(capacity - 1) << 1, 1);
+		this.mask = size - 1;
+		this.types = new byte[size];
+		this.values = new int[size];
+		this.xs = new float[size];
+		this.ys = new float[size];
+		this.slotSequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			slotSequences.set(i, INVALID);
+		}
+	}
+
+	/**
+	 * Registers a handler that is called on the game thread for every event published from now on,
+	 * after the handlers registered before it.
+	 *
+	 * @param handler The handler.
+	 */
+	public void subscribe(GameEventHandler handler) {
+		handlers = Arrays.copyOf(handlers, handlers.length + 1);
+		handlers[handlers.length - 1] = handler;
+	}
+
+	/**
+	 * Publishes an event that is not about a particular object. Game thread only.
+	 *
+	 * @param type  The kind of the event.
+	 * @param value The event's count, or 0.
+	 */
+	public void publish(GameEventType type, int value) {
+		publish(type, value, 0, 0);
+	}
+
+	/**
+	 * Publishes an event and hands it to the subscribed handlers. Game thread only.
+	 *
+	 * @param type  The kind of the event.
+	 * @param value The event's count, or 0.
+	 * @param x     The x-coordinate of the object's center, or 0.
+	 * @param y     The y-coordinate of the object's center, or 0.
+	 */
+	public void publish(GameEventType type, int value, float x, float y) {
+		long sequence = next++;
+		int slot = (int) sequence & mask;
+		slotSequences.set(slot, INVALID);
+		VarHandle.storeStoreFence();
+		types[slot] = (byte) type.ordinal();
+		values[slot] = value;
+		xs[slot] = x;
+		ys[slot] = y;
+		slotSequences.setRelease(slot, sequence);
+		published.setRelease(sequence);
+		if (handlers.length > 0) {
+			event.set(sequence, type, value, x, y);
+			for (GameEventHandler handler : handlers) {
+				handler.onEvent(event);
+			}
+		}
+	}
+
+	/**
+	 * @return The number of events published so far.
+	 */
+	public long publishedCount() {
+		return published.get() + 1;
+	}
+
+	/**
+	 * Creates a reader that starts with the next event to be published.
+	 *
+	 * @return The cursor.
+	 */
+	public Cursor cursor() {
+		return new Cursor(published.get() + 1);
+	}
+
+	/**
+	 * Reads the bus from another thread, at its own pace. A cursor must only be used by one thread.
+	 */
+	public class Cursor {
+		private final GameEvent cursorEvent = new GameEvent();
+		private long nextSequence;
+		private long lost = 0;
+
+		private Cursor(long nextSequence) {
+			this.nextSequence = nextSequence;
+		}
+
+		/**
+		 * Delivers the events published since the last poll, oldest first.
+		 *
+		 * @param handler   Receives the events.
+		 * @param maxEvents The maximum number of events to deliver.
+		 * @return The number of events delivered.
+		 */
+		public int poll(GameEventHandler handler, int maxEvents) {
+			long last = published.getAcquire();
+			int delivered = 0;
+			while (delivered < maxEvents && nextSequence <= last) {
+				if (last - nextSequence > mask) {
+					long skipTo = last - mask;
+					lost += skipTo - nextSequence;
+					nextSequence = skipTo;
+				}
+				int slot = (int) nextSequence & mask;
+				if (slotSequences.getAcquire(slot) != nextSequence) {
+					last = published.getAcquire(); // overwritten meanwhile: catch up and retry
+					continue;
+				}
+				byte type = types[slot];
+				int value = values[slot];
+				float x = xs[slot];
+				float y = ys[slot];
+				VarHandle.loadLoadFence();
+				if (slotSequences.getOpaque(slot) != nextSequence) {
+					last = published.getAcquire();
+					continue;
+				}
+				cursorEvent.set(nextSequence, GameEventType.of(type), value, x, y);
+				nextSequence++;
+				handler.onEvent(cursorEvent);
+				delivered++;
+			}
+			return delivered;
+		}
+
+		/**
+		 * @return The number of events this cursor skipped because it fell a full ring behind.
+		 */
+		public long lost() {
+			return lost;
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package bricker.main;
+
+/**
+ * Receives the events of a {@link GameEventBus}.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public interface GameEventHandler {
+	/**
+	 * Called once for every event. The event object is reused for the next event, so handlers
+	 * must copy whatever they want to keep rather than keep the object itself.
+	 *
+	 * @param event The event.
+	 */
+	void onEvent(GameEvent event);
+}
@@ -0,0 +1,45 @@
+package bricker.main;
+
+/**
+ * The kinds of events published on the {@link GameEventBus}.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public enum GameEventType {
+	/** A brick was removed from play. The value is the brick's id in the brick field, or -1. */
+	BRICK_DESTROYED,
+	/** A puck ball entered the game. */
+	PUCK_SPAWNED,
+	/** A puck ball left the screen and returned to its pool. */
+	PUCK_LOST,
+	/** A falling heart was dropped. */
+	HEART_SPAWNED,
+	/** A falling heart was caught by the paddle or fell off-screen, and returned to its pool. */
+	HEART_DESPAWNED,
+	/** A falling heart was caught: the player gains a life, up to the maximum. */
+	LIFE_GAINED,
+	/** The main ball fell off-screen. The value is the number of lives after the change. */
+	LIFE_LOST,
+	/** An extra paddle entered the game. */
+	EXTRA_PADDLE_ADDED,
+	/** The extra paddle used up its hits and left the game. */
+	EXTRA_PADDLE_REMOVED,
+	/** The main ball entered turbo mode. */
+	TURBO_STARTED,
+	/** The main ball left turbo mode. */
+	TURBO_ENDED,
+	/** The game was restarted in place. */
+	GAME_RESTARTED;
+
+	private static final GameEventType[] VALUES = values();
+
+	/**
+	 * Returns the type with the given ordinal, without allocating.
+	 *
+	 * @param ordinal The ordinal.
+	 * @return The type.
+	 */
+	public static GameEventType of(int ordinal) {
+		return VALUES[ordinal];
+	}
+}
@@ -0,0 +1,63 @@
+package bricker.main;
+
+import java.util.Random;
+
+/**
+ * The game's random source: a {@link Random} whose internal state can be read and set.
+ * <p>
+ * It draws exactly the same numbers as {@code java.util.Random} seeded the same way, but
+ * keeps the generator's 48-bit state in a plain field, so a game snapshot can record it and
+ * a restored game continues the very same sequence of random decisions.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class GameRandom extends Random {
+
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+	private static final int STATE_BITS = 48;
+
+	private long state;
+
+	/**
+	 * Constructs a generator with a random seed.
+	 */
+	public GameRandom() {
+		super();
+	}
+
+	/**
+	 * Reseeds the generator, exactly like {@link Random#setSeed(long)}.
+	 *
+	 * @param seed The seed.
+	 */
+	@Override
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed);
+		state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	/**
+	 * @return The generator's internal state.
+	 */
+	public synchronized long getState() {
+		return state;
+	}
+
+	/**
+	 * Puts the generator back into a state returned by {@link #getState()}.
+	 *
+	 * @param state The internal state.
+	 */
+	public synchronized void setState(long state) {
+		this.state = state & MASK;
+	}
+
+	@Override
+	protected synchronized int next(int bits) {
+		state = (state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (state >>> (STATE_BITS - bits));
+	}
+}
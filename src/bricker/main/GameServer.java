@@ -0,0 +1,451 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.ExtraPaddle;
+import bricker.gameobjects.FallingHeart;
+import bricker.gameobjects.Paddle;
+import bricker.gameobjects.PuckBall;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hosts a shared match: runs the real Bricker rules in a {@link HeadlessRunner} and streams
+ * the match to any number of {@link GameClient}s over non-blocking NIO channels.
+ * <p>
+ * Everything runs on one thread. A selector accepts clients, reads their input and writes
+ * what they are owed while waiting for the next tick. Each byte a client sends is the key
+ * mask it holds ({@link InputLog#LEFT}, {@link InputLog#RIGHT}, {@link InputLog#RESTART});
+ * the shared paddle moves the way most clients press, and the game restarts if any client
+ * asks to. A win or a loss restarts it too, so a match only ends when the server is stopped
+ * or runs out of ticks.
+ * </p>
+ * <p>
+ * After every tick the state is encoded once by a {@link StateEncoder}, as a delta against
+ * the previous tick, and the same frame is queued for every client. Brick removals come from
+ * the game's {@link GameEventBus}. A client that just joined, or whose unsent deltas pile up
+ * past a limit, has its queue dropped and is sent a keyframe instead, so a slow client costs
+ * bounded memory and never holds up the others. A keyframe is always queued, whatever its
+ * size, after the frames it supersedes are dropped. A restart sends everyone a keyframe.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class GameServer implements AutoCloseable {
+
+	/** The default port. */
+	public static final int DEFAULT_PORT = 7447;
+
+	private static final int MAX_PENDING_BYTES = 64 * 1024;
+	private static final int INPUT_BUFFER_BYTES = 64;
+	private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final long DEFAULT_MAX_TICKS = Long.MAX_VALUE;
+	private static final int PORT_ARG = 2;
+	private static final int SEED_ARG = 3;
+
+	private final HeadlessRunner runner;
+	private final BrickerGameManager game;
+	private final BrickField field;
+	private final StateEncoder encoder;
+	private final Selector selector;
+	private final ServerSocketChannel serverChannel;
+	private final List<Client> clients = new ArrayList<>();
+	private final ByteBuffer input = ByteBuffer.allocate(INPUT_BUFFER_BYTES);
+	private final long tickNanos;
+	private volatile boolean running = true;
+	private boolean resyncAll = false;
+	private long bytesSent = 0;
+	private long framesSent = 0;
+	private long keyframesSent = 0;
+
+	/**
+	 * Starts a match and listens for clients.
+	 *
+	 * @param args    The game's command line arguments (rows and bricks per row).
+	 * @param seed    The seed of the match.
+	 * @param address The address to listen on; port 0 picks any free port.
+	 * @throws IOException If the address cannot be bound.
+	 */
+	public GameServer(String[] args, long seed, InetSocketAddress address) throws IOException {
+		this.runner = new HeadlessRunner(args, false, seed);
+		this.runner.getWindowController().setPlayAgain(true);
+		this.runner.start();
+		this.game = runner.getGame();
+		this.field = game.getBrickField();
+		this.encoder = new StateEncoder(field.size());
+		this.tickNanos = Math.round(HeadlessRunner.FIXED_DELTA_TIME * NANOS_PER_SECOND);
+		game.getEvents().subscribe(this::onGameEvent);
+		encodeTick();
+		this.selector = Selector.open();
+		this.serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(address);
+		serverChannel.configureBlocking(false);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+	}
+
+	/**
+	 * @return The port the server listens on.
+	 */
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	/**
+	 * Runs the match in real time, one tick per {@link HeadlessRunner#FIXED_DELTA_TIME}, until
+	 * the tick limit is reached or the server is stopped.
+	 *
+	 * @param maxTicks The maximum number of ticks to run.
+	 * @throws IOException If the selector fails.
+	 */
+	public void run(long maxTicks) throws IOException {
+		long nextTick = System.nanoTime();
+		while (running && runner.getTicks() < maxTicks) {
+			long wait = nextTick - System.nanoTime();
+			if (wait > 0) {
+				selector.select(Math.max(1, wait / NANOS_PER_MILLI));
+			} else {
+				selector.selectNow();
+			}
+			handleReadyChannels();
+			clients.removeIf(client -> client.closed);
+			if (System.nanoTime() - nextTick >= 0) {
+				if (!tick()) {
+					break;
+				}
+				nextTick += tickNanos;
+			}
+		}
+	}
+
+	/**
+	 * Runs one tick with the clients' current input and queues its frame for every client.
+	 *
+	 * @return true if the match is still running after this tick.
+	 */
+	public boolean tick() {
+		runner.applyKeys(combinedKeys());
+		boolean stillRunning = runner.step();
+		ByteBuffer delta = encodeTick();
+		broadcast(delta);
+		clients.removeIf(client -> client.closed);
+		return stillRunning;
+	}
+
+	/**
+	 * Makes {@link #run} return after the current tick. May be called from any thread.
+	 */
+	public void stop() {
+		running = false;
+		selector.wakeup();
+	}
+
+	/**
+	 * Disconnects every client and stops listening. Call on the thread that ran the match,
+	 * once {@link #run} returned.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		for (Client client : clients) {
+			closeQuietly(client.channel);
+		}
+		clients.clear();
+		closeQuietly(serverChannel);
+		try {
+			selector.close();
+		} catch (IOException e) {
+			// nothing left to release
+		}
+	}
+
+	/**
+	 * @return The number of connected clients.
+	 */
+	public int getClientCount() {
+		return clients.size();
+	}
+
+	/**
+	 * @return The number of ticks run so far.
+	 */
+	public long getTicks() {
+		return runner.getTicks();
+	}
+
+	/**
+	 * @return The number of bytes written to all clients.
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	/**
+	 * @return The number of frames queued for all clients.
+	 */
+	public long getFramesSent() {
+		return framesSent;
+	}
+
+	/**
+	 * @return The number of keyframes among the frames queued.
+	 */
+	public long getKeyframesSent() {
+		return keyframesSent;
+	}
+
+	private void onGameEvent(GameEvent event) {
+		if (event.type() == GameEventType.BRICK_DESTROYED) {
+			encoder.brickRemoved(event.value());
+		} else if (event.type() == GameEventType.GAME_RESTARTED) {
+			resyncAll = true;
+		}
+	}
+
+	/**
+	 * Feeds the encoder the current state and encodes it as a delta.
+	 */
+	private ByteBuffer encodeTick() {
+		encoder.beginTick(runner.getTicks(), game.getNumLives());
+		for (GameObject object : game.gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			byte kind;
+			if (object instanceof PuckBall) {
+				kind = StateEncoder.PUCK;
+			} else if (object instanceof Ball) {
+				kind = StateEncoder.BALL;
+			} else if (object instanceof ExtraPaddle) {
+				kind = StateEncoder.EXTRA_PADDLE;
+			} else if (object instanceof Paddle) {
+				kind = StateEncoder.PADDLE;
+			} else if (object instanceof FallingHeart) {
+				kind = StateEncoder.HEART;
+			} else {
+				continue;
+			}
+			Vector2 center = object.getCenter();
+			encoder.entity(object, kind, center.x(), center.y());
+		}
+		return encoder.endTick();
+	}
+
+	private void broadcast(ByteBuffer delta) {
+		ByteBuffer keyframe = null;
+		for (Client client : clients) {
+			if (client.closed) {
+				continue;
+			}
+			ByteBuffer frame = delta;
+			if (resyncAll || client.needsKeyframe) {
+				if (keyframe == null) {
+					keyframe = encoder.keyframe(field::isAlive);
+				}
+				frame = keyframe;
+				client.needsKeyframe = false;
+				keyframesSent++;
+			}
+			queue(client, frame.duplicate(), frame == keyframe);
+		}
+		resyncAll = false;
+	}
+
+	/**
+	 * Queues a frame for a client and writes as much as the channel takes. A keyframe replaces
+	 * every frame still waiting and is always queued. A delta that would take the queue over
+	 * the limit is dropped together with the waiting frames, and the client gets a keyframe on
+	 * the next tick.
+	 */
+	private void queue(Client client, ByteBuffer frame, boolean keyframe) {
+		if (keyframe) {
+			dropWaitingFrames(client);
+		} else if (client.pendingBytes + frame.remaining() > MAX_PENDING_BYTES) {
+			dropWaitingFrames(client);
+			client.needsKeyframe = true;
+			return;
+		}
+		client.pending.add(frame);
+		client.pendingBytes += frame.remaining();
+		framesSent++;
+		flush(client);
+	}
+
+	/**
+	 * Drops a client's queued frames, except one it has started receiving: a frame cut short
+	 * would corrupt the stream.
+	 */
+	private void dropWaitingFrames(Client client) {
+		ByteBuffer head = client.pending.peekFirst();
+		boolean headStarted = head != null && head.position() > 0;
+		client.pending.clear();
+		client.pendingBytes = 0;
+		if (headStarted) {
+			client.pending.add(head);
+			client.pendingBytes = head.remaining();
+		}
+	}
+
+	private void flush(Client client) {
+		if (client.closed) {
+			return;
+		}
+		try {
+			while (!client.pending.isEmpty()) {
+				ByteBuffer head = client.pending.peekFirst();
+				int written = client.channel.write(head);
+				bytesSent += written;
+				client.pendingBytes -= written;
+				if (head.hasRemaining()) {
+					break;
+				}
+				client.pending.removeFirst();
+			}
+			client.key.interestOps(client.pending.isEmpty()
+					? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+		} catch (IOException e) {
+			disconnect(client);
+		}
+	}
+
+	private void handleReadyChannels() throws IOException {
+		for (SelectionKey key : selector.selectedKeys()) {
+			if (!key.isValid()) {
+				continue;
+			}
+			if (key.isAcceptable()) {
+				accept();
+				continue;
+			}
+			Client client = (Client) key.attachment();
+			if (key.isReadable() && !client.closed) {
+				readInput(client);
+			}
+			if (key.isValid() && key.isWritable() && !client.closed) {
+				flush(client);
+			}
+		}
+		selector.selectedKeys().clear();
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel;
+		while ((channel = serverChannel.accept()) != null) {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			Client client = new Client(channel);
+			client.key = channel.register(selector, SelectionKey.OP_READ, client);
+			clients.add(client);
+		}
+	}
+
+	/**
+	 * Reads the key masks a client sent; the last one is what it holds now.
+	 */
+	private void readInput(Client client) {
+		try {
+			int read;
+			while ((read = client.channel.read(input.clear())) > 0) {
+				client.keys = input.get(read - 1);
+			}
+			if (read < 0) {
+				disconnect(client);
+			}
+		} catch (IOException e) {
+			disconnect(client);
+		}
+	}
+
+	/**
+	 * Closes a client's channel. The client is dropped from the list once the current pass over
+	 * the clients is done.
+	 */
+	private void disconnect(Client client) {
+		client.closed = true;
+		client.key.cancel();
+		closeQuietly(client.channel);
+	}
+
+	/**
+	 * @return The key mask of the shared paddle: the direction most clients press, and a
+	 * restart if any client asks for one.
+	 */
+	private int combinedKeys() {
+		int left = 0;
+		int right = 0;
+		int restart = 0;
+		for (Client client : clients) {
+			if (client.closed) {
+				continue;
+			}
+			if ((client.keys & InputLog.LEFT) != 0) left++;
+			if ((client.keys & InputLog.RIGHT) != 0) right++;
+			restart |= client.keys & InputLog.RESTART;
+		}
+		int mask = restart;
+		if (left > right) {
+			mask |= InputLog.LEFT;
+		} else if (right > left) {
+			mask |= InputLog.RIGHT;
+		}
+		return mask;
+	}
+
+	private static void closeQuietly(Channel channel) {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// already gone
+		}
+	}
+
+	/**
+	 * A connected client: its channel, the frames it is still owed and the keys it holds.
+	 */
+	private static class Client {
+		private final SocketChannel channel;
+		private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+		private SelectionKey key;
+		private int pendingBytes = 0;
+		private int keys = 0;
+		private boolean needsKeyframe = true;
+		private boolean closed = false;
+
+		Client(SocketChannel channel) {
+			this.channel = channel;
+		}
+	}
+
+	/**
+	 * Hosts a match and prints its bandwidth when it ends.
+	 * <p>
+	 * Usage: {@code rows bricks [port [seed]]}. Connect with {@link GameClient#main}.
+	 * </p>
+	 *
+	 * @param args The command line arguments.
+	 * @throws IOException If the port cannot be bound.
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > PORT_ARG ? Integer.parseInt(args[PORT_ARG]) : DEFAULT_PORT;
+		long seed = args.length > SEED_ARG ? Long.parseLong(args[SEED_ARG]) : new Random().nextLong();
+		try (GameServer server = new GameServer(args, seed, new InetSocketAddress(port))) {
+			System.out.printf("Serving on port %d, seed %d%n", server.getPort(), seed);
+			server.run(DEFAULT_MAX_TICKS);
+			System.out.printf("Match over after %d ticks: %d frames (%d keyframes), %d bytes, %.1f bytes/frame%n",
+					server.getTicks(), server.getFramesSent(), server.getKeyframesSent(), server.getBytesSent(),
+					server.getFramesSent() == 0 ? 0.0 : (double) server.getBytesSent() / server.getFramesSent());
+		}
+	}
+}
@@ -0,0 +1,332 @@
+package bricker.main;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.FactoryDoubleStrategy;
+import bricker.brick_strategies.TurboModeStrategy;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.ExtraPaddle;
+import bricker.gameobjects.FallingHeart;
+import bricker.gameobjects.PuckBall;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact, versioned binary image of a game session, taken with
+ * {@link BrickerGameManager#snapshot()} and put back with {@link BrickerGameManager#restore}.
+ * <p>
+ * A snapshot holds everything that decides how the session goes on: the random source's
+ * state, lives and counters, the ball (position, velocity, collision counter), the user
+ * paddle, the turbo mode, every brick's liveness and strategy tree, and every puck, falling
+ * heart and extra paddle in play. It does not hold the level layout itself, which comes from
+ * the game's arguments or level file, nor sounds, images or the engine's own bookkeeping.
+ * Snapshots are taken between frames, when no collision side effects are pending.
+ * </p>
+ * <p>
+ * Layout (big-endian): magic, version, random state, lives, lives lost, bricks left, extra
+ * paddles, the brick count of every {@link BrickType}; the ball and the user paddle (top-left
+ * corner and velocity as floats) and the ball's collision counter; the turbo state (active
+ * flag, collision counter at start, original velocity); the strategy table (entry count,
+ * then each entry as its length and a prefix-coded tree, see {@link FactoryDoubleStrategy#decode});
+ * the brick count, the liveness bitset as longs and a table index per brick (short); finally
+ * the count of dynamic objects, each as a kind byte, top-left corner, velocity and an int
+ * (a puck's collision counter, an extra paddle's hit count, or 0 for a heart).
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class GameSnapshot {
+
+	private static final int MAGIC = 0x42534E50; // "BSNP"
+	private static final byte VERSION = 1;
+	private static final byte PUCK = 0;
+	private static final byte HEART = 1;
+	private static final byte EXTRA_PADDLE = 2;
+	private static final int INITIAL_BYTES = 1024;
+	private static final int BITS_PER_WORD = 64;
+	private static final int UNSIGNED_BYTE_MASK = 0xFF;
+	private static final int UNSIGNED_SHORT_MASK = 0xFFFF;
+	private static final float HALF = 0.5f;
+
+	private final byte[] data;
+
+	private GameSnapshot(byte[] data) {
+		this.data = data;
+	}
+
+	/**
+	 * Reads a snapshot from its bytes, as returned by {@link #toByteArray()}.
+	 *
+	 * @param data The snapshot's bytes.
+	 * @return The snapshot.
+	 * @throws IOException If the bytes are not a snapshot of a supported version.
+	 */
+	public static GameSnapshot fromBytes(byte[] data) throws IOException {
+		ByteBuffer in = ByteBuffer.wrap(data);
+		if (data.length < Integer.BYTES + 1 || in.getInt() != MAGIC) {
+			throw new IOException("Not a Bricker snapshot");
+		}
+		byte version = in.get();
+		if (version != VERSION) {
+			throw new IOException("Unsupported snapshot version " + version);
+		}
+		return new GameSnapshot(data.clone());
+	}
+
+	/**
+	 * Reads a snapshot from a file.
+	 *
+	 * @param path The file to read.
+	 * @return The snapshot.
+	 * @throws IOException If the file cannot be read or is not a snapshot.
+	 */
+	public static GameSnapshot load(Path path) throws IOException {
+		return fromBytes(Files.readAllBytes(path));
+	}
+
+	/**
+	 * Writes the snapshot to a file.
+	 *
+	 * @param path The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(Path path) throws IOException {
+		Files.write(path, data);
+	}
+
+	/**
+	 * @return A copy of the snapshot's bytes.
+	 */
+	public byte[] toByteArray() {
+		return data.clone();
+	}
+
+	/**
+	 * @return The size of the snapshot, in bytes.
+	 */
+	public int size() {
+		return data.length;
+	}
+
+	/**
+	 * Captures the state of a game.
+	 *
+	 * @param game The game, between frames and with its level fully loaded.
+	 * @return The snapshot.
+	 */
+	static GameSnapshot capture(BrickerGameManager game) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BYTES);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeLong(game.getRandom().getState());
+			out.writeInt(game.getNumLives());
+			out.writeInt(game.getLivesLost());
+			out.writeInt(game.getBricksLeft());
+			out.writeInt(game.getExtraPaddlesCount());
+			for (int count : game.getBricksPerType()) {
+				out.writeInt(count);
+			}
+			Ball ball = game.getBall();
+			writeBody(out, ball);
+			out.writeInt(ball.getCollisionCounter());
+			writeBody(out, game.getUserPaddle());
+			TurboModeStrategy turbo = game.getTurboStrategy();
+			Vector2 originalVelocity = turbo.getOriginalVelocity();
+			out.writeBoolean(turbo.isActive());
+			out.writeInt(turbo.getCollisionsAtStart());
+			writeVector(out, originalVelocity != null ? originalVelocity : Vector2.ZERO);
+			writeBricks(out, game.getBrickField(), game.getStrategyFactory());
+			writeDynamicObjects(out, game);
+			out.flush();
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot write a snapshot in memory", e);
+		}
+		return new GameSnapshot(bytes.toByteArray());
+	}
+
+	/**
+	 * Puts a game into the captured state. The game's dynamic objects must already be removed.
+	 *
+	 * @param game The game, initialized with the same level layout as the captured one.
+	 * @throws IllegalArgumentException If the snapshot does not match the game's level or is corrupt.
+	 */
+	void restoreInto(BrickerGameManager game) {
+		ByteBuffer in = ByteBuffer.wrap(data);
+		try {
+			in.getInt(); // magic and version were checked on creation
+			in.get();
+			game.getRandom().setState(in.getLong());
+			int numLives = in.getInt();
+			int livesLost = in.getInt();
+			int bricksLeft = in.getInt();
+			int extraPaddles = in.getInt();
+			game.setCounters(numLives, livesLost, bricksLeft, extraPaddles);
+			int[] bricksPerType = game.getBricksPerType();
+			for (int i = 0; i < bricksPerType.length; i++) {
+				bricksPerType[i] = in.getInt();
+			}
+			Ball ball = game.getBall();
+			readBody(in, ball);
+			ball.setCollisionCounter(in.getInt());
+			readBody(in, game.getUserPaddle());
+			boolean turboActive = in.get() != 0;
+			int turboCollisionsAtStart = in.getInt();
+			Vector2 turboOriginalVelocity = readVector(in);
+			game.getTurboStrategy().restore(turboActive, turboCollisionsAtStart, turboOriginalVelocity);
+			readBricks(in, game.getBrickField(), game.getStrategyFactory());
+			readDynamicObjects(in, game);
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("Truncated snapshot", e);
+		}
+	}
+
+	private static void writeBricks(DataOutputStream out, BrickField field, FactoryDoubleStrategy factory)
+			throws IOException {
+		Map<CollisionStrategy, Integer> tableIndex = new IdentityHashMap<>();
+		List<byte[]> table = new ArrayList<>();
+		int size = field.size();
+		short[] indices = new short[size];
+		for (int id = 0; id < size; id++) {
+			CollisionStrategy strategy = field.strategy(id);
+			Integer index = tableIndex.get(strategy);
+			if (index == null) {
+				index = table.size();
+				table.add(factory.encode(strategy));
+				tableIndex.put(strategy, index);
+			}
+			indices[id] = index.shortValue();
+		}
+		out.writeShort(table.size());
+		for (byte[] code : table) {
+			out.writeByte(code.length);
+			out.write(code);
+		}
+		out.writeInt(size);
+		for (int word = 0; word * BITS_PER_WORD < size; word++) {
+			long bits = 0;
+			int end = Math.min(size, (word + 1) * BITS_PER_WORD);
+			for (int id = word * BITS_PER_WORD; id < end; id++) {
+				if (field.isAlive(id)) {
+					bits |= 1L << id;
+				}
+			}
+			out.writeLong(bits);
+		}
+		for (short index : indices) {
+			out.writeShort(index);
+		}
+	}
+
+	private static void readBricks(ByteBuffer in, BrickField field, FactoryDoubleStrategy factory) {
+		CollisionStrategy[] table = new CollisionStrategy[in.getShort() & UNSIGNED_SHORT_MASK];
+		for (int i = 0; i < table.length; i++) {
+			byte[] code = new byte[in.get() & UNSIGNED_BYTE_MASK];
+			in.get(code);
+			table[i] = factory.decode(ByteBuffer.wrap(code));
+		}
+		int size = in.getInt();
+		if (size != field.size()) {
+			throw new IllegalArgumentException("Snapshot has " + size + " bricks, the level has " + field.size());
+		}
+		long[] alive = new long[(size + BITS_PER_WORD - 1) / BITS_PER_WORD];
+		for (int word = 0; word < alive.length; word++) {
+			alive[word] = in.getLong();
+		}
+		for (int id = 0; id < size; id++) {
+			field.revive(id, table[in.getShort() & UNSIGNED_SHORT_MASK]);
+			if ((alive[id / BITS_PER_WORD] & (1L << id)) == 0) {
+				field.remove(id);
+			}
+		}
+	}
+
+	private static void writeDynamicObjects(DataOutputStream out, BrickerGameManager game) throws IOException {
+		List<GameObject> dynamicObjects = new ArrayList<>();
+		for (GameObject object : game.gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			if (object instanceof PuckBall || object instanceof FallingHeart || object instanceof ExtraPaddle) {
+				dynamicObjects.add(object);
+			}
+		}
+		out.writeInt(dynamicObjects.size());
+		for (GameObject object : dynamicObjects) {
+			if (object instanceof PuckBall) {
+				out.writeByte(PUCK);
+				writeBody(out, object);
+				out.writeInt(((PuckBall) object).getCollisionCounter());
+			} else if (object instanceof FallingHeart) {
+				out.writeByte(HEART);
+				writeBody(out, object);
+				out.writeInt(0);
+			} else {
+				out.writeByte(EXTRA_PADDLE);
+				writeBody(out, object);
+				out.writeInt(((ExtraPaddle) object).getHitCount());
+			}
+		}
+	}
+
+	private static void readDynamicObjects(ByteBuffer in, BrickerGameManager game) {
+		int count = in.getInt();
+		for (int i = 0; i < count; i++) {
+			byte kind = in.get();
+			Vector2 topLeft = readVector(in);
+			Vector2 velocity = readVector(in);
+			int extra = in.getInt();
+			GameObject object;
+			if (kind == PUCK) {
+				PuckBall puck = game.getPuckPool().acquire();
+				puck.reset(topLeft.add(puck.getDimensions().mult(HALF)), velocity);
+				puck.setCollisionCounter(extra);
+				object = puck;
+			} else if (kind == HEART) {
+				FallingHeart heart = game.getHeartPool().acquire();
+				heart.reset(topLeft, velocity);
+				object = heart;
+			} else if (kind == EXTRA_PADDLE) {
+				ExtraPaddle paddle = game.createExtraPaddle();
+				paddle.setTopLeftCorner(topLeft);
+				paddle.setVelocity(velocity);
+				paddle.setHitCount(extra);
+				object = paddle;
+			} else {
+				throw new IllegalArgumentException("Unknown object kind " + kind + " in snapshot");
+			}
+			game.gameObjects().addGameObject(object, Layer.DEFAULT);
+		}
+	}
+
+	private static void writeBody(DataOutputStream out, GameObject object) throws IOException {
+		writeVector(out, object.getTopLeftCorner());
+		writeVector(out, object.getVelocity());
+	}
+
+	private static void readBody(ByteBuffer in, GameObject object) {
+		object.setTopLeftCorner(readVector(in));
+		object.setVelocity(readVector(in));
+	}
+
+	private static void writeVector(DataOutputStream out, Vector2 vector) throws IOException {
+		out.writeFloat(vector.x());
+		out.writeFloat(vector.y());
+	}
+
+	private static Vector2 readVector(ByteBuffer in) {
+		float x = in.getFloat();
+		return new Vector2(x, in.getFloat());
+	}
+}
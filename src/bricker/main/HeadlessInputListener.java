@@ -0,0 +1,94 @@
+package bricker.main;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link UserInputListener} whose keys are pressed and released programmatically,
+ * used to drive the paddle when the game runs without a window.
+ * <p>
+ * Keys pressed since the last call to {@link #endFrame()} are reported by
+ * {@link #wasKeyPressedThisFrame(int)}, matching the per-frame semantics of the engine.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class HeadlessInputListener implements UserInputListener {
+
+	private final Set<Integer> pressedKeys = new HashSet<>();
+	private final Set<Integer> pressedThisFrame = new HashSet<>();
+	private final Set<Integer> releasedThisFrame = new HashSet<>();
+
+	/**
+	 * Presses a key.
+	 *
+	 * @param keyCode The {@link java.awt.event.KeyEvent} code of the key.
+	 */
+	public void press(int keyCode) {
+		if (pressedKeys.add(keyCode)) {
+			pressedThisFrame.add(keyCode);
+		}
+	}
+
+	/**
+	 * Releases a key.
+	 *
+	 * @param keyCode The {@link java.awt.event.KeyEvent} code of the key.
+	 */
+	public void release(int keyCode) {
+		if (pressedKeys.remove(keyCode)) {
+			releasedThisFrame.add(keyCode);
+		}
+	}
+
+	/**
+	 * Clears the per-frame pressed and released keys. Called once after every tick.
+	 */
+	public void endFrame() {
+		pressedThisFrame.clear();
+		releasedThisFrame.clear();
+	}
+
+	@Override
+	public boolean isKeyPressed(int keyCode) {
+		return pressedKeys.contains(keyCode);
+	}
+
+	@Override
+	public Set<Integer> pressedKeys() {
+		return pressedKeys;
+	}
+
+	@Override
+	public boolean wasKeyPressedThisFrame(int keyCode) {
+		return pressedThisFrame.contains(keyCode);
+	}
+
+	@Override
+	public boolean wasKeyReleasedThisFrame(int keyCode) {
+		return releasedThisFrame.contains(keyCode);
+	}
+
+	@Override
+	public boolean isMouseButtonPressed(int button) {
+		return false;
+	}
+
+	@Override
+	public boolean wasMouseButtonPressedThisFrame(int button) {
+		return false;
+	}
+
+	@Override
+	public boolean wasMouseButtonReleasedThisFrame(int button) {
+		return false;
+	}
+
+	@Override
+	public Vector2 getMousePos() {
+		return Vector2.ZERO;
+	}
+}
@@ -0,0 +1,301 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Paddle;
+import danogl.util.Vector2;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Runs the real Bricker rules without a window, dialogs or rendering, at a fixed
+ * timestep and as fast as the CPU allows.
+ * <p>
+ * The game manager is initialized with a {@link HeadlessWindowController} and a
+ * {@link HeadlessInputListener} and then advanced tick by tick. The session ends when the
+ * rules would have asked to play again (win or loss) or when the tick limit is reached.
+ * An optional autopilot keeps the user paddle under the main ball.
+ * </p>
+ * <p>
+ * Every session is seeded. The keys held on each tick can be recorded into an
+ * {@link InputLog}, and a runner created with {@link #replaying(InputLog)} feeds them back,
+ * reproducing the recorded session exactly and as fast as the CPU allows.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class HeadlessRunner {
+
+	/** The default fixed simulation timestep, in seconds. */
+	public static final float FIXED_DELTA_TIME = 1f / 60;
+
+	private static final int WIDTH_WINDOW = 700;
+	private static final int HEIGHT_WINDOW = 500;
+	private static final long DEFAULT_MAX_TICKS = 1_000_000;
+	private static final int MAX_TICKS_ARG = 2;
+	private static final int SEED_ARG = 3;
+	private static final int LOG_ARG = 4;
+	private static final int REPLAY_FILE_ARG = 1;
+	private static final String REPLAY_FLAG = "--replay";
+	private static final float AUTOPILOT_DEAD_ZONE = 5;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final String TITLE = "Bricker (headless)";
+
+	private final BrickerGameManager game;
+	private final HeadlessWindowController windowController;
+	private final HeadlessInputListener inputListener;
+	private final boolean autopilot;
+	private final String[] args;
+	private final long seed;
+	private float timestep = FIXED_DELTA_TIME;
+	private InputLog recording;
+	private InputLog.Cursor replay;
+	private long ticks = 0;
+
+	/**
+	 * Constructs a runner for a single session with a random seed.
+	 *
+	 * @param args      The game's command line arguments (rows and bricks per row).
+	 * @param autopilot Whether the user paddle should follow the main ball.
+	 */
+	public HeadlessRunner(String[] args, boolean autopilot) {
+		this(args, autopilot, new Random().nextLong());
+	}
+
+	/**
+	 * Constructs a runner for a single session.
+	 *
+	 * @param args      The game's command line arguments (rows and bricks per row).
+	 * @param autopilot Whether the user paddle should follow the main ball.
+	 * @param seed      The seed of every random decision in the session.
+	 */
+	public HeadlessRunner(String[] args, boolean autopilot, long seed) {
+		Vector2 windowDimensions = new Vector2(WIDTH_WINDOW, HEIGHT_WINDOW);
+		this.game = new BrickerGameManager(TITLE, windowDimensions, args);
+		this.game.setSeed(seed);
+		this.game.setPhysicsStep(timestep);
+		this.windowController = new HeadlessWindowController(windowDimensions);
+		this.inputListener = new HeadlessInputListener();
+		this.autopilot = autopilot;
+		this.args = args.clone();
+		this.seed = seed;
+	}
+
+	/**
+	 * Creates a runner that replays a recorded session. The session ends when the log runs out.
+	 *
+	 * @param log The recorded session.
+	 * @return A runner with the recorded seed and arguments, driven by the recorded keys.
+	 */
+	public static HeadlessRunner replaying(InputLog log) {
+		HeadlessRunner runner = new HeadlessRunner(log.getArgs(), false, log.getSeed());
+		runner.setTimestep(log.getTimestep());
+		runner.replay = log.cursor();
+		return runner;
+	}
+
+	/**
+	 * Starts recording the keys held on every following tick. Call before the first step
+	 * to record a replayable session.
+	 *
+	 * @return The log the ticks are recorded into.
+	 */
+	public InputLog startRecording() {
+		recording = new InputLog(seed, timestep, args);
+		return recording;
+	}
+
+	/**
+	 * Builds the game world. Must be called once before stepping.
+	 */
+	public void start() {
+		game.initializeGame(null, null, inputListener, windowController);
+	}
+
+	/**
+	 * Advances the game by one fixed timestep.
+	 *
+	 * @return true if the session is still running after this tick.
+	 */
+	public boolean step() {
+		if (windowController.isClosed()) {
+			return false;
+		}
+		if (replay != null) {
+			if (!replay.hasNext()) {
+				return false;
+			}
+			applyKeys(replay.next());
+		} else if (autopilot) {
+			steerPaddle();
+		}
+		if (recording != null) {
+			recording.record(currentKeys());
+		}
+		game.update(timestep);
+		inputListener.endFrame();
+		ticks++;
+		return !windowController.isClosed();
+	}
+
+	/**
+	 * Steps until the session ends or the tick limit is reached.
+	 *
+	 * @param maxTicks The maximum number of ticks to run.
+	 */
+	public void run(long maxTicks) {
+		while (ticks < maxTicks && step()) {
+			// keep stepping
+		}
+	}
+
+	/**
+	 * Sets the simulation timestep, which is also the game's physics step, so every tick runs
+	 * exactly one physics step. Ball collisions are swept, so coarse steps (a few times
+	 * the default) stay correct and simulate a session in fewer ticks. Must be called before
+	 * {@link #startRecording()} for the recording to use it.
+	 *
+	 * @param timestep The timestep, in seconds.
+	 */
+	public void setTimestep(float timestep) {
+		this.timestep = timestep;
+		game.setPhysicsStep(timestep);
+	}
+
+	/**
+	 * @return The seed of the session.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return The number of ticks run so far.
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return true if the session has ended.
+	 */
+	public boolean isFinished() {
+		return windowController.isClosed();
+	}
+
+	/**
+	 * @return true if all the bricks were cleared.
+	 */
+	public boolean isWon() {
+		return game.getBricksLeft() == 0;
+	}
+
+	/**
+	 * @return The game manager driven by this runner.
+	 */
+	public BrickerGameManager getGame() {
+		return game;
+	}
+
+	/**
+	 * @return The window controller answering the game's dialogs.
+	 */
+	public HeadlessWindowController getWindowController() {
+		return windowController;
+	}
+
+	/**
+	 * @return The input listener driving the user paddle.
+	 */
+	public HeadlessInputListener getInputListener() {
+		return inputListener;
+	}
+
+	/**
+	 * Presses left or right so the user paddle moves towards the main ball.
+	 */
+	private void steerPaddle() {
+		Ball ball = game.getBall();
+		Paddle paddle = game.getUserPaddle();
+		float offset = ball.getCenter().x() - paddle.getCenter().x();
+		inputListener.release(KeyEvent.VK_LEFT);
+		inputListener.release(KeyEvent.VK_RIGHT);
+		if (offset < -AUTOPILOT_DEAD_ZONE) {
+			inputListener.press(KeyEvent.VK_LEFT);
+		} else if (offset > AUTOPILOT_DEAD_ZONE) {
+			inputListener.press(KeyEvent.VK_RIGHT);
+		}
+	}
+
+	/**
+	 * @return The key mask of the keys currently held down.
+	 */
+	private int currentKeys() {
+		int mask = 0;
+		if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) mask |= InputLog.LEFT;
+		if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) mask |= InputLog.RIGHT;
+		if (inputListener.isKeyPressed(KeyEvent.VK_W)) mask |= InputLog.RESTART;
+		return mask;
+	}
+
+	/**
+	 * Presses exactly the keys of a mask, which stay held until the next call. Used by replays
+	 * and by the {@link GameServer}, which drives the paddle with its clients' keys.
+	 *
+	 * @param mask The key mask, made of the bits of {@link InputLog}.
+	 */
+	public void applyKeys(int mask) {
+		setKey(KeyEvent.VK_LEFT, (mask & InputLog.LEFT) != 0);
+		setKey(KeyEvent.VK_RIGHT, (mask & InputLog.RIGHT) != 0);
+		setKey(KeyEvent.VK_W, (mask & InputLog.RESTART) != 0);
+	}
+
+	private void setKey(int keyCode, boolean pressed) {
+		if (pressed) {
+			inputListener.press(keyCode);
+		} else {
+			inputListener.release(keyCode);
+		}
+	}
+
+	/**
+	 * Runs one headless session and prints its outcome and throughput.
+	 * <p>
+	 * Usage: {@code rows bricks [maxTicks [seed [logFile]]]} runs a session with the autopilot,
+	 * recording it into {@code logFile} when given; {@code --replay logFile} replays a recorded
+	 * session.
+	 * </p>
+	 *
+	 * @param args The command line arguments.
+	 * @throws IOException If the input log cannot be read or written.
+	 */
+	public static void main(String[] args) throws IOException {
+		HeadlessRunner runner;
+		InputLog recording = null;
+		long maxTicks = DEFAULT_MAX_TICKS;
+		if (args.length > REPLAY_FILE_ARG && REPLAY_FLAG.equals(args[0])) {
+			InputLog log = InputLog.load(Path.of(args[REPLAY_FILE_ARG]));
+			runner = replaying(log);
+			maxTicks = log.getTicks();
+		} else {
+			if (args.length > MAX_TICKS_ARG) maxTicks = Long.parseLong(args[MAX_TICKS_ARG]);
+			runner = args.length > SEED_ARG
+					? new HeadlessRunner(args, true, Long.parseLong(args[SEED_ARG]))
+					: new HeadlessRunner(args, true);
+			if (args.length > LOG_ARG) recording = runner.startRecording();
+		}
+		runner.start();
+		long startTime = System.nanoTime();
+		runner.run(maxTicks);
+		if (recording != null) {
+			recording.save(Path.of(args[LOG_ARG]));
+		}
+		double seconds = (System.nanoTime() - startTime) / NANOS_PER_SECOND;
+		System.out.printf("%s after %d ticks (%.0f ticks/s), seed %d, %d lives left, %d bricks left%n",
+				runner.isFinished() ? (runner.isWon() ? "Won" : "Lost") : "Stopped",
+				runner.getTicks(), runner.getTicks() / seconds, runner.getSeed(),
+				runner.getGame().getNumLives(), runner.getGame().getBricksLeft());
+	}
+}
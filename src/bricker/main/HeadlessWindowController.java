@@ -0,0 +1,120 @@
+package bricker.main;
+
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+/**
+ * A {@link WindowController} for running the game without a window.
+ * <p>
+ * Dialogs are never shown. By default every yes/no question is answered "no", so the game
+ * ends (and {@link #closeWindow()} is called) the first time the rules would have asked the
+ * player whether to play again; {@link #setPlayAgain} makes it answer "yes" instead, so the
+ * game restarts in place. The last question asked is kept so the runner can tell how the
+ * session ended.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class HeadlessWindowController implements WindowController {
+
+	private final Vector2 windowDimensions;
+	private int targetFramerate;
+	private boolean closed = false;
+	private boolean playAgain = false;
+	private String lastDialog;
+
+	/**
+	 * Constructs a headless window controller.
+	 *
+	 * @param windowDimensions The dimensions of the simulated window.
+	 */
+	public HeadlessWindowController(Vector2 windowDimensions) {
+		this.windowDimensions = windowDimensions;
+	}
+
+	/**
+	 * @return The dimensions of the simulated window.
+	 */
+	@Override
+	public Vector2 getWindowDimensions() {
+		return windowDimensions;
+	}
+
+	/**
+	 * Records the question and answers it as set by {@link #setPlayAgain} ("no" by default).
+	 *
+	 * @param msg The question that would have been shown.
+	 * @return true to play again, false to end the game.
+	 */
+	@Override
+	public boolean openYesNoDialog(String msg) {
+		this.lastDialog = msg;
+		return playAgain;
+	}
+
+	/**
+	 * Records the message instead of showing it.
+	 *
+	 * @param msg The message that would have been shown.
+	 */
+	@Override
+	public void showMessageBox(String msg) {
+		this.lastDialog = msg;
+	}
+
+	/**
+	 * Marks the session as finished.
+	 */
+	@Override
+	public void closeWindow() {
+		this.closed = true;
+	}
+
+	/**
+	 * Restarting is driven by the runner, so this does nothing.
+	 */
+	@Override
+	public void resetGame() {
+	}
+
+	/**
+	 * Stores the framerate; headless runs are paced by the runner's fixed timestep instead.
+	 *
+	 * @param targetFramerate The requested framerate.
+	 */
+	@Override
+	public void setTargetFramerate(int targetFramerate) {
+		this.targetFramerate = targetFramerate;
+	}
+
+	/**
+	 * @return The last framerate that was set.
+	 */
+	@Override
+	public int getTargetFramerate() {
+		return targetFramerate;
+	}
+
+	/**
+	 * Sets how the game's yes/no questions are answered.
+	 *
+	 * @param playAgain true to answer "yes" and play again, false to answer "no" and end the game.
+	 */
+	public void setPlayAgain(boolean playAgain) {
+		this.playAgain = playAgain;
+	}
+
+	/**
+	 * @return true once the game asked to close the window.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return The last dialog message the game tried to show, or null if none.
+	 */
+	public String getLastDialog() {
+		return lastDialog;
+	}
+}
@@ -0,0 +1,254 @@
+package bricker.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A compact binary record of a session: its seed, its timestep, its command line arguments and
+ * the keys held down on every tick.
+ * <p>
+ * The keys of a tick are packed into a one-byte mask ({@link #LEFT}, {@link #RIGHT},
+ * {@link #RESTART}) and consecutive ticks with the same mask are run-length encoded, so a
+ * paddle held still or moving in one direction costs a couple of bytes no matter how long
+ * it lasts. Since the session's seed drives every random decision of the game, replaying
+ * the log through a {@link HeadlessRunner} reproduces the session tick for tick.
+ * </p>
+ * <p>
+ * File layout: magic, version, seed, timestep, argument count and arguments, run count,
+ * then every run as its mask byte followed by its length as an unsigned varint.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class InputLog {
+
+	/** Mask bit of the left arrow key. */
+	public static final int LEFT = 1;
+	/** Mask bit of the right arrow key. */
+	public static final int RIGHT = 1 << 1;
+	/** Mask bit of the W key, which asks to restart the game. */
+	public static final int RESTART = 1 << 2;
+
+	private static final int MAGIC = 0x42524B52; // "BRKR"
+	private static final byte VERSION = 2;
+	private static final int INITIAL_RUNS = 64;
+	private static final int VARINT_PAYLOAD_BITS = 7;
+	private static final int VARINT_PAYLOAD_MASK = 0x7F;
+	private static final int VARINT_CONTINUE = 0x80;
+
+	private final long seed;
+	private final float timestep;
+	private final String[] args;
+	private byte[] runMasks = new byte[INITIAL_RUNS];
+	private int[] runLengths = new int[INITIAL_RUNS];
+	private int runCount = 0;
+	private long ticks = 0;
+
+	/**
+	 * Constructs an empty log for a session.
+	 *
+	 * @param seed     The seed of the session.
+	 * @param timestep The simulation timestep of the session, in seconds.
+	 * @param args     The game's command line arguments (rows and bricks per row).
+	 */
+	public InputLog(long seed, float timestep, String[] args) {
+		this.seed = seed;
+		this.timestep = timestep;
+		this.args = args.clone();
+	}
+
+	/**
+	 * Appends the keys held down during one tick.
+	 *
+	 * @param mask The key mask of the tick.
+	 */
+	public void record(int mask) {
+		if (runCount > 0 && runMasks[runCount - 1] == (byte) mask
+				&& runLengths[runCount - 1] < Integer.MAX_VALUE) {
+			runLengths[runCount - 1]++;
+		} else {
+			if (runCount == runMasks.length) {
+				runMasks = Arrays.copyOf(runMasks, runCount * 2);
+				runLengths = Arrays.copyOf(runLengths, runCount * 2);
+			}
+			runMasks[runCount] = (byte) mask;
+			runLengths[runCount] = 1;
+			runCount++;
+		}
+		ticks++;
+	}
+
+	/**
+	 * @return The seed of the recorded session.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return The simulation timestep of the recorded session, in seconds.
+	 */
+	public float getTimestep() {
+		return timestep;
+	}
+
+	/**
+	 * @return The game's command line arguments of the recorded session.
+	 */
+	public String[] getArgs() {
+		return args.clone();
+	}
+
+	/**
+	 * @return The number of recorded ticks.
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return A cursor reading the recorded masks from the first tick.
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Writes the log to a file.
+	 *
+	 * @param path The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(Path path) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+			writeTo(out);
+		}
+	}
+
+	/**
+	 * Reads a log from a file.
+	 *
+	 * @param path The file to read.
+	 * @return The log.
+	 * @throws IOException If the file cannot be read or is not an input log.
+	 */
+	public static InputLog load(Path path) throws IOException {
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+			return readFrom(in);
+		}
+	}
+
+	/**
+	 * Writes the log to a stream. The stream is flushed but not closed.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException If writing fails.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeByte(VERSION);
+		data.writeLong(seed);
+		data.writeFloat(timestep);
+		data.writeByte(args.length);
+		for (String arg : args) {
+			data.writeUTF(arg);
+		}
+		data.writeInt(runCount);
+		for (int i = 0; i < runCount; i++) {
+			data.writeByte(runMasks[i]);
+			writeVarint(data, runLengths[i]);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Reads a log from a stream.
+	 *
+	 * @param in The stream to read from.
+	 * @return The log.
+	 * @throws IOException If reading fails or the stream does not hold an input log.
+	 */
+	public static InputLog readFrom(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC) {
+			throw new IOException("Not a Bricker input log");
+		}
+		byte version = data.readByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported input log version " + version);
+		}
+		long seed = data.readLong();
+		float timestep = data.readFloat();
+		String[] args = new String[data.readUnsignedByte()];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = data.readUTF();
+		}
+		InputLog log = new InputLog(seed, timestep, args);
+		int runCount = data.readInt();
+		log.runMasks = new byte[Math.max(runCount, 1)];
+		log.runLengths = new int[Math.max(runCount, 1)];
+		for (int i = 0; i < runCount; i++) {
+			log.runMasks[i] = data.readByte();
+			log.runLengths[i] = readVarint(data);
+			log.ticks += log.runLengths[i];
+		}
+		log.runCount = runCount;
+		return log;
+	}
+
+	private static void writeVarint(DataOutputStream data, int value) throws IOException {
+		while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+			data.writeByte((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUE);
+			value >>>= VARINT_PAYLOAD_BITS;
+		}
+		data.writeByte(value);
+	}
+
+	private static int readVarint(DataInputStream data) throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = data.readUnsignedByte();
+			value |= (b & VARINT_PAYLOAD_MASK) << shift;
+			shift += VARINT_PAYLOAD_BITS;
+		} while ((b & VARINT_CONTINUE) != 0);
+		return value;
+	}
+
+	/**
+	 * Reads the recorded masks tick by tick.
+	 */
+	public class Cursor {
+		private int run = 0;
+		private int usedInRun = 0;
+
+		/**
+		 * @return true if there are ticks left to replay.
+		 */
+		public boolean hasNext() {
+			return run < runCount;
+		}
+
+		/**
+		 * @return The key mask of the next tick.
+		 */
+		public int next() {
+			int mask = runMasks[run];
+			if (++usedInRun == runLengths[run]) {
+				run++;
+				usedInRun = 0;
+			}
+			return mask;
+		}
+	}
+}
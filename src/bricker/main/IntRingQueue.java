@@ -0,0 +1,96 @@
+package bricker.main;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free queue of ints with any number of producers and a single consumer.
+ * <p>
+ * Every slot carries a sequence number telling whether it is free for the producer at a
+ * given position or holds a value for the consumer. Producers claim positions with a
+ * compare-and-set on the tail and publish the value by advancing the slot's sequence; the
+ * consumer owns the head outright. Neither side ever blocks or allocates: a producer facing
+ * a full queue simply gets {@code false} back.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class IntRingQueue {
+
+	/** Returned by {@link #poll()} when the queue is empty. */
+	public static final int EMPTY = -1;
+
+	private final int mask;
+	private final int[] values;
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail = new AtomicLong();
+	private long head = 0;
+
+	/**
+	 * Constructs an empty queue.
+	 *
+	 * @param capacity The number of values the queue holds, rounded up to a power of two.
+	 */
+	public IntRingQueue(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity - 1) << 1;
+		size = Math.max(size, 1);
+		this.mask = size - 1;
+		this.values = new int[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Adds a value. Safe to call from any thread.
+	 *
+	 * @param value The value, which must not be {@link #EMPTY}.
+	 * @return true if the value was added, false if the queue was full.
+	 */
+	public boolean offer(int value) {
+		long position = tail.get();
+		while (true) {
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					values[index] = value;
+					sequences.set(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				return false;
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Removes the oldest value. Must only be called from the consumer thread.
+	 *
+	 * @return The value, or {@link #EMPTY} if the queue is empty.
+	 */
+	public int poll() {
+		int index = (int) head & mask;
+		if (sequences.get(index) != head + 1) {
+			return EMPTY;
+		}
+		int value = values[index];
+		sequences.set(index, head + mask + 1);
+		head++;
+		return value;
+	}
+
+	/**
+	 * @return true if the consumer has nothing to poll. Must only be called from the consumer thread.
+	 */
+	public boolean isEmpty() {
+		return sequences.get((int) head & mask) != head + 1;
+	}
+}
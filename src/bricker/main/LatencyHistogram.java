@@ -0,0 +1,117 @@
+package bricker.main;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, allocation-free histogram of durations in nanoseconds.
+ * <p>
+ * Buckets are log-linear: every power of two is split into {@link #SUB_BUCKETS} equal
+ * sub-buckets, so any recorded value lands in a bucket at most 1/{@value #SUB_BUCKETS} wider
+ * than itself. Recording is a couple of shifts and one atomic increment; it is meant to be
+ * called from the game thread every frame while other threads read percentiles.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAGNITUDES = Long.SIZE - SUB_BUCKET_BITS;
+	private static final int BUCKETS = (MAGNITUDES + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records one duration.
+	 *
+	 * @param nanos The duration in nanoseconds. Negative values are recorded as 0.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(nanos, 0);
+		counts.incrementAndGet(bucketOf(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		if (value > max.get()) {
+			max.accumulateAndGet(value, Math::max);
+		}
+	}
+
+	/**
+	 * @return The number of recorded durations.
+	 */
+	public long count() {
+		return count.get();
+	}
+
+	/**
+	 * @return The total of the recorded durations, in nanoseconds.
+	 */
+	public long sum() {
+		return sum.get();
+	}
+
+	/**
+	 * @return The longest recorded duration, in nanoseconds.
+	 */
+	public long max() {
+		return max.get();
+	}
+
+	/**
+	 * Estimates a percentile from the buckets.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 * @return The upper bound of the bucket holding the percentile, in nanoseconds,
+	 * or 0 if nothing was recorded.
+	 */
+	public long percentile(double percentile) {
+		long total = count.get();
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += counts.get(bucket);
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(bucket), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Forgets every recorded duration.
+	 */
+	public void reset() {
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			counts.set(bucket, 0);
+		}
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	private static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+		int subBucket = (int) (value >>> (magnitude - 1)) - SUB_BUCKETS;
+		return magnitude * SUB_BUCKETS + subBucket;
+	}
+
+	private static long upperBoundOf(int bucket) {
+		int magnitude = bucket / SUB_BUCKETS;
+		int subBucket = bucket % SUB_BUCKETS;
+		if (magnitude == 0) {
+			return subBucket;
+		}
+		return ((long) (SUB_BUCKETS + subBucket + 1) << (magnitude - 1)) - 1;
+	}
+}
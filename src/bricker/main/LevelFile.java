@@ -0,0 +1,335 @@
+package bricker.main;
+
+import bricker.brick_strategies.FactoryDoubleStrategy;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only, memory-mapped Bricker level, as written by {@link LevelWriter}.
+ * <p>
+ * Opening a level reads its header: the grid layout, the brick counts, the strategy
+ * table and the chunk table. The brick records stay in the mapped file until a
+ * {@link LevelLoader} copies them into the game's brick field chunk by chunk, so even
+ * multi-megabyte levels open without building a single brick.
+ * </p>
+ * <p>
+ * A level is checked when it is opened, so a damaged or hand-edited file is rejected up front
+ * instead of failing while its bricks stream in: the chunks must lie within the bricks, in
+ * file order and without overlapping, and every brick must refer to an entry of the strategy
+ * table.
+ * </p>
+ * <p>
+ * Layout (big-endian):
+ * <ul>
+ *     <li>Header: magic, version, brick count, grid origin and cell size (floats), grid rows
+ *     and columns, and the number of bricks of each {@link BrickType}.</li>
+ *     <li>Strategy table: entry count, then each entry as its length in bytes followed by a
+ *     prefix-coded strategy tree (see {@link FactoryDoubleStrategy#decode}).</li>
+ *     <li>Chunk table: chunk count, then each chunk as its bounding box (four floats), its first
+ *     brick index and its brick count.</li>
+ *     <li>Bricks: x, y, width and height (floats) and the strategy table index (short).</li>
+ * </ul>
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class LevelFile {
+
+	/** Identifies a level file ("BLVL"). */
+	static final int MAGIC = 0x424C564C;
+	/** The format version written and understood by this code. */
+	static final byte VERSION = 1;
+	/** The size of one brick record, in bytes. */
+	static final int BRICK_RECORD_BYTES = 4 * Float.BYTES + Short.BYTES;
+	/** The number of floats in a chunk's bounding box. */
+	static final int BOUNDS_PER_CHUNK = 4;
+
+	private static final int UNSIGNED_BYTE_MASK = 0xFF;
+	private static final int UNSIGNED_SHORT_MASK = 0xFFFF;
+	private static final int Y_OFFSET = Float.BYTES;
+	private static final int WIDTH_OFFSET = 2 * Float.BYTES;
+	private static final int HEIGHT_OFFSET = 3 * Float.BYTES;
+	private static final int STRATEGY_OFFSET = 4 * Float.BYTES;
+
+	private final MappedByteBuffer buffer;
+	private final int brickCount;
+	private final float gridOriginX;
+	private final float gridOriginY;
+	private final float cellWidth;
+	private final float cellHeight;
+	private final int gridRows;
+	private final int gridCols;
+	private final int[] bricksPerType = new int[BrickType.values().length];
+	private final byte[][] strategyCodes;
+	private final float[] chunkBounds;
+	private final int[] chunkFirstBrick;
+	private final int[] chunkSize;
+	private final int bricksOffset;
+
+	private LevelFile(MappedByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		try {
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("Not a Bricker level file");
+			}
+			byte version = buffer.get();
+			if (version != VERSION) {
+				throw new IOException("Unsupported level version " + version);
+			}
+			brickCount = checkCount(buffer.getInt(), "brick");
+			gridOriginX = buffer.getFloat();
+			gridOriginY = buffer.getFloat();
+			cellWidth = buffer.getFloat();
+			cellHeight = buffer.getFloat();
+			gridRows = buffer.getInt();
+			gridCols = buffer.getInt();
+			for (int i = 0; i < bricksPerType.length; i++) {
+				bricksPerType[i] = buffer.getInt();
+			}
+			strategyCodes = new byte[checkCount(buffer.getInt(), "strategy")][];
+			for (int i = 0; i < strategyCodes.length; i++) {
+				strategyCodes[i] = new byte[buffer.get() & UNSIGNED_BYTE_MASK];
+				buffer.get(strategyCodes[i]);
+			}
+			int chunkCount = checkCount(buffer.getInt(), "chunk");
+			chunkBounds = new float[chunkCount * BOUNDS_PER_CHUNK];
+			chunkFirstBrick = new int[chunkCount];
+			chunkSize = new int[chunkCount];
+			for (int i = 0; i < chunkCount; i++) {
+				for (int j = 0; j < BOUNDS_PER_CHUNK; j++) {
+					chunkBounds[i * BOUNDS_PER_CHUNK + j] = buffer.getFloat();
+				}
+				chunkFirstBrick[i] = buffer.getInt();
+				chunkSize[i] = buffer.getInt();
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated level file", e);
+		}
+		bricksOffset = buffer.position();
+		if ((long) bricksOffset + (long) brickCount * BRICK_RECORD_BYTES > buffer.capacity()) {
+			throw new IOException("Truncated level file");
+		}
+		checkChunks();
+		checkStrategies();
+	}
+
+	/**
+	 * @param count A count read from the header.
+	 * @param what  What is counted, for the error message.
+	 * @return The count.
+	 * @throws IOException If the count is negative.
+	 */
+	private static int checkCount(int count, String what) throws IOException {
+		if (count < 0) {
+			throw new IOException("Negative " + what + " count in level file: " + count);
+		}
+		return count;
+	}
+
+	/**
+	 * Checks that the chunks lie within the bricks, in file order and without overlapping.
+	 *
+	 * @throws IOException If a chunk does not.
+	 */
+	private void checkChunks() throws IOException {
+		long end = 0;
+		for (int i = 0; i < chunkSize.length; i++) {
+			if (chunkFirstBrick[i] < end) {
+				throw new IOException("Level chunk " + i + " overlaps the chunk before it");
+			}
+			if (chunkSize[i] < 0 || (long) chunkFirstBrick[i] + chunkSize[i] > brickCount) {
+				throw new IOException("Level chunk " + i + " lies outside the " + brickCount + " bricks");
+			}
+			end = (long) chunkFirstBrick[i] + chunkSize[i];
+		}
+	}
+
+	/**
+	 * Checks that every brick refers to an entry of the strategy table.
+	 *
+	 * @throws IOException If a brick does not.
+	 */
+	private void checkStrategies() throws IOException {
+		for (int brick = 0; brick < brickCount; brick++) {
+			int strategy = brickStrategy(brick);
+			if (strategy >= strategyCodes.length) {
+				throw new IOException("Level brick " + brick + " refers to strategy " + strategy
+						+ " of " + strategyCodes.length);
+			}
+		}
+	}
+
+	/**
+	 * Maps a level file and reads its header.
+	 *
+	 * @param path The level file.
+	 * @return The opened level.
+	 * @throws IOException If the file cannot be read or is not a valid level.
+	 */
+	public static LevelFile open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return new LevelFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * @return The number of bricks in the level.
+	 */
+	public int brickCount() {
+		return brickCount;
+	}
+
+	/**
+	 * @param type A brick type.
+	 * @return The number of bricks of that type in the level.
+	 */
+	public int brickCount(BrickType type) {
+		return bricksPerType[type.ordinal()];
+	}
+
+	/**
+	 * @return The x-coordinate of the grid's top-left corner.
+	 */
+	public float gridOriginX() {
+		return gridOriginX;
+	}
+
+	/**
+	 * @return The y-coordinate of the grid's top-left corner.
+	 */
+	public float gridOriginY() {
+		return gridOriginY;
+	}
+
+	/**
+	 * @return The width of a grid cell.
+	 */
+	public float cellWidth() {
+		return cellWidth;
+	}
+
+	/**
+	 * @return The height of a grid cell.
+	 */
+	public float cellHeight() {
+		return cellHeight;
+	}
+
+	/**
+	 * @return The number of grid rows.
+	 */
+	public int gridRows() {
+		return gridRows;
+	}
+
+	/**
+	 * @return The number of grid columns.
+	 */
+	public int gridCols() {
+		return gridCols;
+	}
+
+	/**
+	 * @return The number of entries in the strategy table.
+	 */
+	public int strategyCount() {
+		return strategyCodes.length;
+	}
+
+	/**
+	 * @param index A strategy table index.
+	 * @return The prefix-coded strategy tree of the entry, ready to be decoded.
+	 */
+	public ByteBuffer strategyCode(int index) {
+		return ByteBuffer.wrap(strategyCodes[index]).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @return The number of chunks the bricks are grouped into.
+	 */
+	public int chunkCount() {
+		return chunkSize.length;
+	}
+
+	/**
+	 * Tests whether a chunk's bounding box overlaps a box.
+	 *
+	 * @param chunk The chunk index.
+	 * @param minX  The left edge of the box.
+	 * @param minY  The top edge of the box.
+	 * @param maxX  The right edge of the box.
+	 * @param maxY  The bottom edge of the box.
+	 * @return true if they overlap.
+	 */
+	public boolean chunkOverlaps(int chunk, float minX, float minY, float maxX, float maxY) {
+		int base = chunk * BOUNDS_PER_CHUNK;
+		return chunkBounds[base] < maxX && minX < chunkBounds[base + 2]
+				&& chunkBounds[base + 1] < maxY && minY < chunkBounds[base + 3];
+	}
+
+	/**
+	 * @param chunk The chunk index.
+	 * @return The index of the chunk's first brick.
+	 */
+	public int chunkFirstBrick(int chunk) {
+		return chunkFirstBrick[chunk];
+	}
+
+	/**
+	 * @param chunk The chunk index.
+	 * @return The number of bricks in the chunk.
+	 */
+	public int chunkSize(int chunk) {
+		return chunkSize[chunk];
+	}
+
+	/**
+	 * @param brick The brick index.
+	 * @return The x-coordinate of the brick's top-left corner.
+	 */
+	public float brickX(int brick) {
+		return buffer.getFloat(recordOffset(brick));
+	}
+
+	/**
+	 * @param brick The brick index.
+	 * @return The y-coordinate of the brick's top-left corner.
+	 */
+	public float brickY(int brick) {
+		return buffer.getFloat(recordOffset(brick) + Y_OFFSET);
+	}
+
+	/**
+	 * @param brick The brick index.
+	 * @return The width of the brick.
+	 */
+	public float brickWidth(int brick) {
+		return buffer.getFloat(recordOffset(brick) + WIDTH_OFFSET);
+	}
+
+	/**
+	 * @param brick The brick index.
+	 * @return The height of the brick.
+	 */
+	public float brickHeight(int brick) {
+		return buffer.getFloat(recordOffset(brick) + HEIGHT_OFFSET);
+	}
+
+	/**
+	 * @param brick The brick index.
+	 * @return The strategy table index of the brick.
+	 */
+	public int brickStrategy(int brick) {
+		return buffer.getShort(recordOffset(brick) + STRATEGY_OFFSET) & UNSIGNED_SHORT_MASK;
+	}
+
+	private int recordOffset(int brick) {
+		return bricksOffset + brick * BRICK_RECORD_BYTES;
+	}
+}
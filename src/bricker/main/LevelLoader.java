@@ -0,0 +1,91 @@
+package bricker.main;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.FactoryDoubleStrategy;
+import bricker.gameobjects.BrickField;
+
+/**
+ * Streams the bricks of a {@link LevelFile} into a game's {@link BrickField}, one chunk at a time.
+ * <p>
+ * The game starts as soon as the first chunks are in; the rest are loaded a few per frame.
+ * A chunk is also loaded right away when a ball is about to touch its bounding box, so a ball
+ * never passes through a brick that has not been loaded yet. Every brick is put at its index in
+ * the file, so brick ids do not depend on the order the chunks were loaded in.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class LevelLoader implements BrickField.Loader {
+
+	private final LevelFile level;
+	private final BrickField field;
+	private final CollisionStrategy[] strategies;
+	private final boolean[] loaded;
+	private int nextChunk = 0;
+	private int loadedChunks = 0;
+
+	/**
+	 * Constructs a loader, reserves an id in the field for every brick of the level and
+	 * resolves the level's strategy table to the game's shared strategies.
+	 *
+	 * @param level   The level to load.
+	 * @param field   The field the bricks are put into, empty.
+	 * @param factory The game's strategy factory.
+	 */
+	public LevelLoader(LevelFile level, BrickField field, FactoryDoubleStrategy factory) {
+		this.level = level;
+		this.field = field;
+		this.strategies = new CollisionStrategy[level.strategyCount()];
+		for (int i = 0; i < strategies.length; i++) {
+			strategies[i] = factory.decode(level.strategyCode(i));
+		}
+		this.loaded = new boolean[level.chunkCount()];
+		field.reserve(level.brickCount());
+	}
+
+	/**
+	 * Loads up to the given number of chunks that are not loaded yet, in file order.
+	 *
+	 * @param maxChunks The maximum number of chunks to load.
+	 */
+	public void loadNext(int maxChunks) {
+		int loadedNow = 0;
+		while (loadedNow < maxChunks && nextChunk < loaded.length) {
+			if (!loaded[nextChunk]) {
+				load(nextChunk);
+				loadedNow++;
+			}
+			nextChunk++;
+		}
+	}
+
+	/**
+	 * @return true once every chunk has been loaded.
+	 */
+	public boolean isComplete() {
+		return loadedChunks == loaded.length;
+	}
+
+	@Override
+	public void ensureLoaded(float minX, float minY, float maxX, float maxY) {
+		if (isComplete()) {
+			return;
+		}
+		for (int chunk = nextChunk; chunk < loaded.length; chunk++) {
+			if (!loaded[chunk] && level.chunkOverlaps(chunk, minX, minY, maxX, maxY)) {
+				load(chunk);
+			}
+		}
+	}
+
+	private void load(int chunk) {
+		int first = level.chunkFirstBrick(chunk);
+		int end = first + level.chunkSize(chunk);
+		for (int brick = first; brick < end; brick++) {
+			field.put(brick, level.brickX(brick), level.brickY(brick), level.brickWidth(brick),
+					level.brickHeight(brick), strategies[level.brickStrategy(brick)]);
+		}
+		loaded[chunk] = true;
+		loadedChunks++;
+	}
+}
@@ -0,0 +1,262 @@
+package bricker.main;
+
+import bricker.brick_strategies.FactoryDoubleStrategy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds a level and writes it in the {@link LevelFile} format.
+ * <p>
+ * Bricks are grouped into chunks of {@value #CHUNK_SIZE} in the order they are added, so
+ * authoring tools should add them in spatial order (for example row by row) to keep each
+ * chunk's bounding box small. Identical strategy trees share one strategy table entry.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class LevelWriter {
+
+	private static final int CHUNK_SIZE = 256;
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int RECT_FLOATS = 4;
+	private static final int MAX_STRATEGIES = 0xFFFF + 1;
+	private static final int MAX_CODE_LENGTH = 0xFF;
+	private static final int MAX_DOUBLE_DEPTH = 2;
+	private static final int OUT_ARG = 0;
+	private static final int ROWS_ARG = 1;
+	private static final int COLS_ARG = 2;
+	private static final int SEED_ARG = 3;
+	private static final int MIN_ARGS = 3;
+	private static final float LEVEL_WIDTH = 690;
+	private static final float LEVEL_HEIGHT = 240;
+	private static final float LEVEL_MARGIN = 5;
+	private static final float BRICK_SPACING = 1;
+	private static final int BASIC_DRAWS = 5;
+	private static final int SPECIAL_DRAWS = 5;
+
+	private final Map<String, Integer> strategyIndex = new HashMap<>();
+	private final List<byte[]> strategyCodes = new ArrayList<>();
+	private final int[] bricksPerType = new int[BrickType.values().length];
+	private float[] rects = new float[INITIAL_CAPACITY * RECT_FLOATS];
+	private short[] strategies = new short[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/**
+	 * Adds a brick.
+	 *
+	 * @param x        The x-coordinate of the brick's top-left corner.
+	 * @param y        The y-coordinate of the brick's top-left corner.
+	 * @param width    The width of the brick.
+	 * @param height   The height of the brick.
+	 * @param strategy The brick's prefix-coded strategy tree (see {@link FactoryDoubleStrategy#decode}).
+	 * @throws IllegalArgumentException If the strategy tree is malformed.
+	 */
+	public void addBrick(float x, float y, float width, float height, byte... strategy) {
+		if (validate(strategy, 0, 0) != strategy.length || strategy.length > MAX_CODE_LENGTH) {
+			throw new IllegalArgumentException("Malformed strategy code " + Arrays.toString(strategy));
+		}
+		if (size == strategies.length) {
+			rects = Arrays.copyOf(rects, rects.length * 2);
+			strategies = Arrays.copyOf(strategies, strategies.length * 2);
+		}
+		int base = size * RECT_FLOATS;
+		rects[base] = x;
+		rects[base + 1] = y;
+		rects[base + 2] = width;
+		rects[base + 3] = height;
+		strategies[size] = (short) strategyIndex(strategy);
+		bricksPerType[typeOf(strategy).ordinal()]++;
+		size++;
+	}
+
+	/**
+	 * Writes the level.
+	 *
+	 * @param path The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void write(Path path) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+			writeHeader(out);
+			writeChunks(out);
+			for (int brick = 0; brick < size; brick++) {
+				int base = brick * RECT_FLOATS;
+				for (int i = 0; i < RECT_FLOATS; i++) {
+					out.writeFloat(rects[base + i]);
+				}
+				out.writeShort(strategies[brick]);
+			}
+		}
+	}
+
+	private void writeHeader(DataOutputStream out) throws IOException {
+		float minX = Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+		float cellWidth = 1;
+		float cellHeight = 1;
+		for (int brick = 0; brick < size; brick++) {
+			int base = brick * RECT_FLOATS;
+			minX = Math.min(minX, rects[base]);
+			minY = Math.min(minY, rects[base + 1]);
+			maxX = Math.max(maxX, rects[base]);
+			maxY = Math.max(maxY, rects[base + 1]);
+			cellWidth = Math.max(cellWidth, rects[base + 2]);
+			cellHeight = Math.max(cellHeight, rects[base + 3]);
+		}
+		if (size == 0) {
+			minX = minY = maxX = maxY = 0;
+		}
+		out.writeInt(LevelFile.MAGIC);
+		out.writeByte(LevelFile.VERSION);
+		out.writeInt(size);
+		out.writeFloat(minX);
+		out.writeFloat(minY);
+		out.writeFloat(cellWidth);
+		out.writeFloat(cellHeight);
+		out.writeInt((int) ((maxY - minY) / cellHeight) + 1);
+		out.writeInt((int) ((maxX - minX) / cellWidth) + 1);
+		for (int count : bricksPerType) {
+			out.writeInt(count);
+		}
+		out.writeInt(strategyCodes.size());
+		for (byte[] code : strategyCodes) {
+			out.writeByte(code.length);
+			out.write(code);
+		}
+	}
+
+	private void writeChunks(DataOutputStream out) throws IOException {
+		int chunkCount = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		out.writeInt(chunkCount);
+		for (int chunk = 0; chunk < chunkCount; chunk++) {
+			int first = chunk * CHUNK_SIZE;
+			int end = Math.min(first + CHUNK_SIZE, size);
+			float minX = Float.MAX_VALUE;
+			float minY = Float.MAX_VALUE;
+			float maxX = -Float.MAX_VALUE;
+			float maxY = -Float.MAX_VALUE;
+			for (int brick = first; brick < end; brick++) {
+				int base = brick * RECT_FLOATS;
+				minX = Math.min(minX, rects[base]);
+				minY = Math.min(minY, rects[base + 1]);
+				maxX = Math.max(maxX, rects[base] + rects[base + 2]);
+				maxY = Math.max(maxY, rects[base + 1] + rects[base + 3]);
+			}
+			out.writeFloat(minX);
+			out.writeFloat(minY);
+			out.writeFloat(maxX);
+			out.writeFloat(maxY);
+			out.writeInt(first);
+			out.writeInt(end - first);
+		}
+	}
+
+	private int strategyIndex(byte[] strategy) {
+		String key = Arrays.toString(strategy);
+		Integer index = strategyIndex.get(key);
+		if (index == null) {
+			if (strategyCodes.size() == MAX_STRATEGIES) {
+				throw new IllegalArgumentException("Too many distinct strategies");
+			}
+			index = strategyCodes.size();
+			strategyCodes.add(strategy.clone());
+			strategyIndex.put(key, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Checks a strategy tree node and returns the position just after it, or -1 if it is malformed.
+	 */
+	private static int validate(byte[] code, int position, int depth) {
+		if (position < 0 || position >= code.length) {
+			return -1;
+		}
+		int numStrategy = code[position];
+		if (numStrategy == FactoryDoubleStrategy.STRATEGY_DOUBLE) {
+			if (depth >= MAX_DOUBLE_DEPTH) {
+				return -1;
+			}
+			return validate(code, validate(code, position + 1, depth + 1), depth + 1);
+		}
+		if (numStrategy < FactoryDoubleStrategy.STRATEGY_BASIC
+				|| numStrategy > FactoryDoubleStrategy.STRATEGY_RETURN_STREAK) {
+			return -1;
+		}
+		return position + 1;
+	}
+
+	private static BrickType typeOf(byte[] strategy) {
+		switch (strategy[0]) {
+			case FactoryDoubleStrategy.STRATEGY_EXTRA_BALLS:
+				return BrickType.EXTRA_BALLS;
+			case FactoryDoubleStrategy.STRATEGY_EXTRA_PADDLE:
+				return BrickType.EXTRA_PADDLE;
+			case FactoryDoubleStrategy.STRATEGY_TURBO_MODE:
+				return BrickType.TURBO;
+			case FactoryDoubleStrategy.STRATEGY_RETURN_STREAK:
+				return BrickType.RETURN_LIFE;
+			case FactoryDoubleStrategy.STRATEGY_DOUBLE:
+				return BrickType.DOUBLE;
+			default:
+				return BrickType.BASIC;
+		}
+	}
+
+	/**
+	 * Writes a random level laid out like the game's own, for testing large levels.
+	 * <p>
+	 * Usage: {@code LevelWriter outFile rows cols [seed]}.
+	 * </p>
+	 *
+	 * @param args The command line arguments.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < MIN_ARGS) {
+			System.err.println("Usage: LevelWriter outFile rows cols [seed]");
+			return;
+		}
+		int rows = Integer.parseInt(args[ROWS_ARG]);
+		int cols = Integer.parseInt(args[COLS_ARG]);
+		Random random = args.length > SEED_ARG ? new Random(Long.parseLong(args[SEED_ARG])) : new Random();
+		float width = (LEVEL_WIDTH - (cols - 1) * BRICK_SPACING) / cols;
+		float height = (LEVEL_HEIGHT - (rows - 1) * BRICK_SPACING) / rows;
+		LevelWriter writer = new LevelWriter();
+		for (int row = 0; row < rows; row++) {
+			for (int col = 0; col < cols; col++) {
+				writer.addBrick(LEVEL_MARGIN + col * (width + BRICK_SPACING),
+						LEVEL_MARGIN + row * (height + BRICK_SPACING), width, height, randomCode(random));
+			}
+		}
+		writer.write(Path.of(args[OUT_ARG]));
+	}
+
+	private static byte[] randomCode(Random random) {
+		if (random.nextInt(BASIC_DRAWS + SPECIAL_DRAWS) < BASIC_DRAWS) {
+			return new byte[]{FactoryDoubleStrategy.STRATEGY_BASIC};
+		}
+		int numStrategy = random.nextInt(FactoryDoubleStrategy.STRATEGY_EXTRA_BALLS,
+				FactoryDoubleStrategy.STRATEGY_DOUBLE + 1);
+		if (numStrategy != FactoryDoubleStrategy.STRATEGY_DOUBLE) {
+			return new byte[]{(byte) numStrategy};
+		}
+		return new byte[]{FactoryDoubleStrategy.STRATEGY_DOUBLE,
+				(byte) random.nextInt(FactoryDoubleStrategy.STRATEGY_EXTRA_BALLS,
+						FactoryDoubleStrategy.STRATEGY_DOUBLE),
+				(byte) random.nextInt(FactoryDoubleStrategy.STRATEGY_EXTRA_BALLS,
+						FactoryDoubleStrategy.STRATEGY_DOUBLE)};
+	}
+}
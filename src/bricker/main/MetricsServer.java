@@ -0,0 +1,74 @@
+package bricker.main;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves a game's {@link FrameMetrics} as Prometheus text on {@code /metrics}.
+ * <p>
+ * The server only listens on the loopback interface and runs on the JDK's built-in HTTP
+ * server thread, so scraping never blocks the game loop.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class MetricsServer {
+
+	private static final String PATH = "/metrics";
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	private static final int OK = 200;
+	private static final int METHOD_NOT_ALLOWED = 405;
+	private static final int NO_BODY = -1;
+	private static final int BACKLOG = 0;
+	private static final int STOP_DELAY_SECONDS = 0;
+
+	private final HttpServer server;
+
+	/**
+	 * Starts serving the metrics.
+	 *
+	 * @param metrics The metrics to serve.
+	 * @param port    The local port to listen on, or 0 for any free port.
+	 * @throws IOException If the port cannot be bound.
+	 */
+	public MetricsServer(FrameMetrics metrics, int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+		server.createContext(PATH, exchange -> serve(exchange, metrics));
+		server.start();
+	}
+
+	/**
+	 * @return The port the server listens on.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops the server.
+	 */
+	public void stop() {
+		server.stop(STOP_DELAY_SECONDS);
+	}
+
+	private static void serve(HttpExchange exchange, FrameMetrics metrics) throws IOException {
+		try (exchange) {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(METHOD_NOT_ALLOWED, NO_BODY);
+				return;
+			}
+			byte[] body = metrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			exchange.sendResponseHeaders(OK, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+}
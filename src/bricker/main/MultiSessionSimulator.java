@@ -0,0 +1,118 @@
+package bricker.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many independent headless Bricker sessions in parallel on a fork-join pool
+ * and collects a {@link SessionResult} for each one.
+ * <p>
+ * Each session owns its own {@link BrickerGameManager}, input listener, window controller,
+ * counters and random sources; the game keeps no mutable static state, so sessions share
+ * nothing and throughput scales with the number of cores.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class MultiSessionSimulator {
+
+	private static final int SESSIONS_ARG = 0;
+	private static final int ROWS_ARG = 1;
+	private static final int BRICKS_ARG = 2;
+	private static final int MAX_TICKS_ARG = 3;
+	private static final int DEFAULT_SESSIONS = 200;
+	private static final String DEFAULT_ROWS = "7";
+	private static final String DEFAULT_BRICKS = "8";
+	private static final long DEFAULT_MAX_TICKS = 200_000;
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructs a simulator that uses the given number of worker threads.
+	 *
+	 * @param parallelism The number of worker threads.
+	 */
+	public MultiSessionSimulator(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Runs a batch of sessions and waits for all of them.
+	 *
+	 * @param sessions The number of sessions to run.
+	 * @param args     The game's command line arguments (rows and bricks per row).
+	 * @param maxTicks The maximum number of ticks per session.
+	 * @return The results, in session order.
+	 */
+	public List<SessionResult> run(int sessions, String[] args, long maxTicks) {
+		List<Callable<SessionResult>> tasks = new ArrayList<>(sessions);
+		for (int i = 0; i < sessions; i++) {
+			int sessionId = i;
+			tasks.add(() -> SessionResult.simulate(sessionId, args.clone(), maxTicks));
+		}
+		List<SessionResult> results = new ArrayList<>(sessions);
+		for (Future<SessionResult> future : pool.invokeAll(tasks)) {
+			try {
+				results.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for sessions", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("A session failed", e.getCause());
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Runs a batch of sessions on all cores and prints aggregate statistics.
+	 *
+	 * @param args Number of sessions, rows, bricks per row and maximum ticks per session, all optional.
+	 */
+	public static void main(String[] args) {
+		int sessions = args.length > SESSIONS_ARG ? Integer.parseInt(args[SESSIONS_ARG]) : DEFAULT_SESSIONS;
+		String[] gameArgs = {
+				args.length > ROWS_ARG ? args[ROWS_ARG] : DEFAULT_ROWS,
+				args.length > BRICKS_ARG ? args[BRICKS_ARG] : DEFAULT_BRICKS
+		};
+		long maxTicks = args.length > MAX_TICKS_ARG ? Long.parseLong(args[MAX_TICKS_ARG]) : DEFAULT_MAX_TICKS;
+		int cores = Runtime.getRuntime().availableProcessors();
+		MultiSessionSimulator simulator = new MultiSessionSimulator(cores);
+		long startTime = System.nanoTime();
+		List<SessionResult> results = simulator.run(sessions, gameArgs, maxTicks);
+		double seconds = (System.nanoTime() - startTime) / NANOS_PER_SECOND;
+		simulator.shutdown();
+
+		int wins = 0;
+		long totalTicks = 0;
+		long totalLives = 0;
+		long[] bricksPerType = new long[BrickType.values().length];
+		for (SessionResult result : results) {
+			if (result.isWon()) wins++;
+			totalTicks += result.getTicks();
+			totalLives += result.getLivesUsed();
+			for (BrickType type : BrickType.values()) {
+				bricksPerType[type.ordinal()] += result.getBrickCount(type);
+			}
+		}
+		System.out.printf("%d sessions on %d cores in %.2fs (%.0f ticks/s)%n",
+				sessions, cores, seconds, totalTicks / seconds);
+		System.out.printf("won %d, lost or stopped %d, mean ticks %.1f, mean lives used %.2f%n",
+				wins, sessions - wins, (double) totalTicks / sessions, (double) totalLives / sessions);
+		for (BrickType type : BrickType.values()) {
+			System.out.printf("  %-12s %d bricks%n", type, bricksPerType[type.ordinal()]);
+		}
+	}
+}
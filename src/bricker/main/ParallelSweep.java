@@ -0,0 +1,115 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Runs the per-ball collision sweep of a physics step on a pool of worker threads.
+ * <p>
+ * The balls are split into contiguous ranges, one task per range. Sweeping a ball only
+ * changes that ball, so the ranges never touch the same state, and the outcome of a step
+ * does not depend on how many workers ran it or in which order they finished. With a
+ * single worker, or too few balls to be worth the hand-off, the balls are swept on the
+ * calling thread. The pool is created the first time it is needed, so sessions that never
+ * have many balls in play never start a thread.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class ParallelSweep {
+
+	/** The default minimum number of balls given to one worker. */
+	public static final int DEFAULT_MIN_BALLS_PER_WORKER = 16;
+
+	private final int workers;
+	private final int minBallsPerWorker;
+	private ForkJoinPool pool;
+
+	/**
+	 * Constructs a sweep stage.
+	 *
+	 * @param workers           The number of worker threads; 1 sweeps on the calling thread.
+	 * @param minBallsPerWorker The minimum number of balls given to one worker.
+	 */
+	public ParallelSweep(int workers, int minBallsPerWorker) {
+		if (workers < 1 || minBallsPerWorker < 1) {
+			throw new IllegalArgumentException("Workers and balls per worker must be positive");
+		}
+		this.workers = workers;
+		this.minBallsPerWorker = minBallsPerWorker;
+	}
+
+	/**
+	 * @return The number of worker threads.
+	 */
+	public int workers() {
+		return workers;
+	}
+
+	/**
+	 * Sweeps every ball and returns once all of them are done.
+	 *
+	 * @param balls The balls to sweep. The list must not change until this returns.
+	 * @param sweep The sweep of one ball. It must only change the ball it is given.
+	 */
+	public void run(List<Ball> balls, Consumer<Ball> sweep) {
+		int count = balls.size();
+		if (workers == 1 || count < 2 * minBallsPerWorker) {
+			for (int i = 0; i < count; i++) {
+				sweep.accept(balls.get(i));
+			}
+			return;
+		}
+		if (pool == null) {
+			pool = new ForkJoinPool(workers);
+		}
+		int ranges = Math.min(workers, count / minBallsPerWorker);
+		pool.invoke(new Range(balls, sweep, 0, count, (count + ranges - 1) / ranges));
+	}
+
+	/**
+	 * Stops the worker threads, if any were started.
+	 */
+	public void shutdown() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	/**
+	 * Sweeps a contiguous range of balls, splitting it while it is longer than one worker's share.
+	 */
+	private static class Range extends RecursiveAction {
+		private final List<Ball> balls;
+		private final Consumer<Ball> sweep;
+		private final int start;
+		private final int end;
+		private final int share;
+
+		Range(List<Ball> balls, Consumer<Ball> sweep, int start, int end, int share) {
+			this.balls = balls;
+			this.sweep = sweep;
+			this.start = start;
+			this.end = end;
+			this.share = share;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= share) {
+				for (int i = start; i < end; i++) {
+					sweep.accept(balls.get(i));
+				}
+				return;
+			}
+			int middle = start + (end - start) / 2;
+			invokeAll(new Range(balls, sweep, start, middle, share),
+					new Range(balls, sweep, middle, end, share));
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package bricker.main;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A snapshot of the latency of one {@link FramePhase}, as exposed over JMX.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class PhaseStats {
+
+	private final long count;
+	private final long p50Nanos;
+	private final long p99Nanos;
+	private final long maxNanos;
+
+	/**
+	 * Constructs a snapshot.
+	 *
+	 * @param count    The number of frames recorded.
+	 * @param p50Nanos The median duration, in nanoseconds.
+	 * @param p99Nanos The 99th percentile duration, in nanoseconds.
+	 * @param maxNanos The longest duration, in nanoseconds.
+	 */
+	@ConstructorProperties({"count", "p50Nanos", "p99Nanos", "maxNanos"})
+	public PhaseStats(long count, long p50Nanos, long p99Nanos, long maxNanos) {
+		this.count = count;
+		this.p50Nanos = p50Nanos;
+		this.p99Nanos = p99Nanos;
+		this.maxNanos = maxNanos;
+	}
+
+	/**
+	 * @return The number of frames recorded.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return The median duration, in nanoseconds.
+	 */
+	public long getP50Nanos() {
+		return p50Nanos;
+	}
+
+	/**
+	 * @return The 99th percentile duration, in nanoseconds.
+	 */
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+
+	/**
+	 * @return The longest duration, in nanoseconds.
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+}
@@ -0,0 +1,91 @@
+package bricker.main;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * Draws moving objects between their last two physics states.
+ * <p>
+ * When physics runs at a fixed rate, a rendered frame usually falls between two steps.
+ * Drawing the objects where the last step left them makes motion stutter whenever the
+ * display and physics rates differ. Instead, the game manager calls {@link #capture} just
+ * before the last step of a frame, and the render places every captured object at the
+ * blend of its captured and current positions, then puts it back with {@link #restore()}.
+ * Objects spawned during the step were not captured and are drawn where they are.
+ * </p>
+ * <p>
+ * The captured objects and positions live in parallel arrays that are reused every frame.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class RenderInterpolator {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+	private Vector2[] previous = new Vector2[INITIAL_CAPACITY];
+	private Vector2[] current = new Vector2[INITIAL_CAPACITY];
+	private int size = 0;
+	private boolean applied = false;
+
+	/**
+	 * Records the positions of the objects before a physics step, replacing the previous capture.
+	 *
+	 * @param movingObjects The objects to interpolate.
+	 */
+	public void capture(Iterable<GameObject> movingObjects) {
+		clear();
+		for (GameObject object : movingObjects) {
+			if (size == objects.length) {
+				int capacity = size * 2;
+				objects = Arrays.copyOf(objects, capacity);
+				previous = Arrays.copyOf(previous, capacity);
+				current = Arrays.copyOf(current, capacity);
+			}
+			objects[size] = object;
+			previous[size] = object.getTopLeftCorner();
+			size++;
+		}
+	}
+
+	/**
+	 * Moves every captured object to its interpolated position for drawing.
+	 *
+	 * @param alpha How far the frame lies between the captured state (0) and the current one (1).
+	 */
+	public void apply(float alpha) {
+		for (int i = 0; i < size; i++) {
+			Vector2 position = objects[i].getTopLeftCorner();
+			current[i] = position;
+			objects[i].setTopLeftCorner(previous[i].add(position.subtract(previous[i]).mult(alpha)));
+		}
+		applied = true;
+	}
+
+	/**
+	 * Puts every object moved by {@link #apply} back at its simulated position.
+	 */
+	public void restore() {
+		if (!applied) {
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			objects[i].setTopLeftCorner(current[i]);
+		}
+		applied = false;
+	}
+
+	/**
+	 * Forgets the captured positions, so objects are drawn where they are until the next
+	 * capture. Used when objects are teleported rather than moved, for example on restart.
+	 */
+	public void clear() {
+		Arrays.fill(objects, 0, size, null);
+		Arrays.fill(previous, 0, size, null);
+		Arrays.fill(current, 0, size, null);
+		size = 0;
+	}
+}
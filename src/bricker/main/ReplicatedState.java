@@ -0,0 +1,233 @@
+package bricker.main;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A client's copy of a match's replicated state, kept up to date by applying the frames a
+ * {@link StateEncoder} produced on the server (see there for what is replicated and how).
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class ReplicatedState {
+
+	private static final int INITIAL_ENTITIES = 64;
+	private static final int MAX_ENTITIES = 1 << 16;
+	private static final int BITS_PER_BYTE = 8;
+	private static final int VARINT_PAYLOAD_BITS = 7;
+	private static final int VARINT_PAYLOAD_MASK = 0x7F;
+	private static final int VARINT_CONTINUE = 0x80;
+	private static final int MAX_VARLONG_SHIFT = 63;
+
+	private final BitSet bricks = new BitSet();
+	private final BitSet entities = new BitSet();
+	private final BitSet listed = new BitSet();
+	private byte[] kinds = new byte[INITIAL_ENTITIES];
+	private int[] xs = new int[INITIAL_ENTITIES];
+	private int[] ys = new int[INITIAL_ENTITIES];
+	private boolean synced = false;
+	private long tick = 0;
+	private int lives = 0;
+	private int brickCount = 0;
+
+	/**
+	 * Applies one frame.
+	 *
+	 * @param payload The frame's payload, without its length.
+	 * @throws IOException If the frame is corrupt, or a delta arrives before the first keyframe.
+	 */
+	public void apply(ByteBuffer payload) throws IOException {
+		try {
+			byte type = payload.get();
+			if (type == StateEncoder.KEYFRAME) {
+				applyKeyframe(payload);
+			} else if (type == StateEncoder.DELTA && synced) {
+				applyDelta(payload);
+			} else {
+				throw new IOException("Unexpected frame type " + type);
+			}
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IOException("Corrupt frame", e);
+		}
+	}
+
+	/**
+	 * @return true once the first keyframe was applied.
+	 */
+	public boolean isSynced() {
+		return synced;
+	}
+
+	/**
+	 * @return The tick of the last applied frame.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * @return The lives left.
+	 */
+	public int getLives() {
+		return lives;
+	}
+
+	/**
+	 * @return The number of bricks in the level.
+	 */
+	public int getBrickCount() {
+		return brickCount;
+	}
+
+	/**
+	 * @return The number of bricks still in play.
+	 */
+	public int getBricksLeft() {
+		return bricks.cardinality();
+	}
+
+	/**
+	 * @param id A brick id.
+	 * @return true if the brick is still in play.
+	 */
+	public boolean isBrickAlive(int id) {
+		return bricks.get(id);
+	}
+
+	/**
+	 * Returns the next entity in play, for iterating with
+	 * {@code for (int id = nextEntity(0); id >= 0; id = nextEntity(id + 1))}.
+	 *
+	 * @param from The first id to consider.
+	 * @return The id of the next entity in play from the given id on, or -1 if there is none.
+	 */
+	public int nextEntity(int from) {
+		return entities.nextSetBit(from);
+	}
+
+	/**
+	 * @param id The id of an entity in play.
+	 * @return The entity's kind, one of the kinds of {@link StateEncoder}.
+	 */
+	public byte kind(int id) {
+		return kinds[id];
+	}
+
+	/**
+	 * @param id The id of an entity in play.
+	 * @return The x-coordinate of the entity's center, in pixels.
+	 */
+	public float x(int id) {
+		return (float) xs[id] / StateEncoder.UNITS_PER_PIXEL;
+	}
+
+	/**
+	 * @param id The id of an entity in play.
+	 * @return The y-coordinate of the entity's center, in pixels.
+	 */
+	public float y(int id) {
+		return (float) ys[id] / StateEncoder.UNITS_PER_PIXEL;
+	}
+
+	private void applyKeyframe(ByteBuffer in) {
+		tick = getVarLong(in);
+		lives = getVarInt(in);
+		brickCount = getVarInt(in);
+		bricks.clear();
+		for (int first = 0; first < brickCount; first += BITS_PER_BYTE) {
+			int bits = in.get();
+			for (int bit = 0; bit < BITS_PER_BYTE && first + bit < brickCount; bit++) {
+				if ((bits & (1 << bit)) != 0) {
+					bricks.set(first + bit);
+				}
+			}
+		}
+		entities.clear();
+		int count = getVarInt(in);
+		int id = -1;
+		for (int i = 0; i < count; i++) {
+			id += getVarInt(in) + 1;
+			ensureEntityCapacity(id);
+			kinds[id] = in.get();
+			xs[id] = getSignedVarInt(in);
+			ys[id] = getSignedVarInt(in);
+			entities.set(id);
+		}
+		synced = true;
+	}
+
+	private void applyDelta(ByteBuffer in) throws IOException {
+		tick = getVarLong(in);
+		int flags = in.get();
+		if ((flags & StateEncoder.LIVES_CHANGED) != 0) {
+			lives = getVarInt(in);
+		}
+		int removed = getVarInt(in);
+		int brick = -1;
+		for (int i = 0; i < removed; i++) {
+			brick += getVarInt(in) + 1;
+			bricks.clear(brick);
+		}
+		listed.clear();
+		int count = getVarInt(in);
+		int id = -1;
+		for (int i = 0; i < count; i++) {
+			int header = getVarInt(in);
+			id += (header >>> StateEncoder.HEADER_FLAG_BITS) + 1;
+			if ((header & StateEncoder.NEW) != 0) {
+				ensureEntityCapacity(id);
+				kinds[id] = in.get();
+				xs[id] = getSignedVarInt(in);
+				ys[id] = getSignedVarInt(in);
+			} else if (!entities.get(id)) {
+				throw new IOException("Delta moves unknown entity " + id);
+			} else if ((header & StateEncoder.MOVED) != 0) {
+				xs[id] += getSignedVarInt(in);
+				ys[id] += getSignedVarInt(in);
+			}
+			listed.set(id);
+		}
+		entities.clear();
+		entities.or(listed);
+	}
+
+	private void ensureEntityCapacity(int id) {
+		if (id < kinds.length) {
+			return;
+		}
+		if (id >= MAX_ENTITIES) {
+			throw new IndexOutOfBoundsException("Entity id out of range: " + id);
+		}
+		int length = Math.max(kinds.length * 2, id + 1);
+		kinds = Arrays.copyOf(kinds, length);
+		xs = Arrays.copyOf(xs, length);
+		ys = Arrays.copyOf(ys, length);
+	}
+
+	private static int getSignedVarInt(ByteBuffer in) {
+		int value = getVarInt(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static int getVarInt(ByteBuffer in) {
+		return (int) getVarLong(in);
+	}
+
+	private static long getVarLong(ByteBuffer in) {
+		long value = 0;
+		int shift = 0;
+		int b;
+		do {
+			if (shift > MAX_VARLONG_SHIFT) {
+				throw new IndexOutOfBoundsException("Varint too long");
+			}
+			b = in.get();
+			value |= (long) (b & VARINT_PAYLOAD_MASK) << shift;
+			shift += VARINT_PAYLOAD_BITS;
+		} while ((b & VARINT_CONTINUE) != 0);
+		return value;
+	}
+}
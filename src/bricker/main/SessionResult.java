@@ -0,0 +1,100 @@
+package bricker.main;
+
+/**
+ * The outcome of a single simulated Bricker session.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class SessionResult {
+
+	private final int sessionId;
+	private final boolean won;
+	private final boolean finished;
+	private final long ticks;
+	private final int livesUsed;
+	private final int[] bricksPerType;
+
+	/**
+	 * Constructs a session result.
+	 *
+	 * @param sessionId     The index of the session within its batch.
+	 * @param won           Whether all the bricks were cleared.
+	 * @param finished      Whether the session ended by winning or losing (rather than hitting the tick limit).
+	 * @param ticks         The number of fixed-timestep ticks the session ran.
+	 * @param livesUsed     The number of lives lost during the session.
+	 * @param bricksPerType The number of bricks of each {@link BrickType}, indexed by ordinal.
+	 */
+	public SessionResult(int sessionId, boolean won, boolean finished, long ticks, int livesUsed,
+						 int[] bricksPerType) {
+		this.sessionId = sessionId;
+		this.won = won;
+		this.finished = finished;
+		this.ticks = ticks;
+		this.livesUsed = livesUsed;
+		this.bricksPerType = bricksPerType;
+	}
+
+	/**
+	 * Runs a headless session to completion and collects its outcome.
+	 *
+	 * @param sessionId The index of the session within its batch.
+	 * @param args      The game's command line arguments (rows and bricks per row).
+	 * @param maxTicks  The maximum number of ticks to run.
+	 * @return The outcome of the session.
+	 */
+	public static SessionResult simulate(int sessionId, String[] args, long maxTicks) {
+		HeadlessRunner runner = new HeadlessRunner(args, true);
+		runner.start();
+		runner.run(maxTicks);
+		BrickerGameManager game = runner.getGame();
+		int[] bricksPerType = new int[BrickType.values().length];
+		for (BrickType type : BrickType.values()) {
+			bricksPerType[type.ordinal()] = game.getBrickCount(type);
+		}
+		return new SessionResult(sessionId, runner.isWon(), runner.isFinished(), runner.getTicks(),
+				game.getLivesLost(), bricksPerType);
+	}
+
+	/**
+	 * @return The index of the session within its batch.
+	 */
+	public int getSessionId() {
+		return sessionId;
+	}
+
+	/**
+	 * @return true if all the bricks were cleared.
+	 */
+	public boolean isWon() {
+		return won;
+	}
+
+	/**
+	 * @return true if the session ended by winning or losing.
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * @return The number of ticks the session ran (the ticks to clear, for won sessions).
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return The number of lives lost during the session.
+	 */
+	public int getLivesUsed() {
+		return livesUsed;
+	}
+
+	/**
+	 * @param type A brick type.
+	 * @return The number of bricks of that type in the session's level.
+	 */
+	public int getBrickCount(BrickType type) {
+		return bricksPerType[type.ordinal()];
+	}
+}
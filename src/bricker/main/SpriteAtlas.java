@@ -0,0 +1,199 @@
+package bricker.main;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Packs a set of sprite images into one image at load time and hands out a
+ * {@link Region} renderable per sprite.
+ * <p>
+ * Every sprite drawn from the atlas reads the same source image, so the Java2D pipeline keeps
+ * one accelerated copy of it and drawing a frame full of bricks, balls and pucks never switches
+ * source images. Sprites are placed on shelves, tallest first, with a one-pixel border copied
+ * from each sprite's edge so that scaled drawing never samples a neighbour.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class SpriteAtlas {
+
+	private static final int BORDER = 1;
+	private static final double FULLY_OPAQUE = 1;
+
+	private final BufferedImage image;
+	private final Region[] regions;
+
+	/**
+	 * Packs sprites into a new atlas.
+	 *
+	 * @param sprites The sprites, fully loaded. Their order gives the region indices.
+	 */
+	public SpriteAtlas(Image... sprites) {
+		Integer[] order = new Integer[sprites.length];
+		int area = 0;
+		int widest = 0;
+		for (int i = 0; i < sprites.length; i++) {
+			order[i] = i;
+			int cellWidth = sprites[i].getWidth(null) + 2 * BORDER;
+			int cellHeight = sprites[i].getHeight(null) + 2 * BORDER;
+			area += cellWidth * cellHeight;
+			widest = Math.max(widest, cellWidth);
+		}
+		Arrays.sort(order, Comparator.comparingInt((Integer i) -> sprites[i].getHeight(null)).reversed());
+		int width = Math.max(widest, Integer.highestOneBit(Math.max((int) Math.ceil(Math.sqrt(area)) - 1, 1)) << 1);
+		int[] xs = new int[sprites.length];
+		int[] ys = new int[sprites.length];
+		int shelfX = 0;
+		int shelfY = 0;
+		int shelfHeight = 0;
+		for (int i : order) {
+			int cellWidth = sprites[i].getWidth(null) + 2 * BORDER;
+			if (shelfX + cellWidth > width) {
+				shelfX = 0;
+				shelfY += shelfHeight;
+				shelfHeight = 0;
+			}
+			xs[i] = shelfX + BORDER;
+			ys[i] = shelfY + BORDER;
+			shelfX += cellWidth;
+			shelfHeight = Math.max(shelfHeight, sprites[i].getHeight(null) + 2 * BORDER);
+		}
+		int height = Math.max(shelfY + shelfHeight, 1);
+		this.image = createImage(width, height);
+		this.regions = new Region[sprites.length];
+		Graphics2D g = image.createGraphics();
+		try {
+			g.setComposite(AlphaComposite.Src);
+			for (int i = 0; i < sprites.length; i++) {
+				int w = sprites[i].getWidth(null);
+				int h = sprites[i].getHeight(null);
+				drawWithBorder(g, sprites[i], xs[i], ys[i], w, h);
+				regions[i] = new Region(xs[i], ys[i], w, h);
+			}
+		} finally {
+			g.dispose();
+		}
+	}
+
+	/**
+	 * @param index The index of a sprite, in the order given to the constructor.
+	 * @return The renderable drawing that sprite from the atlas.
+	 */
+	public Region region(int index) {
+		return regions[index];
+	}
+
+	/**
+	 * @return The width of the atlas image, in pixels.
+	 */
+	public int getWidth() {
+		return image.getWidth();
+	}
+
+	/**
+	 * @return The height of the atlas image, in pixels.
+	 */
+	public int getHeight() {
+		return image.getHeight();
+	}
+
+	private static BufferedImage createImage(int width, int height) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+
+	/**
+	 * Draws a sprite and copies its outermost rows and columns one pixel outwards.
+	 */
+	private static void drawWithBorder(Graphics2D g, Image sprite, int x, int y, int w, int h) {
+		g.drawImage(sprite, x, y, null);
+		g.drawImage(sprite, x - BORDER, y, x, y + h, 0, 0, BORDER, h, null);
+		g.drawImage(sprite, x + w, y, x + w + BORDER, y + h, w - BORDER, 0, w, h, null);
+		g.drawImage(sprite, x, y - BORDER, x + w, y, 0, 0, w, BORDER, null);
+		g.drawImage(sprite, x, y + h, x + w, y + h + BORDER, 0, h - BORDER, w, h, null);
+	}
+
+	/**
+	 * A sprite in the atlas, drawn by copying its rectangle of the shared atlas image.
+	 */
+	public final class Region implements Renderable {
+		private final int sourceX;
+		private final int sourceY;
+		private final int width;
+		private final int height;
+
+		private Region(int sourceX, int sourceY, int width, int height) {
+			this.sourceX = sourceX;
+			this.sourceY = sourceY;
+			this.width = width;
+			this.height = height;
+		}
+
+		/**
+		 * Draws the sprite stretched over a rectangle, unrotated and opaque, without allocating.
+		 *
+		 * @param g      The graphics context to draw on.
+		 * @param x      The x-coordinate of the rectangle's top-left corner.
+		 * @param y      The y-coordinate of the rectangle's top-left corner.
+		 * @param width  The width of the rectangle.
+		 * @param height The height of the rectangle.
+		 */
+		public void draw(Graphics2D g, float x, float y, float width, float height) {
+			int left = Math.round(x);
+			int top = Math.round(y);
+			g.drawImage(image, left, top, Math.round(x + width), Math.round(y + height),
+					sourceX, sourceY, sourceX + this.width, sourceY + this.height, null);
+		}
+
+		/**
+		 * Draws the sprite over a rectangle.
+		 *
+		 * @param g                       The graphics context to draw on.
+		 * @param topLeftCorner           The top-left corner of the rectangle.
+		 * @param dimensions              The size of the rectangle.
+		 * @param degreesCounterClockwise The rotation around the rectangle's center.
+		 * @param isFlippedHorizontally   Whether to mirror the sprite left to right.
+		 * @param isFlippedVertically     Whether to mirror the sprite top to bottom.
+		 * @param opaqueness              The opacity, from 0 to 1.
+		 */
+		@Override
+		public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+						   double degreesCounterClockwise, boolean isFlippedHorizontally,
+						   boolean isFlippedVertically, double opaqueness) {
+			Composite composite = null;
+			if (opaqueness < FULLY_OPAQUE) {
+				composite = g.getComposite();
+				g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) Math.max(opaqueness, 0)));
+			}
+			if (degreesCounterClockwise == 0 && !isFlippedHorizontally && !isFlippedVertically) {
+				draw(g, topLeftCorner.x(), topLeftCorner.y(), dimensions.x(), dimensions.y());
+			} else {
+				AffineTransform transform = g.getTransform();
+				float halfWidth = dimensions.x() / 2;
+				float halfHeight = dimensions.y() / 2;
+				g.translate(topLeftCorner.x() + halfWidth, topLeftCorner.y() + halfHeight);
+				g.rotate(-Math.toRadians(degreesCounterClockwise));
+				g.scale(isFlippedHorizontally ? -1 : 1, isFlippedVertically ? -1 : 1);
+				draw(g, -halfWidth, -halfHeight, dimensions.x(), dimensions.y());
+				g.setTransform(transform);
+			}
+			if (composite != null) {
+				g.setComposite(composite);
+			}
+		}
+	}
+}
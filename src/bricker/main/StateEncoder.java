@@ -0,0 +1,296 @@
+package bricker.main;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Encodes the replicated state of a match into the frames a {@link GameServer} sends to its
+ * clients, and remembers what was last sent so every tick costs only what changed.
+ * <p>
+ * The replicated state is the tick, the lives left, which bricks are still in play, and the
+ * center of every moving object (balls, pucks, paddles and falling hearts). Each moving object
+ * gets a small entity id that stays the same while it is in play. Positions are quantized to
+ * {@link #UNITS_PER_PIXEL} units per pixel. A tick is fed with {@link #brickRemoved},
+ * {@link #beginTick} and {@link #entity}, then {@link #endTick()} encodes it as a delta against
+ * the previous tick and makes it the new baseline. {@link #keyframe} encodes the whole
+ * baseline, for clients that join or fall behind.
+ * </p>
+ * <p>
+ * Every frame is an int length followed by the payload. Numbers are unsigned varints and
+ * coordinates zigzag varints. A keyframe is the type, tick, lives, brick count, the liveness
+ * bitset as bytes, the entity count, then every entity as its id gap, kind byte and absolute
+ * coordinates. A delta is the type, tick, a flags byte (followed by the lives if they
+ * changed), the count and id gaps of the bricks removed since the last tick, the entity count,
+ * then every entity in play by ascending id: a header holding its id gap, whether it is new
+ * and whether it moved, followed by its kind and absolute coordinates if new, or by its moves
+ * if it moved. Entities that are no longer listed have left play. A still paddle costs one
+ * byte and a moving puck about three.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class StateEncoder {
+
+	/** Frame type of a keyframe. */
+	public static final byte KEYFRAME = 1;
+	/** Frame type of a delta. */
+	public static final byte DELTA = 2;
+	/** Entity kind of the main ball. */
+	public static final byte BALL = 0;
+	/** Entity kind of a puck. */
+	public static final byte PUCK = 1;
+	/** Entity kind of the user paddle. */
+	public static final byte PADDLE = 2;
+	/** Entity kind of the extra paddle. */
+	public static final byte EXTRA_PADDLE = 3;
+	/** Entity kind of a falling heart. */
+	public static final byte HEART = 4;
+	/** The number of position units per pixel. */
+	public static final int UNITS_PER_PIXEL = 4;
+	/** Delta flag: the lives changed and follow the flags. */
+	static final int LIVES_CHANGED = 1;
+	/** Delta entity header bit: the entity moved. */
+	static final int MOVED = 1;
+	/** Delta entity header bit: the entity is new. */
+	static final int NEW = 1 << 1;
+	/** The number of flag bits below the id gap in a delta entity header. */
+	static final int HEADER_FLAG_BITS = 2;
+
+	private static final int INITIAL_ENTITIES = 64;
+	private static final int INITIAL_BYTES = 1024;
+	private static final int INITIAL_REMOVALS = 64;
+	private static final int BITS_PER_BYTE = 8;
+	private static final int VARINT_PAYLOAD_BITS = 7;
+	private static final int VARINT_PAYLOAD_MASK = 0x7F;
+	private static final int VARINT_CONTINUE = 0x80;
+
+	private final int brickCount;
+	private final Map<Object, Integer> ids = new IdentityHashMap<>();
+	private final BitSet usedIds = new BitSet();
+	private final BitSet baselineIds = new BitSet();
+	private final BitSet seenIds = new BitSet();
+	private Object[] keys = new Object[INITIAL_ENTITIES];
+	private byte[] kinds = new byte[INITIAL_ENTITIES];
+	private int[] baseX = new int[INITIAL_ENTITIES];
+	private int[] baseY = new int[INITIAL_ENTITIES];
+	private int[] currentX = new int[INITIAL_ENTITIES];
+	private int[] currentY = new int[INITIAL_ENTITIES];
+	private int[] removals = new int[INITIAL_REMOVALS];
+	private int removalCount = 0;
+	private ByteBuffer out = ByteBuffer.allocate(INITIAL_BYTES);
+	private long tick = 0;
+	private int lives = 0;
+	private int baseLives = 0;
+
+	/**
+	 * Constructs an encoder with an empty baseline.
+	 *
+	 * @param brickCount The number of bricks in the level.
+	 */
+	public StateEncoder(int brickCount) {
+		this.brickCount = brickCount;
+	}
+
+	/**
+	 * Records that a brick left play during the current tick.
+	 *
+	 * @param id The brick's id in the brick field.
+	 */
+	public void brickRemoved(int id) {
+		if (id < 0 || id >= brickCount) {
+			return;
+		}
+		if (removalCount == removals.length) {
+			removals = Arrays.copyOf(removals, removalCount * 2);
+		}
+		removals[removalCount++] = id;
+	}
+
+	/**
+	 * Forgets the bricks recorded as removed, for example because a keyframe resends them all.
+	 */
+	public void clearRemovals() {
+		removalCount = 0;
+	}
+
+	/**
+	 * Starts a tick.
+	 *
+	 * @param tick  The tick number.
+	 * @param lives The lives left after the tick.
+	 */
+	public void beginTick(long tick, int lives) {
+		this.tick = tick;
+		this.lives = lives;
+		seenIds.clear();
+	}
+
+	/**
+	 * Records the position of a moving object at the end of the current tick.
+	 *
+	 * @param key     The object, compared by identity.
+	 * @param kind    The object's entity kind.
+	 * @param centerX The x-coordinate of the object's center.
+	 * @param centerY The y-coordinate of the object's center.
+	 */
+	public void entity(Object key, byte kind, float centerX, float centerY) {
+		Integer known = ids.get(key);
+		int id;
+		if (known == null) {
+			id = usedIds.nextClearBit(0);
+			usedIds.set(id);
+			ids.put(key, id);
+			ensureEntityCapacity(id);
+			keys[id] = key;
+		} else {
+			id = known;
+		}
+		kinds[id] = kind;
+		currentX[id] = Math.round(centerX * UNITS_PER_PIXEL);
+		currentY[id] = Math.round(centerY * UNITS_PER_PIXEL);
+		seenIds.set(id);
+	}
+
+	/**
+	 * Encodes the current tick as a delta against the baseline and makes it the new baseline.
+	 * Objects not recorded during the tick leave play and their ids are freed.
+	 *
+	 * @return The frame, read-only and safe to share between clients.
+	 */
+	public ByteBuffer endTick() {
+		out.clear();
+		out.putInt(0);
+		out.put(DELTA);
+		putVarLong(tick);
+		boolean livesChanged = lives != baseLives;
+		out.put((byte) (livesChanged ? LIVES_CHANGED : 0));
+		if (livesChanged) {
+			putVarInt(lives);
+		}
+		Arrays.sort(removals, 0, removalCount);
+		putVarInt(removalCount);
+		int previous = -1;
+		for (int i = 0; i < removalCount; i++) {
+			putVarInt(removals[i] - previous - 1);
+			previous = removals[i];
+		}
+		removalCount = 0;
+		putVarInt(seenIds.cardinality());
+		previous = -1;
+		for (int id = seenIds.nextSetBit(0); id >= 0; id = seenIds.nextSetBit(id + 1)) {
+			boolean isNew = !baselineIds.get(id);
+			boolean moved = currentX[id] != baseX[id] || currentY[id] != baseY[id];
+			int header = (id - previous - 1) << HEADER_FLAG_BITS | (isNew ? NEW : 0) | (moved ? MOVED : 0);
+			putVarInt(header);
+			if (isNew) {
+				out.put(kinds[id]);
+				putSignedVarInt(currentX[id]);
+				putSignedVarInt(currentY[id]);
+			} else if (moved) {
+				putSignedVarInt(currentX[id] - baseX[id]);
+				putSignedVarInt(currentY[id] - baseY[id]);
+			}
+			baseX[id] = currentX[id];
+			baseY[id] = currentY[id];
+			previous = id;
+		}
+		for (int id = baselineIds.nextSetBit(0); id >= 0; id = baselineIds.nextSetBit(id + 1)) {
+			if (!seenIds.get(id)) {
+				ids.remove(keys[id]);
+				keys[id] = null;
+				usedIds.clear(id);
+			}
+		}
+		baselineIds.clear();
+		baselineIds.or(seenIds);
+		baseLives = lives;
+		return finishFrame();
+	}
+
+	/**
+	 * Encodes the whole baseline, as left by the last {@link #endTick()}.
+	 *
+	 * @param brickAlive Whether the brick with a given id is in play.
+	 * @return The frame, read-only and safe to share between clients.
+	 */
+	public ByteBuffer keyframe(IntPredicate brickAlive) {
+		out.clear();
+		out.putInt(0);
+		out.put(KEYFRAME);
+		putVarLong(tick);
+		putVarInt(baseLives);
+		putVarInt(brickCount);
+		for (int first = 0; first < brickCount; first += BITS_PER_BYTE) {
+			int bits = 0;
+			for (int bit = 0; bit < BITS_PER_BYTE && first + bit < brickCount; bit++) {
+				if (brickAlive.test(first + bit)) {
+					bits |= 1 << bit;
+				}
+			}
+			ensureOutCapacity(1);
+			out.put((byte) bits);
+		}
+		putVarInt(baselineIds.cardinality());
+		int previous = -1;
+		for (int id = baselineIds.nextSetBit(0); id >= 0; id = baselineIds.nextSetBit(id + 1)) {
+			putVarInt(id - previous - 1);
+			out.put(kinds[id]);
+			putSignedVarInt(baseX[id]);
+			putSignedVarInt(baseY[id]);
+			previous = id;
+		}
+		return finishFrame();
+	}
+
+	private ByteBuffer finishFrame() {
+		out.putInt(0, out.position() - Integer.BYTES);
+		return ByteBuffer.wrap(Arrays.copyOf(out.array(), out.position())).asReadOnlyBuffer();
+	}
+
+	private void ensureEntityCapacity(int id) {
+		if (id < keys.length) {
+			return;
+		}
+		int length = Math.max(keys.length * 2, id + 1);
+		keys = Arrays.copyOf(keys, length);
+		kinds = Arrays.copyOf(kinds, length);
+		baseX = Arrays.copyOf(baseX, length);
+		baseY = Arrays.copyOf(baseY, length);
+		currentX = Arrays.copyOf(currentX, length);
+		currentY = Arrays.copyOf(currentY, length);
+	}
+
+	/**
+	 * Makes room for a number of bytes in the output, plus the largest varint.
+	 */
+	private void ensureOutCapacity(int bytes) {
+		int needed = bytes + Long.BYTES + 2;
+		if (out.remaining() < needed) {
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + needed));
+			out.flip();
+			larger.put(out);
+			out = larger;
+		}
+	}
+
+	private void putSignedVarInt(int value) {
+		putVarInt((value << 1) ^ (value >> (Integer.SIZE - 1)));
+	}
+
+	private void putVarInt(int value) {
+		putVarLong(value & 0xFFFFFFFFL);
+	}
+
+	private void putVarLong(long value) {
+		ensureOutCapacity(1);
+		while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+			out.put((byte) ((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUE));
+			value >>>= VARINT_PAYLOAD_BITS;
+		}
+		out.put((byte) value);
+	}
+}
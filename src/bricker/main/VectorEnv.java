@@ -0,0 +1,403 @@
+package bricker.main;
+
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.ExtraPaddle;
+import bricker.gameobjects.Paddle;
+import bricker.gameobjects.PuckBall;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A batch of Bricker games stepped in lockstep, for training paddle controllers.
+ * <p>
+ * Each environment is a {@link HeadlessRunner} playing the real rules of a level built from
+ * the game's arguments: paddle movement, brick strategies, pucks, hearts and turbo mode all
+ * come from {@link BrickerGameManager}.
+ * {@link #step(int[])} takes one action per environment, advances every game by one fixed
+ * timestep and writes the results into arrays allocated once, up front:
+ * <ul>
+ *     <li>{@link #observations()}: {@link #observationSize()} floats per environment, laid out
+ *     as described by the {@code OBS_} indices, with up to a fixed number of pucks.</li>
+ *     <li>{@link #bricks()}: the brick liveness bitmap, {@link #brickWords()} longs per
+ *     environment (see {@link BrickField#copyAlive}).</li>
+ *     <li>{@link #rewards()}: {@link #REWARD_PER_BRICK} per brick destroyed and
+ *     {@link #REWARD_PER_LIFE_LOST} per life lost during the step.</li>
+ *     <li>{@link #dones()}: whether the episode ended during the step, because the game was won
+ *     or lost or hit the episode tick limit. An ended game restarts in place, so the
+ *     observation is already the first of the next episode.</li>
+ * </ul>
+ * Rewards and episode ends are read off each game's {@link GameEventBus}.
+ * </p>
+ * <p>
+ * The environments are split into one contiguous range per worker, and the range tasks are
+ * created once and reinitialized every step, so stepping allocates nothing beyond what the
+ * games themselves do.
+ * </p>
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class VectorEnv implements AutoCloseable {
+
+	/** Action: leave the paddle still. */
+	public static final int ACTION_STAY = 0;
+	/** Action: move the paddle left. */
+	public static final int ACTION_LEFT = 1;
+	/** Action: move the paddle right. */
+	public static final int ACTION_RIGHT = 2;
+	/** Reward for each brick destroyed. */
+	public static final float REWARD_PER_BRICK = 1;
+	/** Reward for each life lost. */
+	public static final float REWARD_PER_LIFE_LOST = -10;
+	/** The default number of pucks described in an observation. */
+	public static final int DEFAULT_MAX_PUCKS = 8;
+
+	/** Observation index of the main ball's center x. */
+	public static final int OBS_BALL_X = 0;
+	/** Observation index of the main ball's center y. */
+	public static final int OBS_BALL_Y = 1;
+	/** Observation index of the main ball's velocity x. */
+	public static final int OBS_BALL_VX = 2;
+	/** Observation index of the main ball's velocity y. */
+	public static final int OBS_BALL_VY = 3;
+	/** Observation index of the user paddle's center x. */
+	public static final int OBS_PADDLE_X = 4;
+	/** Observation index of the user paddle's velocity x. */
+	public static final int OBS_PADDLE_VX = 5;
+	/** Observation index of 1 if the extra paddle is in play, else 0. */
+	public static final int OBS_EXTRA_PADDLE = 6;
+	/** Observation index of the extra paddle's center x. */
+	public static final int OBS_EXTRA_PADDLE_X = 7;
+	/** Observation index of the extra paddle's center y. */
+	public static final int OBS_EXTRA_PADDLE_Y = 8;
+	/** Observation index of the lives left. */
+	public static final int OBS_LIVES = 9;
+	/** Observation index of the bricks left. */
+	public static final int OBS_BRICKS_LEFT = 10;
+	/** Observation index of the first puck slot. */
+	public static final int OBS_PUCKS = 11;
+	/** The number of floats per puck slot: present (1 or 0), center x and y, velocity x and y. */
+	public static final int PUCK_FLOATS = 5;
+
+	private static final int PUCK_BODY = 1;
+	private static final int BODY_Y = 1;
+	private static final int BODY_VX = 2;
+	private static final int BODY_VY = 3;
+	private static final int BITS_PER_WORD = 64;
+
+	private final Slot[] slots;
+	private final int maxPucks;
+	private final int observationSize;
+	private final int brickWords;
+	private final long maxEpisodeTicks;
+	private final float[] observations;
+	private final long[] bricks;
+	private final float[] rewards;
+	private final boolean[] dones;
+	private final ForkJoinPool pool;
+	private final Range[] ranges;
+	private final Batch batch;
+	private int[] actions;
+
+	/**
+	 * Creates the environments and starts their first episode.
+	 *
+	 * @param count           The number of environments.
+	 * @param args            The game's command line arguments (rows and bricks per row).
+	 * @param seed            The seed of the first environment; environment i uses seed + i.
+	 * @param maxPucks        The number of pucks described in an observation; others are left out.
+	 * @param workers         The number of worker threads; 1 steps on the calling thread.
+	 * @param maxEpisodeTicks The number of steps after which an episode is cut short.
+	 */
+	public VectorEnv(int count, String[] args, long seed, int maxPucks, int workers, long maxEpisodeTicks) {
+		if (count < 1 || workers < 1 || maxPucks < 0 || maxEpisodeTicks < 1) {
+			throw new IllegalArgumentException("Bad environment batch parameters");
+		}
+		this.slots = new Slot[count];
+		for (int i = 0; i < count; i++) {
+			slots[i] = new Slot(new HeadlessRunner(args, false, seed + i));
+		}
+		this.maxPucks = maxPucks;
+		this.observationSize = OBS_PUCKS + maxPucks * PUCK_FLOATS;
+		this.brickWords = (slots[0].field.size() + BITS_PER_WORD - 1) / BITS_PER_WORD;
+		this.maxEpisodeTicks = maxEpisodeTicks;
+		this.observations = new float[count * observationSize];
+		this.bricks = new long[count * brickWords];
+		this.rewards = new float[count];
+		this.dones = new boolean[count];
+		int rangeCount = Math.min(workers, count);
+		this.pool = workers > 1 ? new ForkJoinPool(workers) : null;
+		this.ranges = new Range[rangeCount];
+		for (int i = 0; i < rangeCount; i++) {
+			ranges[i] = new Range(i * count / rangeCount, (i + 1) * count / rangeCount);
+		}
+		this.batch = new Batch();
+		for (int i = 0; i < count; i++) {
+			observe(i);
+		}
+	}
+
+	/**
+	 * @return The number of environments.
+	 */
+	public int count() {
+		return slots.length;
+	}
+
+	/**
+	 * @return The number of floats in one environment's observation.
+	 */
+	public int observationSize() {
+		return observationSize;
+	}
+
+	/**
+	 * @return The number of longs in one environment's brick bitmap.
+	 */
+	public int brickWords() {
+		return brickWords;
+	}
+
+	/**
+	 * @return The observations, environment i at {@code i * observationSize()}. Overwritten by
+	 * every step and reset.
+	 */
+	public float[] observations() {
+		return observations;
+	}
+
+	/**
+	 * @return The brick bitmaps, environment i at {@code i * brickWords()}. Overwritten by every
+	 * step and reset.
+	 */
+	public long[] bricks() {
+		return bricks;
+	}
+
+	/**
+	 * @return The rewards of the last step, one per environment.
+	 */
+	public float[] rewards() {
+		return rewards;
+	}
+
+	/**
+	 * @return Whether each environment's episode ended during the last step.
+	 */
+	public boolean[] dones() {
+		return dones;
+	}
+
+	/**
+	 * Restarts every game and writes the first observations.
+	 */
+	public void reset() {
+		for (int i = 0; i < slots.length; i++) {
+			slots[i].restart();
+			rewards[i] = 0;
+			dones[i] = false;
+			observe(i);
+		}
+	}
+
+	/**
+	 * Advances every environment by one step.
+	 *
+	 * @param actions One of the {@code ACTION_} constants per environment.
+	 */
+	public void step(int[] actions) {
+		if (actions.length != slots.length) {
+			throw new IllegalArgumentException("Expected " + slots.length + " actions, got " + actions.length);
+		}
+		this.actions = actions;
+		if (pool == null) {
+			for (Range range : ranges) {
+				range.compute();
+			}
+		} else {
+			batch.reinitialize();
+			pool.invoke(batch);
+		}
+		this.actions = null;
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	@Override
+	public void close() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Steps one environment and writes its results.
+	 */
+	private void stepOne(int index) {
+		Slot slot = slots[index];
+		slot.clearStepCounts();
+		slot.runner.applyKeys(keysOf(actions[index]));
+		slot.runner.step();
+		slot.episodeTicks++;
+		boolean done = slot.restarted;
+		if (!done && slot.episodeTicks >= maxEpisodeTicks) {
+			slot.restart();
+			done = true;
+		}
+		if (done) {
+			slot.episodeTicks = 0;
+		}
+		rewards[index] = slot.bricksDestroyed * REWARD_PER_BRICK + slot.livesLost * REWARD_PER_LIFE_LOST;
+		dones[index] = done;
+		observe(index);
+	}
+
+	private static int keysOf(int action) {
+		switch (action) {
+			case ACTION_LEFT:
+				return InputLog.LEFT;
+			case ACTION_RIGHT:
+				return InputLog.RIGHT;
+			case ACTION_STAY:
+				return 0;
+			default:
+				throw new IllegalArgumentException("Unknown action " + action);
+		}
+	}
+
+	/**
+	 * Writes an environment's observation and brick bitmap.
+	 */
+	private void observe(int index) {
+		Slot slot = slots[index];
+		BrickerGameManager game = slot.game;
+		int base = index * observationSize;
+		writeBody(game.getBall(), base + OBS_BALL_X);
+		Paddle paddle = game.getUserPaddle();
+		observations[base + OBS_PADDLE_X] = paddle.getCenter().x();
+		observations[base + OBS_PADDLE_VX] = paddle.getVelocity().x();
+		observations[base + OBS_EXTRA_PADDLE] = 0;
+		observations[base + OBS_EXTRA_PADDLE_X] = 0;
+		observations[base + OBS_EXTRA_PADDLE_Y] = 0;
+		observations[base + OBS_LIVES] = game.getNumLives();
+		observations[base + OBS_BRICKS_LEFT] = game.getBricksLeft();
+		int pucks = 0;
+		for (GameObject object : game.gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			if (object instanceof PuckBall && pucks < maxPucks) {
+				int puck = base + OBS_PUCKS + pucks * PUCK_FLOATS;
+				observations[puck] = 1;
+				writeBody(object, puck + PUCK_BODY);
+				pucks++;
+			} else if (object instanceof ExtraPaddle) {
+				Vector2 center = object.getCenter();
+				observations[base + OBS_EXTRA_PADDLE] = 1;
+				observations[base + OBS_EXTRA_PADDLE_X] = center.x();
+				observations[base + OBS_EXTRA_PADDLE_Y] = center.y();
+			}
+		}
+		int firstEmpty = base + OBS_PUCKS + pucks * PUCK_FLOATS;
+		Arrays.fill(observations, firstEmpty, base + observationSize, 0);
+		slot.field.copyAlive(bricks, index * brickWords);
+	}
+
+	/**
+	 * Writes an object's center and velocity into four consecutive observation floats.
+	 */
+	private void writeBody(GameObject object, int at) {
+		Vector2 center = object.getCenter();
+		Vector2 velocity = object.getVelocity();
+		observations[at] = center.x();
+		observations[at + BODY_Y] = center.y();
+		observations[at + BODY_VX] = velocity.x();
+		observations[at + BODY_VY] = velocity.y();
+	}
+
+	/**
+	 * One environment: its game and what happened to it during the current step.
+	 */
+	private static class Slot implements GameEventHandler {
+		private final HeadlessRunner runner;
+		private final BrickerGameManager game;
+		private final BrickField field;
+		private int bricksDestroyed = 0;
+		private int livesLost = 0;
+		private boolean restarted = false;
+		private long episodeTicks = 0;
+
+		Slot(HeadlessRunner runner) {
+			this.runner = runner;
+			this.game = runner.getGame();
+			runner.getWindowController().setPlayAgain(true);
+			runner.start();
+			this.field = game.getBrickField();
+			game.getEvents().subscribe(this);
+		}
+
+		@Override
+		public void onEvent(GameEvent event) {
+			switch (event.type()) {
+				case BRICK_DESTROYED:
+					bricksDestroyed++;
+					break;
+				case LIFE_LOST:
+					livesLost++;
+					break;
+				case GAME_RESTARTED:
+					restarted = true;
+					break;
+				default:
+					break;
+			}
+		}
+
+		void clearStepCounts() {
+			bricksDestroyed = 0;
+			livesLost = 0;
+			restarted = false;
+		}
+
+		void restart() {
+			game.restartGame();
+			episodeTicks = 0;
+		}
+	}
+
+	/**
+	 * Steps the environments of one range.
+	 */
+	private class Range extends RecursiveAction {
+		private final int start;
+		private final int end;
+
+		Range(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			for (int i = start; i < end; i++) {
+				stepOne(i);
+			}
+		}
+	}
+
+	/**
+	 * Runs every range on the pool and waits for all of them.
+	 */
+	private class Batch extends RecursiveAction {
+		@Override
+		protected void compute() {
+			for (Range range : ranges) {
+				range.reinitialize();
+			}
+			ForkJoinTask.invokeAll(ranges);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package bricker.main;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks a match hosted on the loopback interface.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class GameServerTest {
+
+	private static final String[] ARGS = {"2", "4"};
+	private static final long SEED = 5;
+	private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+	private static final long TICKS_AFTER_RESTART = 30;
+	private static final long POLL_MILLIS = 1;
+	private static final long INITIAL_KEYFRAMES = 1;
+
+	/**
+	 * Has a client ask for a restart, and checks that the match keeps running and that the
+	 * restart is sent as a keyframe.
+	 *
+	 * @throws Exception If the match cannot be hosted or joined.
+	 */
+	@Test
+	public void restartKeepsTheMatchRunning() throws Exception {
+		GameServer server = new GameServer(ARGS, SEED, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		Thread match = new Thread(() -> {
+			try {
+				server.run(Long.MAX_VALUE);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				server.close();
+			}
+		});
+		match.start();
+		try (GameClient client = GameClient.connect(
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()))) {
+			long deadline = System.nanoTime() + TIMEOUT_NANOS;
+			while (!client.state().isSynced()) {
+				pollUntil(client, deadline);
+			}
+			client.sendKeys(InputLog.RESTART);
+			long restartTick = client.state().getTick();
+			while (client.state().getTick() < restartTick + TICKS_AFTER_RESTART) {
+				pollUntil(client, deadline);
+			}
+			client.sendKeys(0);
+			assertTrue(match.isAlive(), "the restart ended the match");
+		} finally {
+			server.stop();
+			match.join();
+		}
+		assertTrue(server.getKeyframesSent() > INITIAL_KEYFRAMES, "no keyframe after the restart");
+	}
+
+	private static void pollUntil(GameClient client, long deadline) throws IOException, InterruptedException {
+		assertTrue(System.nanoTime() < deadline, "timed out waiting for the server");
+		if (client.poll() == 0) {
+			Thread.sleep(POLL_MILLIS);
+		}
+	}
+}
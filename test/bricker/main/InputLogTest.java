@@ -0,0 +1,96 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks that replaying an {@link InputLog} through a {@link HeadlessRunner} reproduces the
+ * recorded session bit for bit.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class InputLogTest {
+
+	private static final String[] ARGS = {"5", "8"};
+	private static final long[] SEEDS = {1, 42, -7_331_020_412L};
+	private static final float[] TIMESTEPS = {1f / 60, 1f / 144, 1f / 30};
+	private static final long TICKS = 3_000;
+
+	/**
+	 * Records autopiloted sessions, round-trips their logs through the binary format and
+	 * replays them, comparing the random generator, the main ball and the bricks at the end.
+	 *
+	 * @throws IOException Never; the log is written to memory.
+	 */
+	@Test
+	public void replayReproducesRecordedSession() throws IOException {
+		for (long seed : SEEDS) {
+			for (float timestep : TIMESTEPS) {
+				HeadlessRunner recorded = new HeadlessRunner(ARGS, true, seed);
+				recorded.setTimestep(timestep);
+				InputLog log = recorded.startRecording();
+				recorded.start();
+				recorded.run(TICKS);
+
+				HeadlessRunner replayed = HeadlessRunner.replaying(roundTrip(log));
+				replayed.start();
+				replayed.run(Long.MAX_VALUE);
+
+				String session = "seed " + seed + ", timestep " + timestep;
+				assertEquals(recorded.getTicks(), replayed.getTicks(), session);
+				assertEquals(snapshot(recorded), snapshot(replayed), session);
+				assertArrayEquals(alive(recorded), alive(replayed), session);
+			}
+		}
+	}
+
+	/**
+	 * Checks that sessions with different seeds do diverge, so the comparison above is not
+	 * vacuous.
+	 */
+	@Test
+	public void differentSeedsDiverge() {
+		HeadlessRunner first = new HeadlessRunner(ARGS, true, SEEDS[0]);
+		HeadlessRunner second = new HeadlessRunner(ARGS, true, SEEDS[1]);
+		first.start();
+		second.start();
+		first.run(TICKS);
+		second.run(TICKS);
+		assertNotEquals(snapshot(first), snapshot(second), "sessions with different seeds matched");
+	}
+
+	private static InputLog roundTrip(InputLog log) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		log.writeTo(out);
+		return InputLog.readFrom(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	/**
+	 * @return The random generator's state, the main ball's position and velocity and the
+	 * lives left, exactly (floats by their bits).
+	 */
+	private static String snapshot(HeadlessRunner runner) {
+		BrickerGameManager game = runner.getGame();
+		Ball ball = game.getBall();
+		return "random " + game.getRandom().getState()
+				+ ", ball " + Float.floatToIntBits(ball.getCenter().x()) + "/" + Float.floatToIntBits(ball.getCenter().y())
+				+ " moving " + Float.floatToIntBits(ball.getVelocity().x()) + "/" + Float.floatToIntBits(ball.getVelocity().y())
+				+ ", lives " + game.getNumLives();
+	}
+
+	private static long[] alive(HeadlessRunner runner) {
+		BrickField field = runner.getGame().getBrickField();
+		long[] alive = new long[(field.size() + Long.SIZE - 1) / Long.SIZE];
+		field.copyAlive(alive, 0);
+		return alive;
+	}
+}
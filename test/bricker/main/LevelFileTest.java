@@ -0,0 +1,153 @@
+package bricker.main;
+
+import bricker.brick_strategies.FactoryDoubleStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link LevelFile#open} rejects levels whose chunk table or brick records do not
+ * fit the rest of the file.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class LevelFileTest {
+
+	private static final int BRICKS = 600;
+	private static final int COLS = 30;
+	private static final float BRICK_WIDTH = 20;
+	private static final float BRICK_HEIGHT = 8;
+	private static final int CHUNK_RECORD_BYTES = LevelFile.BOUNDS_PER_CHUNK * Float.BYTES + 2 * Integer.BYTES;
+	private static final int FIRST_BRICK_OFFSET = LevelFile.BOUNDS_PER_CHUNK * Float.BYTES;
+	private static final int CHUNK_SIZE_OFFSET = FIRST_BRICK_OFFSET + Integer.BYTES;
+	private static final int STRATEGY_OFFSET = 4 * Float.BYTES;
+
+	/**
+	 * Opens the level as written, as a baseline for the damaged copies.
+	 *
+	 * @throws IOException If the level cannot be written or opened.
+	 */
+	@Test
+	public void opensAnIntactLevel() throws IOException {
+		Path path = writeLevel();
+		try {
+			LevelFile level = LevelFile.open(path);
+			assertEquals(BRICKS, level.brickCount());
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	/**
+	 * Grows the last chunk past the end of the bricks.
+	 *
+	 * @throws IOException If the level cannot be written.
+	 */
+	@Test
+	public void rejectsAChunkPastTheBricks() throws IOException {
+		Path path = writeLevel();
+		try {
+			Layout layout = new Layout(LevelFile.open(path), Files.size(path));
+			int last = layout.chunkCount - 1;
+			putInt(path, layout.chunk(last) + CHUNK_SIZE_OFFSET, layout.chunkSize(last) + 1);
+			assertThrows(IOException.class, () -> LevelFile.open(path));
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	/**
+	 * Starts the second chunk inside the first.
+	 *
+	 * @throws IOException If the level cannot be written.
+	 */
+	@Test
+	public void rejectsOverlappingChunks() throws IOException {
+		Path path = writeLevel();
+		try {
+			Layout layout = new Layout(LevelFile.open(path), Files.size(path));
+			putInt(path, layout.chunk(1) + FIRST_BRICK_OFFSET, layout.level.chunkFirstBrick(0));
+			assertThrows(IOException.class, () -> LevelFile.open(path));
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	/**
+	 * Points a brick past the end of the strategy table.
+	 *
+	 * @throws IOException If the level cannot be written.
+	 */
+	@Test
+	public void rejectsAnUnknownStrategy() throws IOException {
+		Path path = writeLevel();
+		try {
+			Layout layout = new Layout(LevelFile.open(path), Files.size(path));
+			int brick = BRICKS - 1;
+			ByteBuffer strategy = ByteBuffer.allocate(Short.BYTES).putShort(0, (short) layout.level.strategyCount());
+			write(path, layout.brick(brick) + STRATEGY_OFFSET, strategy);
+			assertThrows(IOException.class, () -> LevelFile.open(path));
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	private static Path writeLevel() throws IOException {
+		LevelWriter writer = new LevelWriter();
+		for (int i = 0; i < BRICKS; i++) {
+			writer.addBrick((i % COLS) * BRICK_WIDTH, (i / COLS) * BRICK_HEIGHT, BRICK_WIDTH, BRICK_HEIGHT,
+					(byte) (i % FactoryDoubleStrategy.STRATEGY_DOUBLE));
+		}
+		Path path = Files.createTempFile("bricker-level", ".lvl");
+		writer.write(path);
+		return path;
+	}
+
+	private static void putInt(Path path, long offset, int value) throws IOException {
+		write(path, offset, ByteBuffer.allocate(Integer.BYTES).putInt(0, value));
+	}
+
+	private static void write(Path path, long offset, ByteBuffer bytes) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(bytes, offset);
+		}
+	}
+
+	/**
+	 * Where the chunk table and the brick records of an intact level start: the bricks fill
+	 * the end of the file, right after the chunk table.
+	 */
+	private static class Layout {
+		private final LevelFile level;
+		private final int chunkCount;
+		private final long bricksOffset;
+		private final long chunksOffset;
+
+		Layout(LevelFile level, long fileSize) {
+			this.level = level;
+			this.chunkCount = level.chunkCount();
+			this.bricksOffset = fileSize - (long) level.brickCount() * LevelFile.BRICK_RECORD_BYTES;
+			this.chunksOffset = bricksOffset - (long) chunkCount * CHUNK_RECORD_BYTES;
+		}
+
+		long chunk(int chunk) {
+			return chunksOffset + (long) chunk * CHUNK_RECORD_BYTES;
+		}
+
+		int chunkSize(int chunk) {
+			return level.chunkSize(chunk);
+		}
+
+		long brick(int brick) {
+			return bricksOffset + (long) brick * LevelFile.BRICK_RECORD_BYTES;
+		}
+	}
+}
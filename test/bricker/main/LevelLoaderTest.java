@@ -0,0 +1,152 @@
+package bricker.main;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.BrickGrid;
+import danogl.util.Vector2;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a level's bricks keep their index in the file as their id, whatever order the
+ * {@link LevelLoader} brings their chunks in.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class LevelLoaderTest {
+
+	private static final String ROWS = "200";
+	private static final String COLS = "200";
+	private static final String LEVEL_SEED = "5";
+	private static final String[] GAME_ARGS = {"1", "1"};
+	private static final long SEED = 11;
+	private static final Vector2 LOW_IN_LEVEL = new Vector2(600, 230);
+	private static final Vector2 DOWN_RIGHT = new Vector2(300, 300);
+
+	/**
+	 * Loads the last chunk first, then the rest in file order.
+	 *
+	 * @throws IOException If the level cannot be written.
+	 */
+	@Test
+	public void bricksKeepFileIdsWhenLoadedOutOfOrder() throws IOException {
+		Path path = writeLevel();
+		try {
+			LevelFile level = LevelFile.open(path);
+			HeadlessRunner runner = new HeadlessRunner(GAME_ARGS, false, SEED);
+			runner.start();
+			BrickField field = new BrickField(Vector2.ZERO, new Vector2(level.gridCols(), level.gridRows()), null,
+					new BrickGrid(new Vector2(level.gridOriginX(), level.gridOriginY()),
+							new Vector2(level.cellWidth(), level.cellHeight()), level.gridRows(), level.gridCols()),
+					0);
+			LevelLoader loader = new LevelLoader(level, field, runner.getGame().getStrategyFactory());
+			assertEquals(level.brickCount(), field.size());
+
+			int last = level.chunkCount() - 1;
+			int lastBrick = level.chunkFirstBrick(last);
+			float centerX = level.brickX(lastBrick) + level.brickWidth(lastBrick) / 2;
+			float centerY = level.brickY(lastBrick) + level.brickHeight(lastBrick) / 2;
+			loader.ensureLoaded(centerX, centerY, centerX, centerY);
+			assertTrue(field.isPresent(lastBrick), "the chunk near the box was not loaded");
+			assertFalse(field.isPresent(0), "the first chunk was loaded too early");
+			assertFalse(field.isAlive(0), "a reserved slot is alive");
+
+			loader.loadNext(Integer.MAX_VALUE);
+			assertEquals(level.brickCount(), field.size());
+			assertEquals(level.brickCount(), field.liveCount());
+			for (int id = 0; id < level.brickCount(); id++) {
+				assertRect(level, field, id, "brick " + id);
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	/**
+	 * Plays a tick of a level whose ball pulls in a chunk far from the ones loaded at the start,
+	 * destroys a few bricks, and restores a snapshot of it into a fresh game of the same level.
+	 *
+	 * @throws IOException If the level cannot be written or the snapshot read.
+	 */
+	@Test
+	public void restoreHitsTheSameBricksOfALazilyLoadedLevel() throws IOException {
+		Path path = writeLevel();
+		try {
+			HeadlessRunner played = levelRunner(path);
+			played.start();
+			Ball ball = played.getGame().getBall();
+			ball.setCenter(LOW_IN_LEVEL);
+			ball.setVelocity(DOWN_RIGHT);
+			played.step();
+			BrickField playedField = played.getGame().getBrickField();
+			LevelFile level = LevelFile.open(path);
+			int pulledIn = firstPresentAfterGap(playedField);
+			assertTrue(pulledIn > 0, "the ball did not pull in a chunk out of order");
+			int[] destroyed = {0, pulledIn};
+			for (int id : destroyed) {
+				assertTrue(playedField.remove(id), "brick " + id + " was not in play");
+			}
+			GameSnapshot snapshot = GameSnapshot.fromBytes(played.getGame().snapshot().toByteArray());
+
+			HeadlessRunner restored = levelRunner(path);
+			restored.start();
+			restored.getGame().restore(snapshot);
+			BrickField restoredField = restored.getGame().getBrickField();
+			assertEquals(playedField.size(), restoredField.size());
+			for (int id = 0; id < level.brickCount(); id++) {
+				assertRect(level, playedField, id, "played brick " + id);
+				assertRect(level, restoredField, id, "restored brick " + id);
+				assertEquals(playedField.isAlive(id), restoredField.isAlive(id), "liveness of brick " + id);
+			}
+			for (int id : destroyed) {
+				assertFalse(restoredField.isAlive(id), "destroyed brick " + id + " is alive");
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	/**
+	 * @return The first brick present after a brick that is not, or -1 if the loaded bricks are
+	 * a prefix of the level.
+	 */
+	private static int firstPresentAfterGap(BrickField field) {
+		boolean gap = false;
+		for (int id = 0; id < field.size(); id++) {
+			if (!field.isPresent(id)) {
+				gap = true;
+			} else if (gap) {
+				return id;
+			}
+		}
+		return -1;
+	}
+
+	private static HeadlessRunner levelRunner(Path path) throws IOException {
+		HeadlessRunner runner = new HeadlessRunner(GAME_ARGS, false, SEED);
+		runner.getGame().setLevel(LevelFile.open(path));
+		return runner;
+	}
+
+	private static Path writeLevel() throws IOException {
+		Path path = Files.createTempFile("bricker-level", ".lvl");
+		LevelWriter.main(new String[]{path.toString(), ROWS, COLS, LEVEL_SEED});
+		return path;
+	}
+
+	private static void assertRect(LevelFile level, BrickField field, int id, String message) {
+		Brick brick = field.view(id);
+		assertEquals(level.brickX(id), brick.getTopLeftCorner().x(), message);
+		assertEquals(level.brickY(id), brick.getTopLeftCorner().y(), message);
+		assertEquals(level.brickWidth(id), brick.getDimensions().x(), message);
+		assertEquals(level.brickHeight(id), brick.getDimensions().y(), message);
+	}
+}
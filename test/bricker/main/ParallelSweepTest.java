@@ -0,0 +1,122 @@
+package bricker.main;
+
+import bricker.brick_strategies.FactoryDoubleStrategy;
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.BrickField;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that sweeping the balls on several workers gives exactly the session a single
+ * worker gives.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class ParallelSweepTest {
+
+	private static final String[] ARGS = {"1", "1"};
+	private static final long[] SEEDS = {3, 2024};
+	private static final int[] WORKER_COUNTS = {2, 4};
+	private static final long TICKS = 400;
+	private static final int ROWS = 4;
+	private static final int COLS = 24;
+	private static final float MARGIN = 5;
+	private static final float BRICK_WIDTH = 28;
+	private static final float BRICK_HEIGHT = 8;
+	private static final float SPACING = 1;
+
+	/**
+	 * Plays a level of extra-ball bricks, which fills the screen with pucks, with one worker
+	 * and with several, comparing every ball, the bricks and the published events at the end.
+	 *
+	 * @throws IOException If the level cannot be written.
+	 */
+	@Test
+	public void workersDoNotChangeTheSession() throws IOException {
+		Path path = writeLevel();
+		try {
+			for (long seed : SEEDS) {
+				Session reference = new Session(path, seed, 1);
+				assertTrue(reference.maxBalls >= 2 * ParallelSweep.DEFAULT_MIN_BALLS_PER_WORKER,
+						"too few balls in play to sweep in parallel: " + reference.maxBalls);
+				for (int workers : WORKER_COUNTS) {
+					Session parallel = new Session(path, seed, workers);
+					String session = "seed " + seed + ", " + workers + " workers";
+					assertEquals(reference.balls, parallel.balls, session);
+					assertArrayEquals(reference.alive, parallel.alive, session);
+					assertEquals(reference.events, parallel.events, session);
+				}
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	private static Path writeLevel() throws IOException {
+		LevelWriter writer = new LevelWriter();
+		for (int row = 0; row < ROWS; row++) {
+			for (int col = 0; col < COLS; col++) {
+				writer.addBrick(MARGIN + col * (BRICK_WIDTH + SPACING), MARGIN + row * (BRICK_HEIGHT + SPACING),
+						BRICK_WIDTH, BRICK_HEIGHT, (byte) FactoryDoubleStrategy.STRATEGY_EXTRA_BALLS);
+			}
+		}
+		Path path = Files.createTempFile("bricker-pucks", ".lvl");
+		writer.write(path);
+		return path;
+	}
+
+	/**
+	 * The end state of one autopiloted session.
+	 */
+	private static class Session {
+		private final List<String> events = new ArrayList<>();
+		private final List<String> balls = new ArrayList<>();
+		private final long[] alive;
+		private int maxBalls = 0;
+
+		Session(Path level, long seed, int workers) throws IOException {
+			HeadlessRunner runner = new HeadlessRunner(ARGS, true, seed);
+			BrickerGameManager game = runner.getGame();
+			game.setLevel(LevelFile.open(level));
+			game.setPhysicsWorkers(workers);
+			game.getEvents().subscribe(event -> events.add(event.sequence() + " " + event.type() + " "
+					+ event.value() + " " + Float.floatToIntBits(event.x()) + " " + Float.floatToIntBits(event.y())));
+			runner.start();
+			for (long tick = 0; tick < TICKS && runner.step(); tick++) {
+				maxBalls = Math.max(maxBalls, countBalls(game));
+			}
+			for (GameObject object : game.gameObjects().objectsInLayer(Layer.DEFAULT)) {
+				if (object instanceof Ball) {
+					balls.add(Float.floatToIntBits(object.getCenter().x()) + " " + Float.floatToIntBits(object.getCenter().y())
+							+ " " + Float.floatToIntBits(object.getVelocity().x())
+							+ " " + Float.floatToIntBits(object.getVelocity().y()));
+				}
+			}
+			BrickField field = game.getBrickField();
+			alive = new long[(field.size() + Long.SIZE - 1) / Long.SIZE];
+			field.copyAlive(alive, 0);
+			game.setPhysicsWorkers(1); // stops the session's worker pool
+		}
+
+		private static int countBalls(BrickerGameManager game) {
+			int count = 0;
+			for (GameObject object : game.gameObjects().objectsInLayer(Layer.DEFAULT)) {
+				if (object instanceof Ball) {
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package bricker.main;
+
+import bricker.gameobjects.PuckBall;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that pucks keep their course through the walls instead of being caught by them.
+ *
+ * @author Eyal Hartman, Dana Weitzhandler
+ */
+public class PuckBallTest {
+
+	private static final String[] ARGS = {"1", "2"};
+	private static final long SEED = 11;
+	private static final long MAX_TICKS = 120;
+	private static final float[] TIMESTEPS = {1f / 144, 1f / 60, 1f / 30};
+	private static final Vector2 START = new Vector2(60, 200);
+	private static final Vector2 VELOCITY = new Vector2(0, -300);
+	private static final int MAX_COLLISIONS = 2;
+
+	/**
+	 * Sends a puck straight up into the top wall, with the brick above it out of its way, and
+	 * checks that it passes the wall and is despawned above the window. The other brick keeps
+	 * the game from being won when the puck breaks the wall.
+	 */
+	@Test
+	public void puckCrossesTheTopWallAndDespawns() {
+		for (float timestep : TIMESTEPS) {
+			HeadlessRunner runner = new HeadlessRunner(ARGS, false, SEED);
+			runner.setTimestep(timestep);
+			BrickerGameManager game = runner.getGame();
+			List<GameEventType> events = new ArrayList<>();
+			game.getEvents().subscribe(event -> events.add(event.type()));
+			runner.start();
+			game.getBrickField().remove(0);
+			PuckBall puck = game.getPuckPool().acquire();
+			puck.reset(START, VELOCITY);
+			game.getCommands().spawn(puck, Layer.DEFAULT);
+			for (long tick = 0; tick < MAX_TICKS && !events.contains(GameEventType.PUCK_LOST); tick++) {
+				runner.step();
+			}
+			String session = "timestep " + timestep;
+			assertTrue(events.contains(GameEventType.PUCK_LOST), session);
+			assertTrue(puck.getCenter().y() < 0, session);
+			assertTrue(puck.getCollisionCounter() <= MAX_COLLISIONS,
+					session + ": hit the wall " + puck.getCollisionCounter() + " times");
+			assertEquals(VELOCITY.x(), puck.getVelocity().x(), session);
+			assertEquals(VELOCITY.y(), puck.getVelocity().y(), session);
+		}
+	}
+}